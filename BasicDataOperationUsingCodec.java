@@ -0,0 +1,943 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Клас BasicDataOperationUsingCodec виконує основнi операцiї з даними будь-якого типу з каталогу "list".
+ * 
+ * <p>Тип даних задається першим аргументом i визначає файл "list/&lt;тип&gt;.data" та кодек
+ * ({@link DataCodec}), який розбирає, форматує та порiвнює значення. Для цiлочисельних типiв
+ * (byte, short, int, long, char) операцiї виконуються над масивом long[], для дробових (float, double) -
+ * над масивом double[], тому значення не упаковуються в Integer/Double. Для решти типiв
+ * (String, Character, LocalDate, LocalTime, LocalDateTime) використовуються масив, HashSet та PriorityQueue.</p>
+ * 
+ * <p>Основнi методи:</p>
+ * <ul>
+ *   <li>{@link #main(String[])} - Точка входу в програму.</li>
+ *   <li>{@link #doDataOperation()} - Виконує основнi операцiї з даними.</li>
+ * </ul>
+ * 
+ * <p>Конструктор:</p>
+ * <ul>
+ *   <li>{@link #BasicDataOperationUsingCodec(String[])} - iнiцiалiзує об'єкт з типом даних i значенням для пошуку.</li>
+ * </ul>
+ * 
+ * <p>Константи:</p>
+ * <ul>
+ *   <li>{@link #PATH_TO_DATA_DIRECTORY} - Шлях до каталогу з файлами даних.</li>
+ *   <li>{@link #DATA_FILE_EXTENSION} - Розширення файлiв з даними.</li>
+ *   <li>{@link OperationMetrics#METRICS_OUTPUT_PROPERTY} - Системна властивiсть з файлом для метрик операцiй (.json, .csv, .prom).</li>
+ *   <li>{@link DataFileWriter#COMPRESSION_PROPERTY} - Системна властивiсть, що вмикає стиснення файлу .sorted ({@code gzip}).</li>
+ * </ul>
+ * 
+ * <p>Змiннi екземпляра:</p>
+ * <ul>
+ *   <li>{@link #dataOperation} - Операцiї над даними обраного типу.</li>
+ * </ul>
+ * 
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java BasicDataOperationUsingCodec int 987654321
+ * java BasicDataOperationUsingCodec double 2.345E+123
+ * java BasicDataOperationUsingCodec LocalDate 2024-03-22
+ * java -Dmetrics.output=metrics.json BasicDataOperationUsingCodec long 5793743070945927512
+ * java -Doutput.compression=gzip BasicDataOperationUsingCodec long 5793743070945927512
+ * }
+ * </pre>
+ */
+public class BasicDataOperationUsingCodec {
+    static final String PATH_TO_DATA_DIRECTORY = "list/";
+    static final String DATA_FILE_EXTENSION = ".data";
+
+    TypedDataOperation dataOperation;
+
+    public static void main(String[] args) {
+        BasicDataOperationUsingCodec basicDataOperationUsingCodec = new BasicDataOperationUsingCodec(args);
+        basicDataOperationUsingCodec.doDataOperation();
+    }
+
+    /**
+     * Конструктор, який iнiцiалiзує об'єкт з типом даних i значенням для пошуку.
+     * 
+     * @param args Аргументи командного рядка: тип даних (назва файлу в каталозi "list") та значення для пошуку.
+     */
+    BasicDataOperationUsingCodec(String[] args) {
+        if (args.length < 2) {
+            throw new RuntimeException("Вiдсутнiй тип даних або значення для пошуку");
+        }
+
+        DataCodec codec = DataCodec.forType(args[0]);
+        String pathToDataFile = PATH_TO_DATA_DIRECTORY + codec.typeName() + DATA_FILE_EXTENSION;
+        String operationName = "зчитування масиву " + codec.typeName() + " з файлу";
+
+        long startTime = Utils.startOperation();
+
+        dataOperation = TypedDataOperation.create(codec, pathToDataFile, args[1]);
+
+        Utils.printOperationThroughput(startTime, operationName, dataOperation.length());
+    }
+
+    /**
+     * Виконує основнi операцiї з даними.
+     * 
+     * Метод виконує пошук i пошук мiнiмуму та максимуму в масивi до i пiсля сортування, операцiї з множиною
+     * та чергою i записує вiдсортований масив в окремий файл.
+     */
+    void doDataOperation() {
+        // операцiї з масивом
+        dataOperation.searchArray();
+        dataOperation.findMinAndMaxInArray();
+
+        dataOperation.sortArray();
+
+        dataOperation.searchArray();
+        dataOperation.findMinAndMaxInArray();
+
+        // операцiї з множиною та чергою
+        dataOperation.searchSet();
+        dataOperation.compareArrayAndSet();
+        dataOperation.peekAndPollQueue();
+
+        // записати вiдсортований масив в окремий файл
+        dataOperation.writeSortedArray();
+    }
+}
+
+/**
+ * Iнтерфейс DataCodec описує тип даних з каталогу "list": назву типу та спосiб розбору його значень.
+ * 
+ * <p>Кожен кодек належить до одного з трьох видiв: {@link LongCodec} (цiлочисельнi типи з ключем long),
+ * {@link DoubleCodec} (дробовi типи з ключем double) або {@link ObjectCodec} (порiвнюванi об'єкти).</p>
+ */
+interface DataCodec {
+    /**
+     * Повертає назву типу, яка збiгається з назвою файлу даних.
+     */
+    String typeName();
+
+    /**
+     * Повертає кодек для заданої назви типу.
+     * 
+     * @param typeName Назва типу (byte, short, int, long, char, float, double, String, Character,
+     *                 LocalDate, LocalTime, LocalDateTime).
+     * @return Кодек для типу.
+     */
+    static DataCodec forType(String typeName) {
+        switch (typeName) {
+            case "byte":
+                return new IntegralCodec(typeName, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case "short":
+                return new IntegralCodec(typeName, Short.MIN_VALUE, Short.MAX_VALUE);
+            case "int":
+                return new IntegralCodec(typeName, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case "long":
+                return new IntegralCodec(typeName, Long.MIN_VALUE, Long.MAX_VALUE);
+            case "char":
+                return new CharCodec();
+            case "float":
+                return new FloatingCodec(typeName, true);
+            case "double":
+                return new FloatingCodec(typeName, false);
+            case "String":
+                return new ComparableCodec<>(typeName, (text, offset, length) ->
+                        new String(text, offset, length, StandardCharsets.UTF_8));
+            case "Character":
+                return new ComparableCodec<>(typeName, (text, offset, length) ->
+                        CharCodec.parseChar(new String(text, offset, length, StandardCharsets.UTF_8)));
+            case "LocalDate":
+                return new ComparableCodec<>(typeName, (text, offset, length) ->
+                        LocalDate.parse(new String(text, offset, length, StandardCharsets.US_ASCII)));
+            case "LocalTime":
+                return new ComparableCodec<>(typeName, (text, offset, length) ->
+                        LocalTime.parse(new String(text, offset, length, StandardCharsets.US_ASCII)));
+            case "LocalDateTime":
+                return new ComparableCodec<>(typeName, DateTimeParser::parse);
+            default:
+                throw new IllegalArgumentException("Невiдомий тип даних: " + typeName);
+        }
+    }
+}
+
+/**
+ * Кодек цiлочисельного типу, значення якого зберiгаються як long.
+ */
+interface LongCodec extends DataCodec {
+    /**
+     * Розбирає значення з байтiв рядка.
+     */
+    long parse(byte[] text, int offset, int length);
+
+    /**
+     * Форматує значення для виведення.
+     */
+    String format(long value);
+}
+
+/**
+ * Кодек дробового типу, значення якого зберiгаються як double.
+ */
+interface DoubleCodec extends DataCodec {
+    /**
+     * Розбирає значення з байтiв рядка.
+     */
+    double parse(byte[] text, int offset, int length);
+
+    /**
+     * Форматує значення для виведення.
+     */
+    String format(double value);
+}
+
+/**
+ * Кодек типу, значення якого зберiгаються як порiвнюванi об'єкти.
+ * 
+ * @param <T> Тип значень.
+ */
+interface ObjectCodec<T extends Comparable<? super T>> extends DataCodec {
+    /**
+     * Розбирає значення з байтiв рядка.
+     */
+    T parse(byte[] text, int offset, int length);
+
+    /**
+     * Форматує значення для виведення.
+     */
+    default String format(T value) {
+        return value.toString();
+    }
+}
+
+/**
+ * Кодек для byte, short, int та long з перевiркою меж типу.
+ */
+class IntegralCodec implements LongCodec {
+    private final String typeName;
+    private final long min;
+    private final long max;
+
+    IntegralCodec(String typeName, long min, long max) {
+        this.typeName = typeName;
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public String typeName() {
+        return typeName;
+    }
+
+    /**
+     * Розбирає десяткове цiле число безпосередньо з байтiв; у разi помилки делегує Long.parseLong,
+     * щоб отримати стандартний NumberFormatException.
+     */
+    @Override
+    public long parse(byte[] text, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        boolean negative = index < end && text[index] == '-';
+        if (index < end && (text[index] == '-' || text[index] == '+')) {
+            index++;
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        boolean valid = index < end;
+        for (; valid && index < end; index++) {
+            int digit = text[index] - '0';
+            valid = digit >= 0 && digit <= 9 && result >= multiplyMin && result * 10 >= limit + digit;
+            result = result * 10 - digit;
+        }
+
+        if (!valid) {
+            result = Long.parseLong(new String(text, offset, length, StandardCharsets.US_ASCII));
+        } else if (!negative) {
+            result = -result;
+        }
+
+        if (result < min || result > max) {
+            throw new NumberFormatException("Значення поза межами типу " + typeName + ": " + result);
+        }
+        return result;
+    }
+
+    @Override
+    public String format(long value) {
+        return Long.toString(value);
+    }
+}
+
+/**
+ * Кодек для char: значення зберiгається як код символу.
+ */
+class CharCodec implements LongCodec {
+    @Override
+    public String typeName() {
+        return "char";
+    }
+
+    @Override
+    public long parse(byte[] text, int offset, int length) {
+        return parseChar(new String(text, offset, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String format(long value) {
+        return String.valueOf((char) value);
+    }
+
+    /**
+     * Перетворює рядок з одного символу на символ.
+     * 
+     * @param text Рядок з одного символу.
+     * @return Символ.
+     */
+    static char parseChar(String text) {
+        if (text.length() != 1) {
+            throw new IllegalArgumentException("Очiкувався один символ: '" + text + "'");
+        }
+        return text.charAt(0);
+    }
+}
+
+/**
+ * Кодек для float та double. Значення float зберiгаються як double без втрати точностi.
+ */
+class FloatingCodec implements DoubleCodec {
+    private final String typeName;
+    private final boolean singlePrecision;
+
+    FloatingCodec(String typeName, boolean singlePrecision) {
+        this.typeName = typeName;
+        this.singlePrecision = singlePrecision;
+    }
+
+    @Override
+    public String typeName() {
+        return typeName;
+    }
+
+    @Override
+    public double parse(byte[] text, int offset, int length) {
+        String value = new String(text, offset, length, StandardCharsets.US_ASCII);
+        return singlePrecision ? Float.parseFloat(value) : Double.parseDouble(value);
+    }
+
+    @Override
+    public String format(double value) {
+        return singlePrecision ? Float.toString((float) value) : Double.toString(value);
+    }
+}
+
+/**
+ * Кодек для порiвнюваних об'єктiв з природним порядком.
+ * 
+ * @param <T> Тип значень.
+ */
+class ComparableCodec<T extends Comparable<? super T>> implements ObjectCodec<T> {
+    /**
+     * Розбiр значення з байтiв рядка.
+     * 
+     * @param <T> Тип значень.
+     */
+    @FunctionalInterface
+    interface Parser<T> {
+        T parse(byte[] text, int offset, int length);
+    }
+
+    private final String typeName;
+    private final Parser<T> parser;
+
+    ComparableCodec(String typeName, Parser<T> parser) {
+        this.typeName = typeName;
+        this.parser = parser;
+    }
+
+    @Override
+    public String typeName() {
+        return typeName;
+    }
+
+    @Override
+    public T parse(byte[] text, int offset, int length) {
+        return parser.parse(text, offset, length);
+    }
+}
+
+/**
+ * Клас TypedDataOperation описує операцiї, якi виконуються над даними будь-якого типу:
+ * пошук, пошук мiнiмуму i максимуму, сортування, операцiї з множиною та чергою.
+ */
+abstract class TypedDataOperation {
+    final String typeName;
+    final String pathToDataFile;
+    int skippedLines;
+    boolean sorted;
+
+    // назви операцiй складаються заздалегiдь, щоб конкатенацiя рядкiв не потрапляла у вимiрюваний час
+    final String sortOperationName;
+    final String searchArrayOperationName;
+    final String minAndMaxOperationName;
+    final String searchSetOperationName;
+
+    TypedDataOperation(String typeName, String pathToDataFile) {
+        this.typeName = typeName;
+        this.pathToDataFile = pathToDataFile;
+        this.sortOperationName = "сортування масиву " + typeName;
+        this.searchArrayOperationName = "пошук в масивi " + typeName;
+        this.minAndMaxOperationName = "пошук мiнiмального i максимального значення " + typeName + " в масивi";
+        this.searchSetOperationName = "пошук в множинi " + typeName;
+    }
+
+    /**
+     * Створює операцiї для кодека: примiтивнi для {@link LongCodec} i {@link DoubleCodec},
+     * об'єктнi для {@link ObjectCodec}.
+     * 
+     * @param codec Кодек типу даних.
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param valueToSearch Значення для пошуку у текстовому виглядi.
+     * @return Операцiї над даними, зчитаними з файлу.
+     */
+    static TypedDataOperation create(DataCodec codec, String pathToDataFile, String valueToSearch) {
+        if (codec instanceof LongCodec) {
+            return new LongDataOperation((LongCodec) codec, pathToDataFile, valueToSearch);
+        }
+        if (codec instanceof DoubleCodec) {
+            return new DoubleDataOperation((DoubleCodec) codec, pathToDataFile, valueToSearch);
+        }
+        return ObjectDataOperation.create((ObjectCodec<?>) codec, pathToDataFile, valueToSearch);
+    }
+
+    /**
+     * Повертає кiлькiсть елементiв масиву.
+     */
+    abstract int length();
+
+    /**
+     * Сортує масив та виводить час сортування.
+     */
+    abstract void sortArray();
+
+    /**
+     * Шукає значення в масивi та виводить результат.
+     */
+    abstract void searchArray();
+
+    /**
+     * Знаходить мiнiмальне та максимальне значення в масивi.
+     */
+    abstract void findMinAndMaxInArray();
+
+    /**
+     * Шукає значення в множинi та виводить результат.
+     */
+    abstract void searchSet();
+
+    /**
+     * Порiвнює кiлькiсть елементiв масиву та множини.
+     */
+    abstract void compareArrayAndSet();
+
+    /**
+     * Виконує операцiї peek та poll з чергою.
+     */
+    abstract void peekAndPollQueue();
+
+    /**
+     * Записує вiдсортований масив у файл "&lt;файл даних&gt;.sorted".
+     */
+    abstract void writeSortedArray();
+
+    /**
+     * Виводить кiлькiсть рядкiв файлу, значення яких не вiдповiдають типу (наприклад, виходять за межi int).
+     */
+    void reportSkippedLines() {
+        if (skippedLines > 0) {
+            System.out.println("Пропущено рядкiв, що не вiдповiдають типу " + typeName + ": " + skippedLines);
+        }
+    }
+
+    /**
+     * Записує рядки у файл "&lt;файл даних&gt;.sorted" у кодуваннi UTF-8 (атомарно, через {@link DataFileWriter}).
+     * 
+     * @param count Кiлькiсть рядкiв.
+     * @param line Функцiя, що повертає рядок за його номером.
+     */
+    void writeLinesToFile(int count, IntFunction<String> line) {
+        String operationName = "запис вiдсортованого масиву " + typeName + " у файл";
+        long startTime = Utils.startOperation();
+
+        try (DataFileWriter writer = new DataFileWriter(pathToDataFile + ".sorted")) {
+            for (int i = 0; i < count; i++) {
+                writer.writeLine(line.apply(i));
+            }
+            writer.commit();
+
+            Utils.printWriteThroughput(startTime, operationName, writer.lineCount(), writer.byteCount());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Виводить результат пошуку значення.
+     */
+    void printSearchResult(String value, String container, int index) {
+        if (index >= 0) {
+            System.out.println("Значення '" + value + "' знайдено в " + container + " за iндексом: " + index);
+        } else {
+            System.out.println("Значення '" + value + "' в " + container + " не знайдено.");
+        }
+    }
+
+    /**
+     * Виводить результат пошуку значення в множинi.
+     */
+    void printSetSearchResult(String value, boolean isFound) {
+        if (isFound) {
+            System.out.println("Значення '" + value + "' знайдено в множинi");
+        } else {
+            System.out.println("Значення '" + value + "' в множинi не знайдено.");
+        }
+    }
+}
+
+/**
+ * Операцiї над цiлочисельними даними, що зберiгаються в масивi long[].
+ * 
+ * <p>Множина подається вiдсортованим масивом унiкальних значень, а черга з прiоритетом -
+ * вiдсортованим масивом з покажчиком голови (вiдсортований масив є коректною бiнарною купою).</p>
+ */
+class LongDataOperation extends TypedDataOperation {
+    private final LongCodec codec;
+    private final long valueToSearch;
+    private final long[] array;
+    private long[] distinctValues;
+
+    LongDataOperation(LongCodec codec, String pathToDataFile, String valueToSearch) {
+        super(codec.typeName(), pathToDataFile);
+        this.codec = codec;
+        byte[] value = valueToSearch.getBytes(StandardCharsets.UTF_8);
+        this.valueToSearch = codec.parse(value, 0, value.length);
+
+        long[] tempArray = new long[0];
+        int index = 0;
+        try (DataLineReader reader = new DataLineReader(pathToDataFile)) {
+            tempArray = new long[reader.estimateLineCount()];
+            while (reader.nextLine()) {
+                if (index == tempArray.length) {
+                    tempArray = Arrays.copyOf(tempArray, Utils.grow(index));
+                }
+                try {
+                    tempArray[index] = codec.parse(reader.line(), 0, reader.lineLength());
+                    index++;
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    skippedLines++;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        array = Arrays.copyOf(tempArray, index);
+        reportSkippedLines();
+    }
+
+    @Override
+    int length() {
+        return array.length;
+    }
+
+    @Override
+    void sortArray() {
+        long startTime = Utils.startOperation();
+
+        SortEngine.Strategy strategy = SortEngine.sort(array);
+        sorted = true;
+
+        Utils.printOperationDuration(startTime, sortOperationName, strategy);
+    }
+
+    @Override
+    void searchArray() {
+        long startTime = Utils.startOperation();
+
+        int index = Arrays.binarySearch(array, valueToSearch);
+
+        Utils.printOperationDuration(startTime, searchArrayOperationName);
+
+        printSearchResult(codec.format(valueToSearch), "масивi", index);
+    }
+
+    @Override
+    void findMinAndMaxInArray() {
+        if (array.length == 0) {
+            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        long min = array[0];
+        long max = array[array.length - 1];
+        if (!sorted) {
+            max = min;
+            for (long value : array) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+
+        Utils.printOperationDuration(startTime, minAndMaxOperationName);
+
+        System.out.println("Мiнiмальне значення в масивi: " + codec.format(min));
+        System.out.println("Максимальне значення в масивi: " + codec.format(max));
+    }
+
+    @Override
+    void searchSet() {
+        long startTime = Utils.startOperation();
+
+        boolean isFound = Arrays.binarySearch(distinctValues(), valueToSearch) >= 0;
+
+        Utils.printOperationDuration(startTime, searchSetOperationName);
+
+        printSetSearchResult(codec.format(valueToSearch), isFound);
+    }
+
+    @Override
+    void compareArrayAndSet() {
+        System.out.println("Кiлькiсть елементiв в масивi: " + array.length);
+        System.out.println("Кiлькiсть елементiв в множинi: " + distinctValues().length);
+    }
+
+    @Override
+    void peekAndPollQueue() {
+        if (array.length == 0) {
+            System.out.println("Черга порожня або не iнiцiалiзована.");
+            return;
+        }
+
+        long[] queue = sortedCopy();
+        int head = 0;
+
+        System.out.println("Перший елемент у черзi: " + codec.format(queue[head]));
+        System.out.println("Забрати перший елемент у черзi: " + codec.format(queue[head++]));
+        if (head < queue.length) {
+            System.out.println("Перший елемент у черзi: " + codec.format(queue[head]));
+        }
+    }
+
+    @Override
+    void writeSortedArray() {
+        writeLinesToFile(array.length, index -> codec.format(array[index]));
+    }
+
+    private long[] sortedCopy() {
+        long[] copy = array.clone();
+        SortEngine.sort(copy);
+        return copy;
+    }
+
+    private long[] distinctValues() {
+        if (distinctValues == null) {
+            long[] sorted = sortedCopy();
+            distinctValues = Arrays.copyOf(sorted, SortEngine.deduplicate(sorted));
+        }
+        return distinctValues;
+    }
+}
+
+/**
+ * Операцiї над дробовими даними, що зберiгаються в масивi double[].
+ * 
+ * <p>Множина подається вiдсортованим масивом унiкальних значень, а черга з прiоритетом -
+ * вiдсортованим масивом з покажчиком голови (вiдсортований масив є коректною бiнарною купою).</p>
+ */
+class DoubleDataOperation extends TypedDataOperation {
+    private final DoubleCodec codec;
+    private final double valueToSearch;
+    private final double[] array;
+    private double[] distinctValues;
+
+    DoubleDataOperation(DoubleCodec codec, String pathToDataFile, String valueToSearch) {
+        super(codec.typeName(), pathToDataFile);
+        this.codec = codec;
+        byte[] value = valueToSearch.getBytes(StandardCharsets.UTF_8);
+        this.valueToSearch = codec.parse(value, 0, value.length);
+
+        double[] tempArray = new double[0];
+        int index = 0;
+        try (DataLineReader reader = new DataLineReader(pathToDataFile)) {
+            tempArray = new double[reader.estimateLineCount()];
+            while (reader.nextLine()) {
+                if (index == tempArray.length) {
+                    tempArray = Arrays.copyOf(tempArray, Utils.grow(index));
+                }
+                try {
+                    tempArray[index] = codec.parse(reader.line(), 0, reader.lineLength());
+                    index++;
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    skippedLines++;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        array = Arrays.copyOf(tempArray, index);
+        reportSkippedLines();
+    }
+
+    @Override
+    int length() {
+        return array.length;
+    }
+
+    @Override
+    void sortArray() {
+        long startTime = Utils.startOperation();
+
+        SortEngine.Strategy strategy = SortEngine.sort(array);
+        sorted = true;
+
+        Utils.printOperationDuration(startTime, sortOperationName, strategy);
+    }
+
+    @Override
+    void searchArray() {
+        long startTime = Utils.startOperation();
+
+        int index = Arrays.binarySearch(array, valueToSearch);
+
+        Utils.printOperationDuration(startTime, searchArrayOperationName);
+
+        printSearchResult(codec.format(valueToSearch), "масивi", index);
+    }
+
+    @Override
+    void findMinAndMaxInArray() {
+        if (array.length == 0) {
+            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        double min = array[0];
+        double max = array[array.length - 1];
+        if (!sorted) {
+            max = min;
+            for (double value : array) {
+                if (Double.compare(value, min) < 0) {
+                    min = value;
+                }
+                if (Double.compare(value, max) > 0) {
+                    max = value;
+                }
+            }
+        }
+
+        Utils.printOperationDuration(startTime, minAndMaxOperationName);
+
+        System.out.println("Мiнiмальне значення в масивi: " + codec.format(min));
+        System.out.println("Максимальне значення в масивi: " + codec.format(max));
+    }
+
+    @Override
+    void searchSet() {
+        long startTime = Utils.startOperation();
+
+        boolean isFound = Arrays.binarySearch(distinctValues(), valueToSearch) >= 0;
+
+        Utils.printOperationDuration(startTime, searchSetOperationName);
+
+        printSetSearchResult(codec.format(valueToSearch), isFound);
+    }
+
+    @Override
+    void compareArrayAndSet() {
+        System.out.println("Кiлькiсть елементiв в масивi: " + array.length);
+        System.out.println("Кiлькiсть елементiв в множинi: " + distinctValues().length);
+    }
+
+    @Override
+    void peekAndPollQueue() {
+        if (array.length == 0) {
+            System.out.println("Черга порожня або не iнiцiалiзована.");
+            return;
+        }
+
+        double[] queue = sortedCopy();
+        int head = 0;
+
+        System.out.println("Перший елемент у черзi: " + codec.format(queue[head]));
+        System.out.println("Забрати перший елемент у черзi: " + codec.format(queue[head++]));
+        if (head < queue.length) {
+            System.out.println("Перший елемент у черзi: " + codec.format(queue[head]));
+        }
+    }
+
+    @Override
+    void writeSortedArray() {
+        writeLinesToFile(array.length, index -> codec.format(array[index]));
+    }
+
+    private double[] sortedCopy() {
+        double[] copy = array.clone();
+        SortEngine.sort(copy);
+        return copy;
+    }
+
+    private double[] distinctValues() {
+        if (distinctValues == null) {
+            double[] sorted = sortedCopy();
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || Double.compare(sorted[i], sorted[count - 1]) != 0) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            distinctValues = Arrays.copyOf(sorted, count);
+        }
+        return distinctValues;
+    }
+}
+
+/**
+ * Операцiї над порiвнюваними об'єктами: масив, HashSet та PriorityQueue.
+ * 
+ * @param <T> Тип значень.
+ */
+class ObjectDataOperation<T extends Comparable<? super T>> extends TypedDataOperation {
+    private final ObjectCodec<T> codec;
+    private final T valueToSearch;
+    private final T[] array;
+    private final Set<T> set;
+    private final Queue<T> queue;
+
+    private ObjectDataOperation(ObjectCodec<T> codec, String pathToDataFile, String valueToSearch) {
+        super(codec.typeName(), pathToDataFile);
+        this.codec = codec;
+        byte[] value = valueToSearch.getBytes(StandardCharsets.UTF_8);
+        this.valueToSearch = codec.parse(value, 0, value.length);
+
+        T[] tempArray = newArray(0);
+        int index = 0;
+        try (DataLineReader reader = new DataLineReader(pathToDataFile)) {
+            tempArray = newArray(reader.estimateLineCount());
+            while (reader.nextLine()) {
+                if (index == tempArray.length) {
+                    tempArray = Arrays.copyOf(tempArray, Utils.grow(index));
+                }
+                try {
+                    tempArray[index] = codec.parse(reader.line(), 0, reader.lineLength());
+                    index++;
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    skippedLines++;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        array = Arrays.copyOf(tempArray, index);
+        reportSkippedLines();
+        set = new HashSet<>(Arrays.asList(array));
+        queue = new PriorityQueue<>(Arrays.asList(array));
+    }
+
+    static <T extends Comparable<? super T>> ObjectDataOperation<T> create(ObjectCodec<T> codec,
+            String pathToDataFile, String valueToSearch) {
+        return new ObjectDataOperation<>(codec, pathToDataFile, valueToSearch);
+    }
+
+    @Override
+    int length() {
+        return array.length;
+    }
+
+    @Override
+    void sortArray() {
+        long startTime = Utils.startOperation();
+
+        SortEngine.Strategy strategy = SortEngine.sortComparable(array);
+        sorted = true;
+
+        Utils.printOperationDuration(startTime, sortOperationName, strategy);
+    }
+
+    @Override
+    void searchArray() {
+        long startTime = Utils.startOperation();
+
+        int index = Arrays.binarySearch(array, valueToSearch);
+
+        Utils.printOperationDuration(startTime, searchArrayOperationName);
+
+        printSearchResult(codec.format(valueToSearch), "масивi", index);
+    }
+
+    @Override
+    void findMinAndMaxInArray() {
+        if (array.length == 0) {
+            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        DataStatistics<T> statistics = DataStatistics.ofArray(array, sorted, Object::hashCode);
+
+        Utils.printOperationDuration(startTime, minAndMaxOperationName);
+
+        statistics.print("масивi", null);
+    }
+
+    @Override
+    void searchSet() {
+        long startTime = Utils.startOperation();
+
+        boolean isFound = set.contains(valueToSearch);
+
+        Utils.printOperationDuration(startTime, searchSetOperationName);
+
+        printSetSearchResult(codec.format(valueToSearch), isFound);
+    }
+
+    @Override
+    void compareArrayAndSet() {
+        System.out.println("Кiлькiсть елементiв в масивi: " + array.length);
+        System.out.println("Кiлькiсть елементiв в множинi: " + set.size());
+    }
+
+    @Override
+    void peekAndPollQueue() {
+        if (queue.isEmpty()) {
+            System.out.println("Черга порожня або не iнiцiалiзована.");
+            return;
+        }
+
+        System.out.println("Перший елемент у черзi: " + codec.format(queue.peek()));
+        System.out.println("Забрати перший елемент у черзi: " + codec.format(queue.poll()));
+        if (!queue.isEmpty()) {
+            System.out.println("Перший елемент у черзi: " + codec.format(queue.peek()));
+        }
+    }
+
+    @Override
+    void writeSortedArray() {
+        writeLinesToFile(array.length, index -> codec.format(array[index]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] newArray(int length) {
+        return (T[]) new Comparable<?>[length];
+    }
+}
@@ -1,10 +1,9 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -18,13 +17,18 @@ import java.util.List;
  * <p>Основнi методи:</p>
  * <ul>
  *   <li>{@link #main(String[])} - Точка входу в програму.</li>
+ *   <li>{@link #loadSortedData()} - Зчитує та сортує данi для серверного режиму.</li>
  *   <li>{@link #doDataOperation()} - Виконує основнi операцiї з даними.</li>
- *   <li>{@link #sortArray()} - Сортує масив LocalDateTime.</li>
- *   <li>{@link #searchArray()} - Виконує пошук значення в масивi LocalDateTime.</li>
- *   <li>{@link #findMinAndMaxInArray()} - Знаходить мiнiмальне та максимальне значення в масивi LocalDateTime.</li>
+ *   <li>{@link #watchDataFile()} - Стежить за файлом з даними i виконує пошук у кожному новому знiмку даних.</li>
+ *   <li>{@link #searchSnapshot()} - Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних.</li>
  *   <li>{@link #sortList()} - Сортує список LocalDateTime.</li>
  *   <li>{@link #searchList()} - Виконує пошук значення в списку LocalDateTime.</li>
  *   <li>{@link #findMinAndMaxInList()} - Знаходить мiнiмальне та максимальне значення в списку LocalDateTime.</li>
+ *   <li>{@link #sortEpochArray()} - Сортує масив секунд вiд початку епохи.</li>
+ *   <li>{@link #deduplicateEpochArray()} - Видаляє повтори з вiдсортованого масиву секунд вiд початку епохи.</li>
+ *   <li>{@link #searchEpochArray()} - Виконує пошук значення в масивi секунд вiд початку епохи.</li>
+ *   <li>{@link #findMinAndMaxInEpochArray()} - Знаходить мiнiмальне та максимальне значення в масивi секунд вiд початку епохи.</li>
+ *   <li>{@link #searchBatchInEpochArray()} - Виконує пакетний пошук ключiв у масивi секунд вiд початку епохи одним проходом.</li>
  * </ul>
  * 
  * <p>Конструктор:</p>
@@ -35,49 +39,172 @@ import java.util.List;
  * <p>Константи:</p>
  * <ul>
  *   <li>{@link #PATH_TO_DATA_FILE} - Шлях до файлу з даними.</li>
+ *   <li>{@link BatchLookup#SEARCH_BATCH_PROPERTY} - Системна властивiсть з файлом ключiв для пакетного пошуку ("-" - стандартний ввiд).</li>
+ *   <li>{@link BloomFilter#BLOOM_FILTER_PROPERTY} - Системна властивiсть з часткою хибнопозитивних вiдповiдей фiльтра Блума, що вмикає фiльтр перед пошуком.</li>
+ *   <li>{@link EpochKeySearch#SEARCH_METHOD_PROPERTY} - Системна властивiсть з методом пошуку у вiдсортованому масивi ({@code binary}, {@code interpolation}, {@code learned}).</li>
+ *   <li>{@link RangeQuery#RANGE_PROPERTY} - Системна властивiсть з межами запиту за дiапазоном ({@code <вiд>..<до>}).</li>
+ *   <li>{@link RangeQuery#NEAREST_PROPERTY} - Системна властивiсть з кiлькiстю значень, найближчих до значення для пошуку.</li>
+ *   <li>{@link TimeBuckets#AGGREGATE_PROPERTY} - Системна властивiсть з гранулярнiстю агрегацiї ({@code hour}, {@code day}, {@code month}).</li>
+ *   <li>{@link DataServer#SERVER_PROPERTY} - Системна властивiсть з адресою сервера ({@code unix:<шлях>} або {@code [<хост>:]<порт>}), що вмикає серверний режим.</li>
+ *   <li>{@link SortedIndex#INDEX_LOOKUP_PROPERTY} - Системна властивiсть, що вмикає пошук у збереженому iндексi.</li>
+ *   <li>{@link DateTimeDataset#STREAM_READ_PROPERTY} - Системна властивiсть, що вмикає пошук i мiнiмум та максимум потоком рядкiв файлу без зчитування в пам'ять.</li>
+ *   <li>{@link IncrementalMerge#INCREMENTAL_SORT_PROPERTY} - Системна властивiсть, що вмикає злиття дописаних рядкiв з файлом .sorted замiсть повного сортування.</li>
+ *   <li>{@link ExternalSort#EXTERNAL_SORT_PROPERTY} - Системна властивiсть, що вмикає зовнiшнє сортування файлу з даними серiями в межах бюджету пам'ятi.</li>
+ *   <li>{@link ExternalSort#MEMORY_BUDGET_PROPERTY} - Системна властивiсть з бюджетом пам'ятi зовнiшнього сортування (наприклад, {@code 64m}).</li>
+ *   <li>{@link ExternalSort#TEMP_DIRECTORY_PROPERTY} - Системна властивiсть з каталогом для тимчасових серiй зовнiшнього сортування.</li>
+ *   <li>{@link SortEngine#DISTINCT_PROPERTY} - Системна властивiсть, що вмикає видалення повторiв з вiдсортованого масиву.</li>
+ *   <li>{@link HyperLogLog#DISTINCT_FILES_PROPERTY} - Системна властивiсть з файлами (через кому) для оцiнки кiлькостi унiкальних значень без зчитування в пам'ять.</li>
+ *   <li>{@link OperationMetrics#METRICS_OUTPUT_PROPERTY} - Системна властивiсть з файлом для метрик операцiй (.json, .csv, .prom).</li>
+ *   <li>{@link DataReloader#WATCH_PROPERTY} - Системна властивiсть, що вмикає стеження за файлом з даними пiсля виконання операцiй.</li>
+ *   <li>{@link DataFileWriter#COMPRESSION_PROPERTY} - Системна властивiсть, що вмикає стиснення файлу .sorted ({@code gzip}).</li>
+ *   <li>{@link #ARRAY_MODE_PROPERTY} - Системна властивiсть, що обирає представлення масиву.</li>
  * </ul>
  * 
  * <p>Змiннi екземпляра:</p>
  * <ul>
- *   <li>{@link #dateTimeValueToSearch} - Значення LocalDateTime для пошуку.</li>
- *   <li>{@link #dateTimeArray} - Масив LocalDateTime.</li>
+ *   <li>{@link #data} - Значення для пошуку, масив LocalDateTime, iндекс, агрегати i фiльтр Блума ({@link DateTimeDataset}).</li>
  *   <li>{@link #dateTimeList} - Список LocalDateTime.</li>
+ *   <li>{@link #listSorted} - Чи вiдсортований список (тодi мiнiмум i максимум беруться з краю).</li>
+ *   <li>{@link #epochSecondArray} - Масив секунд вiд початку епохи (у режимi {@code epoch}).</li>
+ *   <li>{@link #sortedEpochArrayWithDuplicates} - Вiдсортований масив секунд з повторами, якщо пошук виконується в масивi без повторiв.</li>
  * </ul>
  * 
  * <p>Приклад використання:</p>
  * <pre>
  * {@code
  * java BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Darray.mode=epoch BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dindex.lookup=true BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dread.stream=true BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dsort.incremental=true BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dsort.external=true -Dsort.memory=64m BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dsort.distinct=true BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Ddistinct.files=list/LocalDateTime.data,archive.data BasicDataOperationUsingList
+ * java -Dsearch.bloom=0.01 BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dsearch.method=learned BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dsearch.batch=queries.data BasicDataOperationUsingList
+ * java -Dsearch.range=2024-03-01T00:00:00..2024-03-31T23:59:59 -Dsearch.nearest=5 BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Daggregate.buckets=day BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dserver.address=unix:/tmp/list.sock -Darray.mode=epoch BasicDataOperationUsingList
+ * java -Dwatch.reload=true BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Dmetrics.output=metrics.prom BasicDataOperationUsingList "2024-03-16T00:12:38Z"
+ * java -Doutput.compression=gzip BasicDataOperationUsingList "2024-03-16T00:12:38Z"
  * }
  * </pre>
  */
 public class BasicDataOperationUsingList {
     static final String PATH_TO_DATA_FILE = "list/LocalDateTime.data";
+    static final String ARRAY_MODE_PROPERTY = "array.mode";
+    static final String EPOCH_ARRAY_MODE = "epoch";
 
-    LocalDateTime dateTimeValueToSearch;
-    LocalDateTime[] dateTimeArray;
+    DateTimeDataset data;
     List<LocalDateTime> dateTimeList;
+    boolean listSorted;
+    EpochSecondArray epochSecondArray;
+    EpochSecondArray sortedEpochArrayWithDuplicates;
 
     public static void main(String[] args) {  
+        if (DataServer.configuredAddress() != null) {
+            DataServer.serve(PATH_TO_DATA_FILE, BasicDataOperationUsingList::loadSortedData);
+            return;
+        }
+
+        List<String> distinctFiles = HyperLogLog.configuredFiles(PATH_TO_DATA_FILE);
+        if (distinctFiles != null) {
+            HyperLogLog.printEstimates(distinctFiles);
+            return;
+        }
+
         BasicDataOperationUsingList basicDataOperationUsingList = new BasicDataOperationUsingList(args);
         basicDataOperationUsingList.doDataOperation();
+
+        if (Boolean.getBoolean(DataReloader.WATCH_PROPERTY)) {
+            basicDataOperationUsingList.watchDataFile();
+        }
+    }
+
+    /**
+     * Зчитує та сортує данi для серверного режиму: масив секунд вiд початку епохи у режимi {@code epoch},
+     * iнакше масив LocalDateTime.
+     * 
+     * @return Вiдсортованi данi з файлу {@link #PATH_TO_DATA_FILE}.
+     */
+    static RangeQuery.SortedData loadSortedData() {
+        long startTime = Utils.startOperation();
+
+        if (EPOCH_ARRAY_MODE.equals(System.getProperty(ARRAY_MODE_PROPERTY))) {
+            EpochSecondArray epochSecondArray = EpochSecondArray.readFromFile(PATH_TO_DATA_FILE);
+            epochSecondArray.sort();
+
+            Utils.printOperationThroughput(startTime, "зчитування та сортування масиву секунд вiд початку епохи", epochSecondArray.length());
+            return epochSecondArray;
+        }
+
+        LocalDateTime[] dateTimeArray = Utils.readArrayFromFile(PATH_TO_DATA_FILE);
+        SortEngine.sort(dateTimeArray);
+
+        Utils.printOperationThroughput(startTime, "зчитування та сортування масиву дати i часу", dateTimeArray.length);
+        return RangeQuery.SortedData.of(dateTimeArray);
     }
 
     /**
      * Конструктор, який iнiцiалiзує об'єкт з значенням для пошуку.
      * 
-     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку.
+     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку
+     *             (у пакетному режимi не використовується).
      */
     BasicDataOperationUsingList(String[] args) {
-        if (args.length == 0) {
-            throw new RuntimeException("Вiдсутнє значення для пошуку");
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, args);
+
+        if (!data.openStored()) {
+            readDataFromFile();
+        }
+    }
+
+    /**
+     * Конструктор знiмка даних: зчитує та сортує данi з файлу для того самого значення для пошуку
+     * i перезаписує файл .sorted та iндекс. Викликається потоком перезавантаження, тому поточний
+     * знiмок при цьому не змiнюється.
+     * 
+     * @param dateTimeValueToSearch Значення LocalDateTime для пошуку.
+     */
+    private BasicDataOperationUsingList(LocalDateTime dateTimeValueToSearch) {
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, dateTimeValueToSearch);
+
+        readDataFromFile();
+
+        if (epochSecondArray != null) {
+            sortEpochArray();
+            EpochSecondArray sortedArray = sortedEpochArray();
+            sortedArray.writeToFile(PATH_TO_DATA_FILE + ".sorted");
+            SortedIndex.write(sortedArray.seconds, sortedArray.nanos, PATH_TO_DATA_FILE, sortedArray.dataStamp);
+            return;
+        }
+
+        data.sortArray();
+        sortList();
+        data.writeSortedFiles();
+    }
+
+    /**
+     * Зчитує данi з файлу в масив i список дати i часу або в масив секунд у режимi {@code epoch}.
+     */
+    private void readDataFromFile() {
+        if (EPOCH_ARRAY_MODE.equals(System.getProperty(ARRAY_MODE_PROPERTY))) {
+            long startTime = Utils.startOperation();
+
+            epochSecondArray = EpochSecondArray.readFromFile(PATH_TO_DATA_FILE);
+
+            Utils.printOperationThroughput(startTime, "зчитування масиву секунд вiд початку епохи з файлу", epochSecondArray.length());
+
+            System.out.println("Обсяг пам'ятi масиву секунд вiд початку епохи: " + epochSecondArray.memoryBytes()
+                    + " байт (масив LocalDateTime: ~" + (long) epochSecondArray.length() * EpochSecondArray.DATE_TIME_OBJECT_BYTES + " байт)");
+            return;
         }
 
-        String searchValue = args[0];
-        dateTimeValueToSearch = LocalDateTime.parse(searchValue, DateTimeFormatter.ISO_DATE_TIME);
+        data.readArray();
 
-        dateTimeArray = Utils.readArrayFromFile(PATH_TO_DATA_FILE);
-        dateTimeList = new ArrayList<>(Arrays.asList(dateTimeArray));
+        dateTimeList = new ArrayList<>(Arrays.asList(data.dateTimeArray));
     }
 
     /**
@@ -86,14 +213,23 @@ public class BasicDataOperationUsingList {
      * Метод зчитує масив та список об'єктiв LocalDateTime з файлу, сортує їх та виконує пошук значення.
      */
     void doDataOperation() {
-        // операцiї з масивом дати та часу
-        searchArray();
-        findMinAndMaxInArray();
+        if (data.runStoredOperations()) {
+            return;
+        }
+
+        if (epochSecondArray != null) {
+            doEpochArrayOperation();
+            return;
+        }
 
-        sortArray();
-        
-        searchArray();
-        findMinAndMaxInArray();
+        if (data.batchKeys != null) {
+            data.sortArray();
+            data.searchBatchInArray();
+            return;
+        }
+
+        // операцiї з масивом дати та часу
+        data.runArrayOperations();
 
         // операцiї з ArrayList
         searchList();
@@ -104,175 +240,600 @@ public class BasicDataOperationUsingList {
         searchList();
         findMinAndMaxInList();
 
-        // записати вiдсортований масив в окремий файл
-        Utils.writeArrayToFile(dateTimeArray, PATH_TO_DATA_FILE + ".sorted");
+        // записати вiдсортований масив, iндекс i фiльтр Блума
+        data.writeSortedFiles();
     }
 
     /**
-     * Сортує масив об'єктiв LocalDateTime та виводить початковий i вiдсортований масиви.
-     * Вимiрює та виводить час, витрачений на сортування масиву в наносекундах.
+     * Стежить за файлом з даними i пiсля кожної його змiни виконує пошук у новому знiмку даних.
+     * 
+     * Новий знiмок (масив i список дати i часу або масив секунд у режимi {@code epoch}) зчитується та сортується
+     * потоком {@link DataReloader}, а основний потiк лише отримує готовий знiмок, тож данi, з якими вiн працює,
+     * не змiнюються пiд час пошуку.
      */
-    void sortArray() {
-        long startTime = System.nanoTime();
+    void watchDataFile() {
+        if (data.dateTimeArray == null && epochSecondArray == null || data.batchKeys != null) {
+            System.out.println("Стеження за файлом з даними доступне лише для пошуку значення в даних, зчитаних у пам'ять.");
+            return;
+        }
 
-        Arrays.sort(dateTimeArray);
+        DataReloader<BasicDataOperationUsingList> reloader = new DataReloader<>(PATH_TO_DATA_FILE,
+                () -> new BasicDataOperationUsingList(data.dateTimeValueToSearch));
+        reloader.start(this);
 
-        Utils.printOperationDuration(startTime, "сортування масиву дати i часу");
+        System.out.println("Очiкування змiн файлу " + PATH_TO_DATA_FILE + "...");
+
+        BasicDataOperationUsingList snapshot = this;
+        try {
+            while (true) {
+                snapshot = reloader.awaitChange(snapshot);
+                snapshot.searchSnapshot();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Метод для пошуку значення в масивi дати i часу.
+     * Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних (масивi i списку або масивi секунд).
      */
-    void searchArray() {
-        long startTime = System.nanoTime();
+    void searchSnapshot() {
+        if (epochSecondArray != null) {
+            searchEpochArray();
+            findMinAndMaxInEpochArray();
+            return;
+        }
 
-        int index = Arrays.binarySearch(this.dateTimeArray, dateTimeValueToSearch);
+        data.searchArray();
+        data.findMinAndMaxInArray();
+        searchList();
+        findMinAndMaxInList();
+    }
 
-        Utils.printOperationDuration(startTime, "пошук в масивi дати i часу");
+    /**
+     * Шукає задане значення дати i часу в ArrayList дати i часу.
+     */
+    void searchList() {
+        long startTime = Utils.startOperation();
+
+        int index = Collections.binarySearch(this.dateTimeList, data.dateTimeValueToSearch);
+
+        Utils.printOperationDuration(startTime, "пошук в ArrayList дати i часу");        
 
         if (index >= 0) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в масивi за iндексом: " + index);
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' знайдено в ArrayList за iндексом: " + index);
         } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в масивi не знайдено.");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' в ArrayList не знайдено.");
         }
     }
 
     /**
-     * Знаходить мiнiмальне та максимальне значення в масивi дати i часу.
+     * Знаходить мiнiмальне та максимальне значення в ArrayList дати i часу.
      */
-    void findMinAndMaxInArray() {
-        if (dateTimeArray == null || dateTimeArray.length == 0) {
-            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+    void findMinAndMaxInList() {
+        if (dateTimeList == null || dateTimeList.isEmpty()) {
+            System.out.println("ArrayList порожнiй або не iнiцiалiзований.");
             return;
         }
 
-        long startTime = System.nanoTime();
+        long startTime = Utils.startOperation();
 
-        LocalDateTime min = dateTimeArray[0];
-        LocalDateTime max = dateTimeArray[0];
+        DataStatistics<LocalDateTime> statistics = DataStatistics.ofList(dateTimeList, listSorted, DataStatistics::dateTimeKey);
 
-        for (LocalDateTime dateTime : dateTimeArray) {
-            if (dateTime.isBefore(min)) {
-                min = dateTime;
-            }
-            if (dateTime.isAfter(max)) {
-                max = dateTime;
-            }
+        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в ArrayList");
+
+        statistics.print("ArrayList", Duration.between(statistics.min, statistics.max));
+    }
+
+    /**
+     * Сортує ArrayList об'єктiв LocalDateTime та виводить початковий i вiдсортований списки.
+     * Вимiрює та виводить час, витрачений на сортування списку в наносекундах.
+     */
+    void sortList() {
+        long startTime = Utils.startOperation();
+
+        SortEngine.Strategy strategy = SortEngine.sort(dateTimeList);
+        listSorted = true;
+
+        Utils.printOperationDuration(startTime, "сортування ArrayList дати i часу", strategy);
+    }
+
+    /**
+     * Виконує основнi операцiї з масивом секунд вiд початку епохи.
+     * 
+     * Метод сортує масив, виконує пошук значення та записує вiдсортований масив у файл.
+     * Об'єкти LocalDateTime створюються лише для виведення результатiв.
+     */
+    void doEpochArrayOperation() {
+        if (data.batchKeys != null) {
+            sortEpochArray();
+            searchBatchInEpochArray();
+            return;
         }
 
-        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в масивi");
+        searchEpochArray();
+        findMinAndMaxInEpochArray();
+
+        sortEpochArray();
 
-        System.out.println("Мiнiмальне значення в масивi: " + min);
-        System.out.println("Максимальне значення в масивi: " + max);
+        searchEpochArray();
+        findMinAndMaxInEpochArray();
+
+        // запити за дiапазоном до вiдсортованого масиву
+        RangeQuery.run(epochSecondArray, "масивi секунд", data.dateTimeValueToSearch);
+
+        // агрегацiя по годинах, днях i мiсяцях
+        aggregateEpochArray();
+
+        // записати вiдсортований масив з повторами в окремий файл
+        EpochSecondArray sortedArray = sortedEpochArray();
+        sortedArray.writeToFile(PATH_TO_DATA_FILE + ".sorted");
+
+        // записати двiйковий iндекс для пошуку без зчитування файлу з даними
+        SortedIndex.write(sortedArray.seconds, sortedArray.nanos, PATH_TO_DATA_FILE, sortedArray.dataStamp);
     }
 
     /**
-     * Шукає задане значення дати i часу в ArrayList дати i часу.
+     * Сортує масив секунд вiд початку епохи.
+     * Вимiрює та виводить час, витрачений на сортування масиву в наносекундах.
      */
-    void searchList() {
-        long startTime = System.nanoTime();
+    void sortEpochArray() {
+        long startTime = Utils.startOperation();
 
-        int index = Collections.binarySearch(this.dateTimeList, dateTimeValueToSearch);
+        SortEngine.Strategy strategy = epochSecondArray.sort();
 
-        Utils.printOperationDuration(startTime, "пошук в ArrayList дати i часу");        
+        Utils.printOperationDuration(startTime, "сортування масиву секунд вiд початку епохи", strategy);
+
+        if (Boolean.getBoolean(SortEngine.DISTINCT_PROPERTY)) {
+            deduplicateEpochArray();
+        }
+
+        data.keySearch = EpochKeySearch.prepare(epochSecondArray.seconds);
+    }
+
+    /**
+     * Видаляє повтори з вiдсортованого масиву секунд вiд початку епохи за один лiнiйний прохiд.
+     * Масив з повторами зберiгається в {@link #sortedEpochArrayWithDuplicates} для запису файлiв i агрегацiї.
+     */
+    void deduplicateEpochArray() {
+        long startTime = Utils.startOperation();
+
+        int length = epochSecondArray.length();
+        EpochSecondArray distinctArray = epochSecondArray.distinct();
+        if (distinctArray.length() < length) {
+            sortedEpochArrayWithDuplicates = epochSecondArray;
+            epochSecondArray = distinctArray;
+        }
+
+        Utils.printOperationThroughput(startTime, "видалення повторiв з вiдсортованого масиву секунд вiд початку епохи", length);
+
+        System.out.println("Видалено повторiв: " + (length - distinctArray.length()) + ", унiкальних значень: " + distinctArray.length());
+    }
+
+    /**
+     * Повертає масив секунд з усiма значеннями файлу з даними: масив з повторами, якщо їх видалено, або сам масив.
+     */
+    private EpochSecondArray sortedEpochArray() {
+        return sortedEpochArrayWithDuplicates != null ? sortedEpochArrayWithDuplicates : epochSecondArray;
+    }
+
+    /**
+     * Метод для пошуку значення в масивi секунд вiд початку епохи.
+     */
+    void searchEpochArray() {
+        String operationName = data.keySearch != null
+                ? "пошук в масивi секунд вiд початку епохи (" + data.keySearch.method() + ")" : "пошук в масивi секунд вiд початку епохи";
+        long startTime = Utils.startOperation();
+
+        int index = data.keySearch != null ? epochSecondArray.search(data.dateTimeValueToSearch, data.keySearch)
+                : epochSecondArray.binarySearch(data.dateTimeValueToSearch);
+
+        Utils.printOperationDuration(startTime, operationName);
 
         if (index >= 0) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в ArrayList за iндексом: " + index);
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' знайдено в масивi за iндексом: " + index);
         } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в ArrayList не знайдено.");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' в масивi не знайдено.");
         }
     }
 
     /**
-     * Знаходить мiнiмальне та максимальне значення в ArrayList дати i часу.
+     * Знаходить мiнiмальне та максимальне значення в масивi секунд вiд початку епохи.
      */
-    void findMinAndMaxInList() {
-        if (dateTimeList == null || dateTimeList.isEmpty()) {
-            System.out.println("ArrayList порожнiй або не iнiцiалiзований.");
+    void findMinAndMaxInEpochArray() {
+        if (epochSecondArray.length() == 0) {
+            System.out.println("Масив порожнiй або не iнiцiалiзований.");
             return;
         }
 
-        long startTime = System.nanoTime();
+        long startTime = Utils.startOperation();
 
-        LocalDateTime min = Collections.min(dateTimeList);
-        LocalDateTime max = Collections.max(dateTimeList);
+        int[] minAndMaxIndex = epochSecondArray.findMinAndMaxIndex();
 
-        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в ArrayList");
+        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в масивi секунд вiд початку епохи");
 
-        System.out.println("Мiнiмальне значення в ArrayList: " + min);
-        System.out.println("Максимальне значення в ArrayList: " + max);
+        System.out.println("Мiнiмальне значення в масивi: " + epochSecondArray.get(minAndMaxIndex[0]));
+        System.out.println("Максимальне значення в масивi: " + epochSecondArray.get(minAndMaxIndex[1]));
     }
 
     /**
-     * Сортує ArrayList об'єктiв LocalDateTime та виводить початковий i вiдсортований списки.
-     * Вимiрює та виводить час, витрачений на сортування списку в наносекундах.
+     * Обчислює кiлькостi значень масиву секунд по годинах, днях i мiсяцях безпосередньо з примiтивних ключiв,
+     * зберiгає їх поруч з файлом .sorted та виводить кошики заданої гранулярностi.
+     * Якщо збереженi агрегати вiдповiдають файлу з даними, вони не обчислюються повторно.
      */
-    void sortList() {
-        long startTime = System.nanoTime();
+    void aggregateEpochArray() {
+        TimeBuckets.Granularity granularity = TimeBuckets.configuredGranularity();
+        if (granularity == null) {
+            return;
+        }
+
+        if (!data.loadTimeBuckets()) {
+            long startTime = Utils.startOperation();
 
-        Collections.sort(dateTimeList);
+            EpochSecondArray sortedArray = sortedEpochArray();
+            data.timeBuckets = TimeBuckets.ofEpochSeconds(sortedArray.seconds, sortedArray.sorted);
 
-        Utils.printOperationDuration(startTime, "сортування ArrayList дати i часу");
+            Utils.printOperationThroughput(startTime, "агрегацiя масиву секунд по перiодах", sortedArray.length());
+
+            data.timeBuckets.save(PATH_TO_DATA_FILE, sortedArray.dataStamp);
+        }
+        data.timeBuckets.print(granularity);
+    }
+
+    /**
+     * Виконує пакетний пошук ключiв у вiдсортованому масивi секунд вiд початку епохи одним проходом.
+     */
+    void searchBatchInEpochArray() {
+        long startTime = Utils.startOperation();
+
+        BatchLookup batchLookup = new BatchLookup();
+        batchLookup.sweep(data.batchKeys, epochSecondArray.length(), epochSecondArray::compareTo);
+
+        Utils.printOperationThroughput(startTime, "пакетний пошук в масивi секунд вiд початку епохи", data.batchKeys.length);
+
+        System.out.println("Знайдено значень: " + batchLookup.foundCount() + ", не знайдено: " + batchLookup.notFoundCount());
     }
 }
 
 /**
- * Клас Utils мiститить допомiжнi методи для роботи з даними типу LocalDateTime.
+ * Клас EpochSecondArray зберiгає дату i час у стовпцевому виглядi: масив секунд вiд початку епохи
+ * та, за потреби, окремий масив наносекунд.
+ * 
+ * <p>Один елемент займає 8 байт (12 байт з наносекундами) замiсть трьох об'єктiв
+ * (LocalDateTime, LocalDate, LocalTime) i посилання на них, а сортування i пошук виконуються
+ * над примiтивами. Об'єкти LocalDateTime створюються лише пiд час виведення результатiв.</p>
  */
-class Utils {
+class EpochSecondArray implements RangeQuery.SortedData {
     /**
-     * Виводить час виконання операцiї в наносекундах.
+     * Приблизний обсяг пам'ятi одного елемента масиву LocalDateTime: посилання i три об'єкти.
+     */
+    static final int DATE_TIME_OBJECT_BYTES = 4 + 24 + 24 + 24;
+
+    /**
+     * Кiлькiсть бiтiв, якi займають наносекунди в упакованому ключi.
+     */
+    private static final int NANO_BITS = 30;
+
+    final long[] seconds;
+    int[] nanos;
+    boolean sorted;
+    SortedIndex.DataStamp dataStamp;
+
+    /**
+     * Створює масив з готових стовпцiв.
      * 
-     * @param startTime Час початку операцiї в наносекундах.
-     * @param operationName Назва операцiї.
+     * @param seconds Секунди вiд початку епохи.
+     * @param nanos Наносекунди або null, якщо всi вони дорiвнюють 0.
      */
-    static void printOperationDuration(long startTime, String operationName) {
-        long endTime = System.nanoTime();
-        long duration = (endTime - startTime);
-        System.out.println("\n>>>>>>>>> Час виконання операцiї '" + operationName + "': " + duration + " наносекунд");
+    EpochSecondArray(long[] seconds, int[] nanos) {
+        this.seconds = seconds;
+        this.nanos = nanos;
     }
 
     /**
-     * Зчитує масив об'єктiв LocalDateTime з файлу.
+     * Зчитує масив секунд вiд початку епохи з файлу, не створюючи об'єктiв LocalDateTime
+     * для рядкiв фiксованого формату. Пiд час читання знiмається опис файлу для iндексу ({@link #dataStamp}).
      * 
      * @param pathToFile Шлях до файлу з даними.
-     * @return Масив об'єктiв LocalDateTime.
+     * @return Масив секунд вiд початку епохи.
      */
-    static LocalDateTime[] readArrayFromFile(String pathToFile) {
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-        LocalDateTime[] tempArray = new LocalDateTime[1000];
+    static EpochSecondArray readFromFile(String pathToFile) {
+        long[] tempSeconds = new long[0];
+        int[] tempNanos = null;
         int index = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToFile))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                LocalDateTime dateTime = LocalDateTime.parse(line, formatter);
-                tempArray[index++] = dateTime;
+        SortedIndex.DataStamp dataStamp = null;
+
+        try (DataLineReader reader = new DataLineReader(pathToFile)) {
+            long modified = Files.getLastModifiedTime(Path.of(pathToFile)).toMillis();
+            reader.computeChecksum();
+
+            tempSeconds = new long[reader.estimateLineCount()];
+            while (reader.nextLine()) {
+                if (index == tempSeconds.length) {
+                    tempSeconds = Arrays.copyOf(tempSeconds, Utils.grow(index));
+                }
+                tempSeconds[index] = reader.parseLineEpochSecond();
+
+                int nano = reader.parseLineNano();
+                if (nano != 0 && tempNanos == null) {
+                    tempNanos = new int[tempSeconds.length];
+                }
+                if (tempNanos != null) {
+                    if (tempNanos.length < tempSeconds.length) {
+                        tempNanos = Arrays.copyOf(tempNanos, tempSeconds.length);
+                    }
+                    tempNanos[index] = nano;
+                }
+                index++;
             }
+            dataStamp = reader.stamp(modified);
         } catch (IOException e) {
             e.printStackTrace();
         }
 
-        LocalDateTime[] finalArray = new LocalDateTime[index];
-        System.arraycopy(tempArray, 0, finalArray, 0, index);
+        EpochSecondArray array = new EpochSecondArray(Arrays.copyOf(tempSeconds, index),
+                tempNanos == null ? null : Arrays.copyOf(tempNanos, index));
+        array.dataStamp = dataStamp;
+        return array;
+    }
+
+    /**
+     * Повертає кiлькiсть елементiв.
+     */
+    int length() {
+        return seconds.length;
+    }
+
+    /**
+     * Перетворює елемент масиву на об'єкт LocalDateTime.
+     * 
+     * @param index Iндекс елемента.
+     * @return Об'єкт LocalDateTime.
+     */
+    LocalDateTime get(int index) {
+        return LocalDateTime.ofEpochSecond(seconds[index], nano(index), ZoneOffset.UTC);
+    }
+
+    /**
+     * Оцiнює обсяг пам'ятi, який займають стовпцi, в байтах.
+     */
+    long memoryBytes() {
+        return seconds.length * (long) Long.BYTES + (nanos == null ? 0 : nanos.length * (long) Integer.BYTES);
+    }
+
+    /**
+     * Сортує масив за зростанням.
+     * 
+     * <p>Без наносекунд сортується сам масив long[] стратегiєю {@link SortEngine}. З наносекундами секунди i наносекунди
+     * пакуються в один ключ long, якщо дiапазон секунд це дозволяє, iнакше стовпцi
+     * сортуються разом пiрамiдальним сортуванням.</p>
+     * 
+     * @return Стратегiя, якою фактично вiдсортовано масив.
+     */
+    SortEngine.Strategy sort() {
+        sorted = true;
+        if (nanos == null) {
+            return SortEngine.sort(seconds);
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long second : seconds) {
+            min = Math.min(min, second);
+            max = Math.max(max, second);
+        }
+
+        if (seconds.length > 0 && max - min >= 0 && max - min < (1L << (Long.SIZE - 1 - NANO_BITS))) {
+            for (int i = 0; i < seconds.length; i++) {
+                seconds[i] = ((seconds[i] - min) << NANO_BITS) | nanos[i];
+            }
+            SortEngine.Strategy strategy = SortEngine.sort(seconds);
+            for (int i = 0; i < seconds.length; i++) {
+                nanos[i] = (int) (seconds[i] & ((1L << NANO_BITS) - 1));
+                seconds[i] = (seconds[i] >>> NANO_BITS) + min;
+            }
+            return strategy;
+        }
+
+        heapSort();
+        return SortEngine.Strategy.SEQUENTIAL;
+    }
+
+    /**
+     * Повертає копiю вiдсортованого масиву без повторiв. Без наносекунд повтори видаляє
+     * {@link SortEngine#deduplicate(long[])}, з наносекундами порiвнюються пари секунд i наносекунд.
+     * 
+     * @return Вiдсортований масив унiкальних значень з тим самим описом файлу з даними.
+     */
+    EpochSecondArray distinct() {
+        long[] distinctSeconds = seconds.clone();
+        int[] distinctNanos = null;
+        int count;
+        if (nanos == null) {
+            count = SortEngine.deduplicate(distinctSeconds);
+        } else {
+            distinctNanos = new int[nanos.length];
+            count = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                if (count == 0 || seconds[i] != distinctSeconds[count - 1] || nanos[i] != distinctNanos[count - 1]) {
+                    distinctSeconds[count] = seconds[i];
+                    distinctNanos[count] = nanos[i];
+                    count++;
+                }
+            }
+            distinctNanos = Arrays.copyOf(distinctNanos, count);
+        }
+
+        EpochSecondArray array = new EpochSecondArray(Arrays.copyOf(distinctSeconds, count), distinctNanos);
+        array.sorted = true;
+        array.dataStamp = dataStamp;
+        return array;
+    }
+
+    /**
+     * Шукає значення у вiдсортованому масивi двiйковим пошуком.
+     * 
+     * @param value Значення для пошуку.
+     * @return Iндекс першого входження значення або -(точка вставки) - 1, як у {@link EpochKeySearch}.
+     */
+    int binarySearch(LocalDateTime value) {
+        long second = value.toEpochSecond(ZoneOffset.UTC);
+        int nano = value.getNano();
 
-        return finalArray;
+        int index = lowerBound(second, nano);
+        if (index < seconds.length && seconds[index] == second && nano(index) == nano) {
+            return index;
+        }
+        return -(index + 1);
     }
 
     /**
-     * Записує масив об'єктiв LocalDateTime у файл.
+     * Шукає значення у вiдсортованому масивi: перше входження секунди знаходить заданий пошук
+     * за стовпцем секунд, а значення з тiєю самою секундою порiвнюються за наносекундами.
+     * 
+     * @param value Значення для пошуку.
+     * @param keySearch Пошук, побудований над {@link #seconds} пiсля сортування.
+     * @return Iндекс знайденого елемента або вiд'ємне число, як у {@link #binarySearch(LocalDateTime)}.
+     */
+    int search(LocalDateTime value, EpochKeySearch keySearch) {
+        long second = value.toEpochSecond(ZoneOffset.UTC);
+        int nano = value.getNano();
+
+        int index = keySearch.lowerBound(second);
+        while (index < seconds.length && seconds[index] == second && nano(index) < nano) {
+            index++;
+        }
+        if (index < seconds.length && seconds[index] == second && nano(index) == nano) {
+            return index;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Повертає iндекси мiнiмального та максимального елементiв.
+     * 
+     * @return Масив з двох iндексiв: мiнiмального та максимального елементiв.
+     */
+    int[] findMinAndMaxIndex() {
+        if (sorted) {
+            return new int[] {0, seconds.length - 1};
+        }
+
+        int minIndex = 0;
+        int maxIndex = 0;
+        for (int i = 1; i < seconds.length; i++) {
+            if (compare(i, seconds[minIndex], nano(minIndex)) < 0) {
+                minIndex = i;
+            }
+            if (compare(i, seconds[maxIndex], nano(maxIndex)) > 0) {
+                maxIndex = i;
+            }
+        }
+        return new int[] {minIndex, maxIndex};
+    }
+
+    /**
+     * Записує масив у файл у текстовому форматi LocalDateTime без створення об'єктiв LocalDateTime.
      * 
-     * @param dateTimeArray Масив об'єктiв LocalDateTime.
      * @param pathToFile Шлях до файлу для запису.
      */
-    static void writeArrayToFile(LocalDateTime[] dateTimeArray, String pathToFile) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(pathToFile))) {
-            for (LocalDateTime dateTime : dateTimeArray) {
-                writer.write(dateTime.toString());
-                writer.newLine();
+    void writeToFile(String pathToFile) {
+        long startTime = Utils.startOperation();
+
+        try (DataFileWriter writer = new DataFileWriter(pathToFile)) {
+            for (int i = 0; i < seconds.length; i++) {
+                writer.write(seconds[i], nano(i));
             }
+            writer.commit();
+
+            Utils.printWriteThroughput(startTime, "запис масиву секунд у файл", writer.lineCount(), writer.byteCount());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Порiвнює елемент масиву зi значенням дати i часу.
+     * 
+     * @param index Iндекс елемента.
+     * @param value Значення для порiвняння.
+     * @return Вiд'ємне число, нуль або додатне число, якщо елемент менший, рiвний або бiльший за значення.
+     */
+    int compareTo(int index, LocalDateTime value) {
+        return compare(index, value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+    }
+
+    @Override
+    public long size() {
+        return seconds.length;
+    }
+
+    @Override
+    public LocalDateTime get(long index) {
+        return get((int) index);
+    }
+
+    @Override
+    public int compare(long index, LocalDateTime value) {
+        return compareTo((int) index, value);
+    }
+
+    private int nano(int index) {
+        return nanos == null ? 0 : nanos[index];
+    }
+
+    private int compare(int index, long second, int nano) {
+        int result = Long.compare(seconds[index], second);
+        return result != 0 ? result : Integer.compare(nano(index), nano);
+    }
+
+    private int lowerBound(long second, int nano) {
+        int low = 0;
+        int high = seconds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, second, nano) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void heapSort() {
+        for (int i = seconds.length / 2 - 1; i >= 0; i--) {
+            siftDown(i, seconds.length);
+        }
+        for (int end = seconds.length - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    private void siftDown(int index, int size) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && compare(child + 1, seconds[child], nanos[child]) > 0) {
+                child++;
+            }
+            if (compare(child, seconds[index], nanos[index]) <= 0) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long second = seconds[i];
+        seconds[i] = seconds[j];
+        seconds[j] = second;
+        int nano = nanos[i];
+        nanos[i] = nanos[j];
+        nanos[j] = nano;
+    }
+}
@@ -1,14 +1,21 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Queue;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Клас BasicDataOperationUsingQueue надає методи для виконання основних операцiй з даними типу LocalDateTime.
@@ -19,12 +26,12 @@ import java.util.PriorityQueue;
  * <ul>
  *   <li>{@link #main(String[])} - Точка входу в програму.</li>
  *   <li>{@link #doDataOperation()} - Виконує основнi операцiї з даними.</li>
- *   <li>{@link #sortArray()} - Сортує масив LocalDateTime.</li>
- *   <li>{@link #searchArray()} - Виконує пошук значення в масивi LocalDateTime.</li>
- *   <li>{@link #findMinAndMaxInArray()} - Знаходить мiнiмальне та максимальне значення в масивi LocalDateTime.</li>
+ *   <li>{@link #watchDataFile()} - Стежить за файлом з даними i виконує пошук у кожному новому знiмку даних.</li>
+ *   <li>{@link #searchSnapshot()} - Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних.</li>
  *   <li>{@link #searchQueue()} - Виконує пошук значення в черзi LocalDateTime.</li>
  *   <li>{@link #findMinAndMaxInQueue()} - Знаходить мiнiмальне та максимальне значення в черзi LocalDateTime.</li>
  *   <li>{@link #peekAndPollQueue()} - Виконує операцiї peek та poll з чергою LocalDateTime.</li>
+ *   <li>{@link #runConcurrentIngestion()} - Порiвнює конкурентнi черги з багатьма виробниками та споживачами.</li>
  * </ul>
  * 
  * <p>Конструктор:</p>
@@ -35,50 +42,108 @@ import java.util.PriorityQueue;
  * <p>Константи:</p>
  * <ul>
  *   <li>{@link #PATH_TO_DATA_FILE} - Шлях до файлу з даними.</li>
+ *   <li>{@link BatchLookup#SEARCH_BATCH_PROPERTY} - Системна властивiсть з файлом ключiв для пакетного пошуку ("-" - стандартний ввiд).</li>
+ *   <li>{@link BloomFilter#BLOOM_FILTER_PROPERTY} - Системна властивiсть з часткою хибнопозитивних вiдповiдей фiльтра Блума, що вмикає фiльтр перед пошуком.</li>
+ *   <li>{@link EpochKeySearch#SEARCH_METHOD_PROPERTY} - Системна властивiсть з методом пошуку у вiдсортованому масивi ({@code binary}, {@code interpolation}, {@code learned}).</li>
+ *   <li>{@link RangeQuery#RANGE_PROPERTY} - Системна властивiсть з межами запиту за дiапазоном ({@code <вiд>..<до>}).</li>
+ *   <li>{@link RangeQuery#NEAREST_PROPERTY} - Системна властивiсть з кiлькiстю значень, найближчих до значення для пошуку.</li>
+ *   <li>{@link TimeBuckets#AGGREGATE_PROPERTY} - Системна властивiсть з гранулярнiстю агрегацiї ({@code hour}, {@code day}, {@code month}).</li>
+ *   <li>{@link SortedIndex#INDEX_LOOKUP_PROPERTY} - Системна властивiсть, що вмикає пошук у збереженому iндексi.</li>
+ *   <li>{@link DateTimeDataset#STREAM_READ_PROPERTY} - Системна властивiсть, що вмикає пошук i мiнiмум та максимум потоком рядкiв файлу без зчитування в пам'ять.</li>
+ *   <li>{@link IncrementalMerge#INCREMENTAL_SORT_PROPERTY} - Системна властивiсть, що вмикає злиття дописаних рядкiв з файлом .sorted замiсть повного сортування.</li>
+ *   <li>{@link ExternalSort#EXTERNAL_SORT_PROPERTY} - Системна властивiсть, що вмикає зовнiшнє сортування файлу з даними серiями в межах бюджету пам'ятi.</li>
+ *   <li>{@link ExternalSort#MEMORY_BUDGET_PROPERTY} - Системна властивiсть з бюджетом пам'ятi зовнiшнього сортування (наприклад, {@code 64m}).</li>
+ *   <li>{@link ExternalSort#TEMP_DIRECTORY_PROPERTY} - Системна властивiсть з каталогом для тимчасових серiй зовнiшнього сортування.</li>
+ *   <li>{@link SortEngine#DISTINCT_PROPERTY} - Системна властивiсть, що вмикає видалення повторiв з вiдсортованого масиву.</li>
+ *   <li>{@link OperationMetrics#METRICS_OUTPUT_PROPERTY} - Системна властивiсть з файлом для метрик операцiй (.json, .csv, .prom).</li>
+ *   <li>{@link DataReloader#WATCH_PROPERTY} - Системна властивiсть, що вмикає стеження за файлом з даними пiсля виконання операцiй.</li>
+ *   <li>{@link DataFileWriter#COMPRESSION_PROPERTY} - Системна властивiсть, що вмикає стиснення файлу .sorted ({@code gzip}).</li>
+ *   <li>{@link #QUEUE_MODE_PROPERTY} - Системна властивiсть, що вмикає режим конкурентної черги ({@code concurrent}).</li>
+ *   <li>{@link IngestionPipeline#PRODUCERS_PROPERTY}, {@link IngestionPipeline#CONSUMERS_PROPERTY},
+ *       {@link IngestionPipeline#ROUNDS_PROPERTY} - Кiлькiсть виробникiв, споживачiв i повторiв даних у цьому режимi.</li>
  * </ul>
  * 
  * <p>Змiннi екземпляра:</p>
  * <ul>
- *   <li>{@link #dateTimeValueToSearch} - Значення LocalDateTime для пошуку.</li>
- *   <li>{@link #dateTimeArray} - Масив LocalDateTime.</li>
- *   <li>{@link #dateTimeQueue} - Черга LocalDateTime.</li>
+ *   <li>{@link #data} - Значення для пошуку, масив LocalDateTime, iндекс, агрегати i фiльтр Блума ({@link DateTimeDataset}).</li>
+ *   <li>{@link #dateTimeQueue} - Черга LocalDateTime з iндексом значень ({@link IndexedMinMaxHeap}).</li>
  * </ul>
  * 
  * <p>Приклад використання:</p>
  * <pre>
  * {@code
  * java BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dindex.lookup=true BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dread.stream=true BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsort.incremental=true BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsort.external=true -Dsort.memory=64m BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsort.distinct=true BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsearch.bloom=0.01 BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsearch.method=learned BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dsearch.batch=queries.data BasicDataOperationUsingQueue
+ * java -Dsearch.range=2024-03-01T00:00:00..2024-03-31T23:59:59 -Dsearch.nearest=5 BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Daggregate.buckets=day BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dqueue.mode=concurrent -Dqueue.producers=4 -Dqueue.consumers=2 BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dwatch.reload=true BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Dmetrics.output=metrics.prom BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
+ * java -Doutput.compression=gzip BasicDataOperationUsingQueue "2024-03-16T00:12:38Z"
  * }
  * </pre>
  */
 public class BasicDataOperationUsingQueue {
     static final String PATH_TO_DATA_FILE = "list/LocalDateTime.data";
+    static final String QUEUE_MODE_PROPERTY = "queue.mode";
+    static final String CONCURRENT_QUEUE_MODE = "concurrent";
 
-    LocalDateTime dateTimeValueToSearch;
-    LocalDateTime[] dateTimeArray;
-    Queue<LocalDateTime> dateTimeQueue;
+    DateTimeDataset data;
+    IndexedMinMaxHeap<LocalDateTime> dateTimeQueue;
 
     public static void main(String[] args) {  
         BasicDataOperationUsingQueue basicDataOperationUsingQueue = new BasicDataOperationUsingQueue(args);
         basicDataOperationUsingQueue.doDataOperation();
+
+        if (Boolean.getBoolean(DataReloader.WATCH_PROPERTY)) {
+            basicDataOperationUsingQueue.watchDataFile();
+        }
     }
 
     /**
      * Конструктор, який iнiцiалiзує об'єкт з значенням для пошуку.
      * 
-     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку.
+     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку
+     *             (у пакетному режимi не використовується).
      */
     BasicDataOperationUsingQueue(String[] args) {
-        if (args.length == 0) {
-            throw new RuntimeException("Вiдсутнє значення для пошуку");
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, args);
+
+        if (!data.openStored()) {
+            readDataFromFile();
         }
+    }
+
+    /**
+     * Конструктор знiмка даних: зчитує та сортує данi з файлу для того самого значення для пошуку
+     * i перезаписує файл .sorted та iндекс. Викликається потоком перезавантаження, тому поточний
+     * знiмок при цьому не змiнюється.
+     * 
+     * @param dateTimeValueToSearch Значення LocalDateTime для пошуку.
+     */
+    private BasicDataOperationUsingQueue(LocalDateTime dateTimeValueToSearch) {
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, dateTimeValueToSearch);
 
-        String valueToSearch = args[0];
-        this.dateTimeValueToSearch = LocalDateTime.parse(valueToSearch, DateTimeFormatter.ISO_DATE_TIME);
+        readDataFromFile();
 
-        dateTimeArray = Utils.readArrayFromFile(PATH_TO_DATA_FILE);
+        data.sortArray();
+        data.writeSortedFiles();
+    }
 
-        dateTimeQueue = new PriorityQueue<>(Arrays.asList(dateTimeArray));
+    /**
+     * Зчитує масив дати i часу з файлу та будує з нього чергу.
+     */
+    private void readDataFromFile() {
+        data.readArray();
+
+        dateTimeQueue = new IndexedMinMaxHeap<>(Arrays.asList(data.dateTimeArray));
     }
 
     /**
@@ -87,89 +152,70 @@ public class BasicDataOperationUsingQueue {
      * Метод зчитує масив та чергу об'єктiв LocalDateTime з файлу, сортує їх та виконує пошук значення.
      */
     private void doDataOperation() {
-        // операцiї з масивом дати та часу
-        searchArray();
-        findMinAndMaxInArray();
+        if (data.runStoredOperations()) {
+            return;
+        }
 
-        sortArray();
+        if (data.batchKeys != null) {
+            data.sortArray();
+            data.searchBatchInArray();
+            return;
+        }
 
-        searchArray();
-        findMinAndMaxInArray();
+        if (CONCURRENT_QUEUE_MODE.equals(System.getProperty(QUEUE_MODE_PROPERTY))) {
+            runConcurrentIngestion();
+            return;
+        }
+
+        // операцiї з масивом дати та часу
+        data.runArrayOperations();
 
         // операцiї з Queue дати та часу
         searchQueue();
         findMinAndMaxInQueue();
         peekAndPollQueue();
 
-        // записати вiдсортований масив в окремий файл
-        Utils.writeArrayToFile(dateTimeArray, PATH_TO_DATA_FILE + ".sorted");
+        // записати вiдсортований масив, iндекс i фiльтр Блума
+        data.writeSortedFiles();
     }
 
     /**
-     * Сортує масив об'єктiв LocalDateTime та виводить початковий i вiдсортований масиви.
-     * Вимiрює та виводить час, витрачений на сортування масиву в наносекундах.
+     * Стежить за файлом з даними i пiсля кожної його змiни виконує пошук у новому знiмку даних.
      * 
-     * Метод виконує наступнi кроки:
-     * <li>1. Виводить початковий масив об'єктiв LocalDateTime.</li>
-     * <li>2. Вимiрює час, витрачений на сортування масиву за допомогою Arrays.sort().</li>
-     * <li>3. Виводить час, витрачений на сортування масиву в наносекундах.</li>
-     * <li>4. Виводить вiдсортований масив об'єктiв LocalDateTime.</li>
-     */
-    private void sortArray() {
-        // вимiрюємо час, витрачений на сортування масиву дати i часу 
-        long startTime = System.nanoTime();
-
-        Arrays.sort(dateTimeArray);
-
-        Utils.printOperationDuration(startTime, "сортування масиву дати i часу");
-    }
-
-    /**
-     * Метод для пошуку значення в масивi дати i часу.
+     * Новий знiмок (масив i черга дати i часу) зчитується та сортується потоком {@link DataReloader},
+     * а основний потiк лише отримує готовий знiмок, тож данi, з якими вiн працює, не змiнюються пiд час пошуку.
      */
-    private void searchArray() {
-        // вимiрюємо час, витрачений на пошук в масивi дати i часу
-        long startTime = System.nanoTime();
-        
-        int index = Arrays.binarySearch(this.dateTimeArray, dateTimeValueToSearch);
-        
-        Utils.printOperationDuration(startTime, "пошук в масивi дати i часу");
-
-        if (index >= 0) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в масивi за iндексом: " + index);
-        } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в масивi не знайдено.");
-        }
-    }
-
-    /**
-     * Знаходить мiнiмальне та максимальне значення в масивi LocalDateTime.
-     */
-    private void findMinAndMaxInArray() {
-        if (dateTimeArray == null || dateTimeArray.length == 0) {
-            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+    private void watchDataFile() {
+        if (data.dateTimeArray == null || data.batchKeys != null || CONCURRENT_QUEUE_MODE.equals(System.getProperty(QUEUE_MODE_PROPERTY))) {
+            System.out.println("Стеження за файлом з даними доступне лише для пошуку значення в даних, зчитаних у пам'ять.");
             return;
         }
 
-        // вимiрюємо час, витрачений на пошук мiнiмальної i максимальної дати i часу
-        long startTime = System.nanoTime();
+        DataReloader<BasicDataOperationUsingQueue> reloader = new DataReloader<>(PATH_TO_DATA_FILE,
+                () -> new BasicDataOperationUsingQueue(data.dateTimeValueToSearch));
+        reloader.start(this);
 
-        LocalDateTime min = dateTimeArray[0];
-        LocalDateTime max = dateTimeArray[0];
+        System.out.println("Очiкування змiн файлу " + PATH_TO_DATA_FILE + "...");
 
-        for (LocalDateTime dateTime : dateTimeArray) {
-            if (dateTime.isBefore(min)) {
-                min = dateTime;
-            }
-            if (dateTime.isAfter(max)) {
-                max = dateTime;
+        BasicDataOperationUsingQueue snapshot = this;
+        try {
+            while (true) {
+                snapshot = reloader.awaitChange(snapshot);
+                snapshot.searchSnapshot();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в масивi");
-
-        System.out.println("Мiнiмальне значення в масивi: " + min);
-        System.out.println("Максимальне значення в масивi: " + max);
+    /**
+     * Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних.
+     */
+    private void searchSnapshot() {
+        data.searchArray();
+        data.findMinAndMaxInArray();
+        searchQueue();
+        findMinAndMaxInQueue();
     }
 
     /**
@@ -177,16 +223,16 @@ public class BasicDataOperationUsingQueue {
      */
     private void searchQueue() {
         // вимiрюємо час, витрачений на пошук в черзi дати i часу
-        long startTime = System.nanoTime();
+        long startTime = Utils.startOperation();
 
-        boolean isFound = this.dateTimeQueue.contains(dateTimeValueToSearch);
+        boolean isFound = this.dateTimeQueue.contains(data.dateTimeValueToSearch);
 
         Utils.printOperationDuration(startTime, "пошук в Queue дати i часу");
 
         if (isFound) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в Queue");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' знайдено в Queue");
         } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в Queue не знайдено.");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' в Queue не знайдено.");
         }
     }
 
@@ -200,15 +246,17 @@ public class BasicDataOperationUsingQueue {
         }
 
         // вимiрюємо час, витрачений на пошук мiнiмальної i максимальної дати i часу
-        long startTime = System.nanoTime();
+        long startTime = Utils.startOperation();
 
-        LocalDateTime min = Collections.min(dateTimeQueue);
-        LocalDateTime max = Collections.max(dateTimeQueue);
+        LocalDateTime min = dateTimeQueue.peek();
+        LocalDateTime max = dateTimeQueue.peekLast();
 
         Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в Queue");
 
         System.out.println("Мiнiмальне значення в Queue: " + min);
         System.out.println("Максимальне значення в Queue: " + max);
+        System.out.println("Дiапазон значень в Queue: " + Duration.between(min, max));
+        System.out.println("Кiлькiсть унiкальних значень в Queue: " + dateTimeQueue.distinctCount() + " з " + dateTimeQueue.size());
     }
 
     /**
@@ -229,65 +277,592 @@ public class BasicDataOperationUsingQueue {
         firstElement = dateTimeQueue.peek();
         System.out.println("Перший елемент у черзi: " + firstElement);
     }
+
+    /**
+     * Запускає конвеєр з потоками-виробниками та потоками-споживачами спочатку на {@link StripedTimeQueue},
+     * потiм на PriorityBlockingQueue i виводить пропускну здатнiсть та затримку кожної черги.
+     */
+    private void runConcurrentIngestion() {
+        IngestionPipeline configuration = IngestionPipeline.configured();
+        System.out.println("Виробникiв: " + configuration.producers + ", споживачiв: " + configuration.consumers
+                + ", значень: " + (long) data.dateTimeArray.length * configuration.rounds);
+
+        runIngestion(new StripedTimeQueue(configuration.producers), "StripedTimeQueue", configuration);
+        runIngestion(new BlockingTimeQueue(), "PriorityBlockingQueue", configuration);
+    }
+
+    private void runIngestion(TimeOrderedQueue queue, String queueName, IngestionPipeline configuration) {
+        IngestionPipeline pipeline = configuration.withSameSettings();
+
+        String operationName = "конкурентна обробка в " + queueName;
+        long startTime = Utils.startOperation();
+
+        long count;
+        try {
+            count = pipeline.run(queue, data.dateTimeArray);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Utils.printOperationThroughput(startTime, operationName, count);
+
+        pipeline.printLatency(queueName);
+    }
 }
 
 /**
- * Клас Utils мiститить допомiжнi методи для роботи з даними типу LocalDateTime.
+ * Черга з прiоритетом на основi мiнiмаксної купи з iндексом значень.
+ * 
+ * <p>Парнi рiвнi купи впорядкованi за мiнiмумом, непарнi - за максимумом, тому найменше значення лежить
+ * у коренi, а найбiльше - в одному з його нащадкiв, i обидва доступнi за O(1). Кожне унiкальне значення
+ * займає один вузол з лiчильником повторiв, а хеш-таблиця вiдображає значення на його вузол, тож пошук
+ * виконується за O(1), а видалення довiльного значення - за O(log n) замiсть лiнiйного проходу купою
+ * {@link PriorityQueue}.</p>
+ * 
+ * @param <T> Тип значень черги.
  */
-class Utils {
+class IndexedMinMaxHeap<T extends Comparable<? super T>> extends AbstractQueue<T> {
+    private static final class Node<T> {
+        final T value;
+        int count;
+        int position;
+
+        Node(T value, int position) {
+            this.value = value;
+            this.count = 1;
+            this.position = position;
+        }
+    }
+
+    private final Map<T, Node<T>> index;
+    private Node<T>[] heap;
+    private int nodeCount;
+    private int size;
+
     /**
-     * Виводить час виконання операцiї в наносекундах.
+     * Будує чергу зi значень колекцiї за O(n): спочатку об'єднує повтори, потiм упорядковує купу знизу вгору.
      * 
-     * @param startTime Час початку операцiї в наносекундах.
-     * @param operationName Назва операцiї.
+     * @param values Значення черги.
      */
-    static void printOperationDuration(long startTime, String operationName) {
-        long endTime = System.nanoTime();
-        long duration = (endTime - startTime);
-        System.out.println("\n>>>>>>>>>> Час виконання операцiї '" + operationName + "'': " + duration + " наносекунд");
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    IndexedMinMaxHeap(Collection<? extends T> values) {
+        index = new HashMap<>(Math.max(16, (int) (values.size() / 0.75f) + 1));
+        heap = (Node<T>[]) new Node[Math.max(16, values.size())];
+        for (T value : values) {
+            Node<T> node = index.get(Objects.requireNonNull(value));
+            if (node != null) {
+                node.count++;
+            } else {
+                node = new Node<>(value, nodeCount);
+                index.put(value, node);
+                heap[nodeCount++] = node;
+            }
+            size++;
+        }
+        for (int i = nodeCount / 2 - 1; i >= 0; i--) {
+            pushDown(i);
+        }
+    }
+
+    @Override
+    public boolean offer(T value) {
+        Node<T> node = index.get(Objects.requireNonNull(value));
+        if (node != null) {
+            node.count++;
+        } else {
+            if (nodeCount == heap.length) {
+                heap = Arrays.copyOf(heap, nodeCount * 2);
+            }
+            node = new Node<>(value, nodeCount);
+            index.put(value, node);
+            heap[nodeCount++] = node;
+            pushUp(node.position);
+        }
+        size++;
+        return true;
     }
 
     /**
-     * Зчитує масив об'єктiв LocalDateTime з файлу.
-     * 
-     * @param pathToFile Шлях до файлу з даними.
-     * @return Масив об'єктiв LocalDateTime.
+     * Повертає найменше значення черги без видалення.
+     */
+    @Override
+    public T peek() {
+        return nodeCount == 0 ? null : heap[0].value;
+    }
+
+    /**
+     * Повертає найбiльше значення черги без видалення.
+     */
+    T peekLast() {
+        int position = maxPosition();
+        return position < 0 ? null : heap[position].value;
+    }
+
+    /**
+     * Видаляє i повертає найменше значення черги.
+     */
+    @Override
+    public T poll() {
+        return nodeCount == 0 ? null : removeOne(0);
+    }
+
+    /**
+     * Видаляє i повертає найбiльше значення черги.
      */
-    static LocalDateTime[] readArrayFromFile(String pathToFile) {
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-        LocalDateTime[] tempArray = new LocalDateTime[1000];
-        int index = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToFile))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                LocalDateTime dateTime = LocalDateTime.parse(line, formatter);
-                tempArray[index++] = dateTime;
+    T pollLast() {
+        int position = maxPosition();
+        return position < 0 ? null : removeOne(position);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return index.containsKey(value);
+    }
+
+    /**
+     * Видаляє одне входження значення з черги за O(log n).
+     */
+    @Override
+    public boolean remove(Object value) {
+        Node<T> node = index.get(value);
+        if (node == null) {
+            return false;
+        }
+        removeOne(node.position);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Кiлькiсть унiкальних значень у черзi.
+     */
+    int distinctCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Повертає iтератор по значеннях черги в порядку купи (повтори йдуть пiдряд).
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int position;
+            private int repeat;
+
+            @Override
+            public boolean hasNext() {
+                return position < nodeCount;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+
+            @Override
+            public T next() {
+                if (position >= nodeCount) {
+                    throw new NoSuchElementException();
+                }
+                Node<T> node = heap[position];
+                if (++repeat == node.count) {
+                    position++;
+                    repeat = 0;
+                }
+                return node.value;
+            }
+        };
+    }
+
+    private int maxPosition() {
+        if (nodeCount <= 2) {
+            return nodeCount - 1;
+        }
+        return less(1, 2) ? 2 : 1;
+    }
+
+    private T removeOne(int position) {
+        Node<T> node = heap[position];
+        size--;
+        if (--node.count > 0) {
+            return node.value;
+        }
+        index.remove(node.value);
+
+        Node<T> last = heap[--nodeCount];
+        heap[nodeCount] = null;
+        if (position < nodeCount) {
+            last.position = position;
+            heap[position] = last;
+            // значення з кiнця купи може порушувати порядок як з нащадками, так i з предками нового мiсця
+            pushDown(position);
+            pushUp(last.position);
+        }
+        return node.value;
+    }
+
+    private static boolean isMinLevel(int position) {
+        return (31 - Integer.numberOfLeadingZeros(position + 1)) % 2 == 0;
+    }
+
+    private boolean less(int first, int second) {
+        return heap[first].value.compareTo(heap[second].value) < 0;
+    }
+
+    private boolean better(int first, int second, boolean minLevel) {
+        return minLevel ? less(first, second) : less(second, first);
+    }
+
+    private void swap(int first, int second) {
+        Node<T> node = heap[first];
+        heap[first] = heap[second];
+        heap[second] = node;
+        heap[first].position = first;
+        heap[second].position = second;
+    }
+
+    private void pushUp(int position) {
+        if (position == 0) {
+            return;
         }
+        boolean minLevel = isMinLevel(position);
+        int parent = (position - 1) / 2;
+        if (better(position, parent, minLevel)) {
+            pushUpGrandparents(position, minLevel);
+        } else {
+            swap(position, parent);
+            pushUpGrandparents(parent, !minLevel);
+        }
+    }
 
-        LocalDateTime[] finalArray = new LocalDateTime[index];
-        System.arraycopy(tempArray, 0, finalArray, 0, index);
+    private void pushUpGrandparents(int position, boolean minLevel) {
+        while (position > 2) {
+            int grandparent = (position - 3) / 4;
+            if (!better(position, grandparent, minLevel)) {
+                return;
+            }
+            swap(position, grandparent);
+            position = grandparent;
+        }
+    }
 
-        return finalArray;
+    private void pushDown(int position) {
+        boolean minLevel = isMinLevel(position);
+        while (true) {
+            int firstChild = 2 * position + 1;
+            if (firstChild >= nodeCount) {
+                return;
+            }
+            // найкращий серед дiтей i онукiв: онуки лежать у позицiях 4 * position + 3 .. 4 * position + 6
+            int best = firstChild;
+            if (firstChild + 1 < nodeCount && better(firstChild + 1, best, minLevel)) {
+                best = firstChild + 1;
+            }
+            int end = Math.min(nodeCount, 4 * position + 7);
+            for (int i = 4 * position + 3; i < end; i++) {
+                if (better(i, best, minLevel)) {
+                    best = i;
+                }
+            }
+            if (!better(best, position, minLevel)) {
+                return;
+            }
+            swap(best, position);
+            if (best <= firstChild + 1) {
+                return;
+            }
+            int parent = (best - 1) / 2;
+            if (better(parent, best, minLevel)) {
+                swap(best, parent);
+            }
+            position = best;
+        }
     }
+}
+
+/**
+ * Iнтерфейс TimeOrderedQueue описує потокобезпечну чергу, з якої значення забираються в порядку часу.
+ */
+interface TimeOrderedQueue {
+    /**
+     * Додає значення в чергу (викликається з багатьох потокiв-виробникiв).
+     */
+    void offer(TimedValue value);
 
     /**
-     * Записує масив об'єктiв LocalDateTime у файл.
+     * Забирає з черги до {@code maxElements} найменших значень у порядку зростання.
      * 
-     * @param dateTimeArray Масив об'єктiв LocalDateTime.
-     * @param pathToFile Шлях до файлу для запису.
+     * @param sink Список, до якого додаються значення.
+     * @param maxElements Максимальна кiлькiсть значень.
+     * @return Кiлькiсть забраних значень.
+     */
+    int drainTo(List<TimedValue> sink, int maxElements);
+}
+
+/**
+ * Значення дати i часу разом з моментом додавання в чергу (для вимiрювання затримки).
+ */
+final class TimedValue implements Comparable<TimedValue> {
+    final LocalDateTime value;
+    final long enqueueTime;
+
+    TimedValue(LocalDateTime value, long enqueueTime) {
+        this.value = value;
+        this.enqueueTime = enqueueTime;
+    }
+
+    @Override
+    public int compareTo(TimedValue other) {
+        return value.compareTo(other.value);
+    }
+}
+
+/**
+ * Черга з кiлькома купами (смугами), кожна з яких захищена власним замком.
+ * 
+ * <p>Кожен потiк-виробник пiд час першого додавання отримує власну смугу по колу, тому виробники
+ * розподiляються мiж смугами рiвномiрно i виробники рiзних смуг не конкурують за замок. Споживач забирає
+ * значення пакетами k-шляховим злиттям за найменшими значеннями (головами) смуг: блокує смугу з найменшою
+ * головою i забирає з неї значення, доки вони не бiльшi за наступну за величиною голову, тож пакет мiстить
+ * найменшi значення всiх смуг, а споживач тримає одночасно лише один замок.</p>
+ */
+class StripedTimeQueue implements TimeOrderedQueue {
+    private final PriorityQueue<TimedValue>[] stripes;
+    private final ReentrantLock[] locks;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<Integer> threadStripe;
+
+    /**
+     * @param stripeCount Кiлькiсть смуг (зазвичай дорiвнює кiлькостi виробникiв).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    StripedTimeQueue(int stripeCount) {
+        stripes = new PriorityQueue[stripeCount];
+        locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new PriorityQueue<>();
+            locks[i] = new ReentrantLock();
+        }
+        threadStripe = ThreadLocal.withInitial(() -> Math.floorMod(nextStripe.getAndIncrement(), stripeCount));
+    }
+
+    @Override
+    public void offer(TimedValue value) {
+        int stripe = threadStripe.get();
+        locks[stripe].lock();
+        try {
+            stripes[stripe].offer(value);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Забирає до {@code maxElements} найменших значень усiх смуг k-шляховим злиттям: голови смуг зчитуються
+     * по однiй пiд замком смуги, а далi з найменшої смуги забираються значення, не бiльшi за другу найменшу голову.
+     * Одночасно утримується лише один замок.
      */
-    static void writeArrayToFile(LocalDateTime[] dateTimeArray, String pathToFile) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(pathToFile))) {
-            for (LocalDateTime dateTime : dateTimeArray) {
-                writer.write(dateTime.toString());
-                writer.newLine();
+    @Override
+    public int drainTo(List<TimedValue> sink, int maxElements) {
+        TimedValue[] heads = new TimedValue[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                heads[i] = stripes[i].peek();
+            } finally {
+                locks[i].unlock();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+
+        int first = sink.size();
+        int drained = 0;
+        while (drained < maxElements) {
+            int best = -1;
+            int next = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] == null) {
+                    continue;
+                }
+                if (best < 0 || heads[i].compareTo(heads[best]) < 0) {
+                    next = best;
+                    best = i;
+                } else if (next < 0 || heads[i].compareTo(heads[next]) < 0) {
+                    next = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+
+            locks[best].lock();
+            try {
+                PriorityQueue<TimedValue> stripe = stripes[best];
+                TimedValue value;
+                while (drained < maxElements && (value = stripe.peek()) != null
+                        && (next < 0 || value.compareTo(heads[next]) <= 0)) {
+                    sink.add(stripe.poll());
+                    drained++;
+                }
+                heads[best] = stripe.peek();
+            } finally {
+                locks[best].unlock();
+            }
+        }
+        // значення, доданi виробниками пiд час злиття, можуть бути меншими за вже забранi
+        sink.subList(first, sink.size()).sort(null);
+        return drained;
+    }
+}
+
+/**
+ * Базова реалiзацiя на PriorityBlockingQueue (одна купа пiд одним замком) для порiвняння.
+ */
+class BlockingTimeQueue implements TimeOrderedQueue {
+    private final PriorityBlockingQueue<TimedValue> queue = new PriorityBlockingQueue<>();
+
+    @Override
+    public void offer(TimedValue value) {
+        queue.offer(value);
+    }
+
+    @Override
+    public int drainTo(List<TimedValue> sink, int maxElements) {
+        return queue.drainTo(sink, maxElements);
+    }
+}
+
+/**
+ * Клас IngestionPipeline запускає потоки-виробники, якi додають значення з файлу в чергу, та потоки-споживачi,
+ * якi забирають їх пакетами, i вимiрює пропускну здатнiсть та затримку вiд додавання до забирання.
+ */
+class IngestionPipeline {
+    static final String PRODUCERS_PROPERTY = "queue.producers";
+    static final String CONSUMERS_PROPERTY = "queue.consumers";
+    static final String ROUNDS_PROPERTY = "queue.rounds";
+
+    static final int DEFAULT_ROUNDS = 1000;
+    static final int DRAIN_BATCH_SIZE = 256;
+
+    final int producers;
+    final int consumers;
+    final int rounds;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long inversions;
+
+    IngestionPipeline(int producers, int consumers, int rounds) {
+        this.producers = producers;
+        this.consumers = consumers;
+        this.rounds = rounds;
+    }
+
+    /**
+     * Створює конвеєр з параметрами з системних властивостей.
+     */
+    static IngestionPipeline configured() {
+        return new IngestionPipeline(
+                Math.max(1, Integer.getInteger(PRODUCERS_PROPERTY, Math.max(2, Runtime.getRuntime().availableProcessors()))),
+                Math.max(1, Integer.getInteger(CONSUMERS_PROPERTY, 1)),
+                Math.max(1, Integer.getInteger(ROUNDS_PROPERTY, DEFAULT_ROUNDS)));
     }
-}
\ No newline at end of file
+
+    /**
+     * Створює новий конвеєр з тими самими кiлькостями виробникiв, споживачiв i повторiв, але без
+     * накопиченої статистики, щоб кожна черга вимiрювалась окремо з параметрами, прочитаними один раз.
+     */
+    IngestionPipeline withSameSettings() {
+        return new IngestionPipeline(producers, consumers, rounds);
+    }
+
+    /**
+     * Виконує конвеєр: кожен виробник {@link #rounds} разiв додає свою частину масиву,
+     * споживачi забирають значення, доки не буде забрано всi.
+     * 
+     * @param queue Черга.
+     * @param data Данi для додавання.
+     * @return Кiлькiсть забраних значень.
+     */
+    long run(TimeOrderedQueue queue, LocalDateTime[] data) throws InterruptedException {
+        long total = (long) data.length * rounds;
+        AtomicLong remaining = new AtomicLong(total);
+        CountDownLatch start = new CountDownLatch(1);
+        LatencyHistogram[] consumerLatencies = new LatencyHistogram[consumers];
+        long[] consumerInversions = new long[consumers];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int from = (int) ((long) data.length * p / producers);
+            int to = (int) ((long) data.length * (p + 1) / producers);
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = from; i < to; i++) {
+                        queue.offer(new TimedValue(data[i], System.nanoTime()));
+                    }
+                }
+            }, "producer-" + p));
+        }
+        for (int c = 0; c < consumers; c++) {
+            int consumer = c;
+            consumerLatencies[c] = new LatencyHistogram();
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                List<TimedValue> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+                LocalDateTime previous = LocalDateTime.MIN;
+                while (remaining.get() > 0) {
+                    batch.clear();
+                    int drained = queue.drainTo(batch, DRAIN_BATCH_SIZE);
+                    if (drained == 0) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    long now = System.nanoTime();
+                    for (TimedValue timedValue : batch) {
+                        consumerLatencies[consumer].record(now - timedValue.enqueueTime);
+                        if (timedValue.value.isBefore(previous)) {
+                            consumerInversions[consumer]++;
+                        }
+                        previous = timedValue.value;
+                    }
+                    remaining.addAndGet(-drained);
+                }
+            }, "consumer-" + c));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int c = 0; c < consumers; c++) {
+            latency.add(consumerLatencies[c]);
+            inversions += consumerInversions[c];
+        }
+        return total;
+    }
+
+    /**
+     * Виводить перцентилi затримки вiд додавання до забирання та кiлькiсть порушень порядку часу.
+     * 
+     * <p>Порушення порядку можливi, бо виробники додають старiшi значення пiсля того, як споживач
+     * уже забрав новiшi; у межах одного пакета порядок завжди зростаючий.</p>
+     * 
+     * @param queueName Назва черги для виведення.
+     */
+    void printLatency(String queueName) {
+        System.out.println("Затримка в " + queueName + ": p50 " + latency.percentile(0.5)
+                + " нс, p99 " + latency.percentile(0.99) + " нс, максимум " + latency.max() + " нс");
+        System.out.println("Порушень порядку часу мiж пакетами: " + inversions + " з " + latency.count());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,12 +1,7 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -19,12 +14,12 @@ import java.util.Set;
  * <ul>
  *   <li>{@link #main(String[])} - Точка входу в програму.</li>
  *   <li>{@link #doDataOperation()} - Виконує основнi операцiї з даними.</li>
- *   <li>{@link #sortArray()} - Сортує масив LocalDateTime.</li>
- *   <li>{@link #searchArray()} - Виконує пошук значення в масивi LocalDateTime.</li>
- *   <li>{@link #findMinAndMaxInArray()} - Знаходить мiнiмальне та максимальне значення в масивi LocalDateTime.</li>
+ *   <li>{@link #watchDataFile()} - Стежить за файлом з даними i виконує пошук у кожному новому знiмку даних.</li>
+ *   <li>{@link #searchSnapshot()} - Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних.</li>
  *   <li>{@link #searchSet()} - Виконує пошук значення в множинi LocalDateTime.</li>
  *   <li>{@link #findMinAndMaxInSet()} - Знаходить мiнiмальне та максимальне значення в множинi LocalDateTime.</li>
  *   <li>{@link #compareArrayAndSet()} - Порiвнює елементи масиву та множини.</li>
+ *   <li>{@link #searchBatchInSet()} - Виконує пакетний пошук ключiв у множинi LocalDateTime.</li>
  * </ul>
  * 
  * <p>Конструктор:</p>
@@ -35,147 +30,217 @@ import java.util.Set;
  * <p>Константи:</p>
  * <ul>
  *   <li>{@link #PATH_TO_DATA_FILE} - Шлях до файлу з даними.</li>
+ *   <li>{@link BatchLookup#SEARCH_BATCH_PROPERTY} - Системна властивiсть з файлом ключiв для пакетного пошуку ("-" - стандартний ввiд).</li>
+ *   <li>{@link BloomFilter#BLOOM_FILTER_PROPERTY} - Системна властивiсть з часткою хибнопозитивних вiдповiдей фiльтра Блума, що вмикає фiльтр перед пошуком.</li>
+ *   <li>{@link EpochKeySearch#SEARCH_METHOD_PROPERTY} - Системна властивiсть з методом пошуку у вiдсортованому масивi ({@code binary}, {@code interpolation}, {@code learned}).</li>
+ *   <li>{@link RangeQuery#RANGE_PROPERTY} - Системна властивiсть з межами запиту за дiапазоном ({@code <вiд>..<до>}).</li>
+ *   <li>{@link RangeQuery#NEAREST_PROPERTY} - Системна властивiсть з кiлькiстю значень, найближчих до значення для пошуку.</li>
+ *   <li>{@link TimeBuckets#AGGREGATE_PROPERTY} - Системна властивiсть з гранулярнiстю агрегацiї ({@code hour}, {@code day}, {@code month}).</li>
+ *   <li>{@link SortedIndex#INDEX_LOOKUP_PROPERTY} - Системна властивiсть, що вмикає пошук у збереженому iндексi.</li>
+ *   <li>{@link DateTimeDataset#STREAM_READ_PROPERTY} - Системна властивiсть, що вмикає пошук i мiнiмум та максимум потоком рядкiв файлу без зчитування в пам'ять.</li>
+ *   <li>{@link IncrementalMerge#INCREMENTAL_SORT_PROPERTY} - Системна властивiсть, що вмикає злиття дописаних рядкiв з файлом .sorted замiсть повного сортування.</li>
+ *   <li>{@link ExternalSort#EXTERNAL_SORT_PROPERTY} - Системна властивiсть, що вмикає зовнiшнє сортування файлу з даними серiями в межах бюджету пам'ятi.</li>
+ *   <li>{@link ExternalSort#MEMORY_BUDGET_PROPERTY} - Системна властивiсть з бюджетом пам'ятi зовнiшнього сортування (наприклад, {@code 64m}).</li>
+ *   <li>{@link ExternalSort#TEMP_DIRECTORY_PROPERTY} - Системна властивiсть з каталогом для тимчасових серiй зовнiшнього сортування.</li>
+ *   <li>{@link SortEngine#DISTINCT_PROPERTY} - Системна властивiсть, що вмикає видалення повторiв з вiдсортованого масиву.</li>
+ *   <li>{@link OperationMetrics#METRICS_OUTPUT_PROPERTY} - Системна властивiсть з файлом для метрик операцiй (.json, .csv, .prom).</li>
+ *   <li>{@link DataReloader#WATCH_PROPERTY} - Системна властивiсть, що вмикає стеження за файлом з даними пiсля виконання операцiй.</li>
+ *   <li>{@link DataFileWriter#COMPRESSION_PROPERTY} - Системна властивiсть, що вмикає стиснення файлу .sorted ({@code gzip}).</li>
+ *   <li>{@link #SET_BACKEND_PROPERTY} - Системна властивiсть, що обирає реалiзацiю множини ({@code hash} або {@code long}).</li>
  * </ul>
  * 
  * <p>Змiннi екземпляра:</p>
  * <ul>
- *   <li>{@link #dateTimeValueToSearch} - Значення LocalDateTime для пошуку.</li>
- *   <li>{@link #dateTimeArray} - Масив LocalDateTime.</li>
+ *   <li>{@link #data} - Значення для пошуку, масив LocalDateTime, iндекс, агрегати i фiльтр Блума ({@link DateTimeDataset}).</li>
  *   <li>{@link #dateTimeSet} - Множина LocalDateTime.</li>
+ *   <li>{@link #epochSecondSet} - Множина секунд вiд початку епохи (у режимi {@code long}).</li>
  * </ul>
  * 
  * <p>Приклад використання:</p>
  * <pre>
  * {@code
  * java BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dindex.lookup=true BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dread.stream=true BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsort.incremental=true BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsort.external=true -Dsort.memory=64m BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsort.distinct=true BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsearch.bloom=0.01 BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsearch.method=learned BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dsearch.batch=queries.data BasicDataOperationUsingSet
+ * java -Dsearch.range=2024-03-01T00:00:00..2024-03-31T23:59:59 -Dsearch.nearest=5 BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Daggregate.buckets=day BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dset.backend=long BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dwatch.reload=true BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Dmetrics.output=metrics.prom BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
+ * java -Doutput.compression=gzip BasicDataOperationUsingSet "2024-03-16T00:12:38Z"
  * }
  * </pre>
  */
 public class BasicDataOperationUsingSet {
     static final String PATH_TO_DATA_FILE = "list/LocalDateTime.data";
+    static final String SET_BACKEND_PROPERTY = "set.backend";
+    static final String LONG_SET_BACKEND = "long";
 
-    LocalDateTime dateTimeValueToSearch;
-    LocalDateTime[] dateTimeArray;
+    DateTimeDataset data;
     Set<LocalDateTime> dateTimeSet = new HashSet<>();
+    LongHashSet epochSecondSet;
 
     public static void main(String[] args) {  
         BasicDataOperationUsingSet basicDataOperationUsingSet = new BasicDataOperationUsingSet(args);
         basicDataOperationUsingSet.doDataOperation();
+
+        if (Boolean.getBoolean(DataReloader.WATCH_PROPERTY)) {
+            basicDataOperationUsingSet.watchDataFile();
+        }
     }
 
     /**
      * Конструктор, який iнiцiалiзує об'єкт з значенням для пошуку.
      * 
-     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку.
+     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку
+     *             (у пакетному режимi не використовується).
      */
     BasicDataOperationUsingSet(String[] args) {
-        if (args.length == 0) {
-            throw new RuntimeException("Вiдсутнє значення для пошуку");
-        }
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, args);
 
-        String valueToSearch = args[0];
-        this.dateTimeValueToSearch = LocalDateTime.parse(valueToSearch, DateTimeFormatter.ISO_DATE_TIME);
-
-        dateTimeArray = Utils.readArrayFromFile(PATH_TO_DATA_FILE);
-        dateTimeSet = new HashSet<>(Arrays.asList(dateTimeArray));
+        if (!data.openStored()) {
+            readDataFromFile();
+        }
     }
 
     /**
-     * Виконує основнi операцiї з даними.
+     * Конструктор знiмка даних: зчитує та сортує данi з файлу для того самого значення для пошуку
+     * i перезаписує файл .sorted та iндекс. Викликається потоком перезавантаження, тому поточний
+     * знiмок при цьому не змiнюється.
      * 
-     * Метод зчитує масив та множину об'єктiв LocalDateTime з файлу, сортує їх та виконує пошук значення.
+     * @param dateTimeValueToSearch Значення LocalDateTime для пошуку.
      */
-    private void doDataOperation() {
-        // операцiї з масивом дати та часу
-        searchArray();
-        findMinAndMaxInArray();
-
-        sortArray();
+    private BasicDataOperationUsingSet(LocalDateTime dateTimeValueToSearch) {
+        data = new DateTimeDataset(PATH_TO_DATA_FILE, dateTimeValueToSearch);
 
-        searchArray();
-        findMinAndMaxInArray();
+        readDataFromFile();
 
-        // операцiї з HashSet дати та часу
-        searchSet();
-        findMinAndMaxInSet();
-        compareArrayAndSet();
-
-        // записати вiдсортований масив в окремий файл
-        Utils.writeArrayToFile(dateTimeArray, PATH_TO_DATA_FILE + ".sorted");
+        data.sortArray();
+        data.writeSortedFiles();
     }
 
     /**
-     * Сортує масив об'єктiв LocalDateTime та виводить початковий i вiдсортований масиви.
-     * Вимiрює та виводить час, витрачений на сортування масиву в наносекундах.
+     * Зчитує масив дати i часу з файлу та будує з нього множину.
      */
-    private void sortArray() {
-        long startTime = System.nanoTime();
+    private void readDataFromFile() {
+        data.readArray();
+
+        LocalDateTime[] dateTimeArray = data.dateTimeArray;
+
+        if (LONG_SET_BACKEND.equals(System.getProperty(SET_BACKEND_PROPERTY))) {
+            long startTime = Utils.startOperation();
 
-        Arrays.sort(dateTimeArray);
+            epochSecondSet = toEpochSecondSet(dateTimeArray);
 
-        Utils.printOperationDuration(startTime, "сортування масиву дати i часу");
+            if (epochSecondSet != null) {
+                Utils.printOperationThroughput(startTime, "побудова LongHashSet секунд вiд початку епохи", dateTimeArray.length);
+
+                System.out.println("Обсяг пам'ятi LongHashSet: " + epochSecondSet.memoryBytes()
+                        + " байт (HashSet: ~" + LongHashSet.hashSetMemoryBytes(epochSecondSet.size()) + " байт)");
+                return;
+            }
+            System.out.println("Данi мiстять наносекунди, замiсть LongHashSet буде використано HashSet.");
+        }
+
+        dateTimeSet = new HashSet<>(Arrays.asList(dateTimeArray));
     }
 
     /**
-     * Метод для пошуку значення в масивi дати i часу.
+     * Виконує основнi операцiї з даними.
+     * 
+     * Метод зчитує масив та множину об'єктiв LocalDateTime з файлу, сортує їх та виконує пошук значення.
      */
-    private void searchArray() {
-        long startTime = System.nanoTime();
+    private void doDataOperation() {
+        if (data.runStoredOperations()) {
+            return;
+        }
 
-        int index = Arrays.binarySearch(this.dateTimeArray, dateTimeValueToSearch);
+        if (data.batchKeys != null) {
+            searchBatchInSet();
+            return;
+        }
 
-        Utils.printOperationDuration(startTime, "пошук в масивi дати i часу");
+        // операцiї з масивом дати та часу
+        data.runArrayOperations();
 
-        if (index >= 0) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в масивi за iндексом: " + index);
-        } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в масивi не знайдено.");
-        }
+        // операцiї з HashSet дати та часу
+        searchSet();
+        findMinAndMaxInSet();
+        compareArrayAndSet();
+
+        // записати вiдсортований масив, iндекс i фiльтр Блума
+        data.writeSortedFiles();
     }
 
     /**
-     * Знаходить мiнiмальне та максимальне значення в масивi LocalDateTime.
+     * Стежить за файлом з даними i пiсля кожної його змiни виконує пошук у новому знiмку даних.
+     * 
+     * Новий знiмок (масив i множина дати i часу) зчитується та сортується потоком {@link DataReloader},
+     * а основний потiк лише отримує готовий знiмок, тож данi, з якими вiн працює, не змiнюються пiд час пошуку.
      */
-    private void findMinAndMaxInArray() {
-        if (dateTimeArray == null || dateTimeArray.length == 0) {
-            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+    private void watchDataFile() {
+        if (data.dateTimeArray == null || data.batchKeys != null) {
+            System.out.println("Стеження за файлом з даними доступне лише для пошуку значення в даних, зчитаних у пам'ять.");
             return;
         }
 
-        long startTime = System.nanoTime();
+        DataReloader<BasicDataOperationUsingSet> reloader = new DataReloader<>(PATH_TO_DATA_FILE,
+                () -> new BasicDataOperationUsingSet(data.dateTimeValueToSearch));
+        reloader.start(this);
 
-        LocalDateTime min = dateTimeArray[0];
-        LocalDateTime max = dateTimeArray[0];
+        System.out.println("Очiкування змiн файлу " + PATH_TO_DATA_FILE + "...");
 
-        for (LocalDateTime dateTime : dateTimeArray) {
-            if (dateTime.isBefore(min)) {
-                min = dateTime;
-            }
-            if (dateTime.isAfter(max)) {
-                max = dateTime;
+        BasicDataOperationUsingSet snapshot = this;
+        try {
+            while (true) {
+                snapshot = reloader.awaitChange(snapshot);
+                snapshot.searchSnapshot();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в масивi");
-
-        System.out.println("Мiнiмальне значення в масивi: " + min);
-        System.out.println("Максимальне значення в масивi: " + max);
+    /**
+     * Виконує пошук i знаходить мiнiмум та максимум у вiдсортованому знiмку даних.
+     */
+    private void searchSnapshot() {
+        data.searchArray();
+        data.findMinAndMaxInArray();
+        searchSet();
+        findMinAndMaxInSet();
     }
 
     /**
      * Метод для пошуку значення в множинi дати i часу.
      */
     private void searchSet() {
-        long startTime = System.nanoTime();
+        if (epochSecondSet != null) {
+            searchEpochSecondSet();
+            return;
+        }
+
+        long startTime = Utils.startOperation();
 
-        boolean isFound = this.dateTimeSet.contains(dateTimeValueToSearch);
+        boolean passed = data.bloomFilter == null || data.bloomFilter.mightContain(data.dateTimeValueToSearch);
+        boolean isFound = passed && this.dateTimeSet.contains(data.dateTimeValueToSearch);
 
         Utils.printOperationDuration(startTime, "пошук в HashSet дати i часу");
 
+        if (data.bloomFilter != null) {
+            data.bloomFilter.recordLookup(passed, isFound);
+        }
+
         if (isFound) {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в HashSet");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' знайдено в HashSet");
         } else {
-            System.out.println("Значення '" + dateTimeValueToSearch + "' в HashSet не знайдено.");
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' в HashSet не знайдено.");
         }
     }
 
@@ -183,31 +248,39 @@ public class BasicDataOperationUsingSet {
      * Знаходить мiнiмальне та максимальне значення в множинi LocalDateTime.
      */
     private void findMinAndMaxInSet() {
+        if (epochSecondSet != null) {
+            findMinAndMaxInEpochSecondSet();
+            return;
+        }
+
         if (dateTimeSet == null || dateTimeSet.isEmpty()) {
             System.out.println("HashSet порожнiй або не iнiцiалiзований.");
             return;
         }
 
-        long startTime = System.nanoTime();
+        long startTime = Utils.startOperation();
 
-        LocalDateTime min = Collections.min(dateTimeSet);
-        LocalDateTime max = Collections.max(dateTimeSet);
+        DataStatistics<LocalDateTime> statistics = DataStatistics.ofSet(dateTimeSet);
 
         Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в HashSet");
 
-        System.out.println("Мiнiмальне значення в HashSet: " + min);
-        System.out.println("Максимальне значення в HashSet: " + max);
+        statistics.print("HashSet", Duration.between(statistics.min, statistics.max));
     }
 
     /**
      * Порiвнює елементи масиву та множини.
      */
     private void compareArrayAndSet() {
-        System.out.println("Кiлькiсть елементiв в масивi: " + dateTimeArray.length);
+        if (epochSecondSet != null) {
+            compareArrayAndEpochSecondSet();
+            return;
+        }
+
+        System.out.println("Кiлькiсть елементiв в масивi: " + data.dateTimeArray.length);
         System.out.println("Кiлькiсть елементiв в HashSet: " + dateTimeSet.size());
 
         boolean allElementsMatch = true;
-        for (LocalDateTime dateTime : dateTimeArray) {
+        for (LocalDateTime dateTime : data.dateTimeArray) {
             if (!dateTimeSet.contains(dateTime)) {
                 allElementsMatch = false;
                 break;
@@ -220,65 +293,354 @@ public class BasicDataOperationUsingSet {
             System.out.println("Не всi елементи масиву присутнi в HashSet.");
         }
     }
+
+    /**
+     * Виконує пакетний пошук ключiв у множинi дати i часу.
+     */
+    private void searchBatchInSet() {
+        if (epochSecondSet != null) {
+            searchBatchInEpochSecondSet();
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        BatchLookup batchLookup = new BatchLookup();
+        batchLookup.probe(data.batchKeys, dateTimeSet);
+
+        Utils.printOperationThroughput(startTime, "пакетний пошук в HashSet дати i часу", data.batchKeys.length);
+
+        System.out.println("Знайдено значень: " + batchLookup.foundCount() + ", не знайдено: " + batchLookup.notFoundCount());
+    }
+
+    /**
+     * Метод для пошуку значення в множинi секунд вiд початку епохи.
+     */
+    private void searchEpochSecondSet() {
+        long startTime = Utils.startOperation();
+
+        boolean passed = data.bloomFilter == null || data.bloomFilter.mightContain(data.dateTimeValueToSearch);
+        boolean isFound = passed && data.dateTimeValueToSearch.getNano() == 0
+                && epochSecondSet.contains(data.dateTimeValueToSearch.toEpochSecond(ZoneOffset.UTC));
+
+        Utils.printOperationDuration(startTime, "пошук в LongHashSet дати i часу");
+
+        if (data.bloomFilter != null) {
+            data.bloomFilter.recordLookup(passed, isFound);
+        }
+
+        if (isFound) {
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' знайдено в LongHashSet");
+        } else {
+            System.out.println("Значення '" + data.dateTimeValueToSearch + "' в LongHashSet не знайдено.");
+        }
+    }
+
+    /**
+     * Знаходить мiнiмальне та максимальне значення в множинi секунд вiд початку епохи.
+     */
+    private void findMinAndMaxInEpochSecondSet() {
+        if (epochSecondSet.size() == 0) {
+            System.out.println("LongHashSet порожнiй.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        long[] minAndMax = epochSecondSet.minAndMax();
+
+        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в LongHashSet");
+
+        System.out.println("Мiнiмальне значення в LongHashSet: " + LocalDateTime.ofEpochSecond(minAndMax[0], 0, ZoneOffset.UTC));
+        System.out.println("Максимальне значення в LongHashSet: " + LocalDateTime.ofEpochSecond(minAndMax[1], 0, ZoneOffset.UTC));
+        System.out.println("Дiапазон значень в LongHashSet: " + Duration.ofSeconds(minAndMax[1] - minAndMax[0]));
+    }
+
+    /**
+     * Порiвнює елементи масиву та множини секунд вiд початку епохи пакетною перевiркою containsAll.
+     */
+    private void compareArrayAndEpochSecondSet() {
+        System.out.println("Кiлькiсть елементiв в масивi: " + data.dateTimeArray.length);
+        System.out.println("Кiлькiсть елементiв в LongHashSet: " + epochSecondSet.size());
+
+        long[] keys = new long[data.dateTimeArray.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = data.dateTimeArray[i].toEpochSecond(ZoneOffset.UTC);
+        }
+
+        long startTime = Utils.startOperation();
+
+        boolean allElementsMatch = epochSecondSet.containsAll(keys);
+
+        Utils.printOperationThroughput(startTime, "пакетна перевiрка масиву в LongHashSet", keys.length);
+
+        if (allElementsMatch) {
+            System.out.println("Всi елементи масиву присутнi в LongHashSet.");
+        } else {
+            System.out.println("Не всi елементи масиву присутнi в LongHashSet.");
+        }
+    }
+
+    /**
+     * Виконує пакетний пошук ключiв у множинi секунд вiд початку епохи.
+     * Ключi з наносекундами не можуть бути в множинi i вважаються ненайденими.
+     */
+    private void searchBatchInEpochSecondSet() {
+        long startTime = Utils.startOperation();
+
+        long[] keys = new long[data.batchKeys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = data.batchKeys[i].toEpochSecond(ZoneOffset.UTC);
+        }
+        boolean[] found = new boolean[keys.length];
+        epochSecondSet.contains(keys, found);
+        for (int i = 0; i < keys.length; i++) {
+            found[i] &= data.batchKeys[i].getNano() == 0;
+        }
+
+        BatchLookup batchLookup = new BatchLookup();
+        batchLookup.report(data.batchKeys, found);
+
+        Utils.printOperationThroughput(startTime, "пакетний пошук в LongHashSet дати i часу", data.batchKeys.length);
+
+        System.out.println("Знайдено значень: " + batchLookup.foundCount() + ", не знайдено: " + batchLookup.notFoundCount());
+    }
+
+    /**
+     * Будує множину секунд вiд початку епохи.
+     * 
+     * @param array Масив дати i часу.
+     * @return Множина секунд або null, якщо хоча б одне значення має наносекунди.
+     */
+    private static LongHashSet toEpochSecondSet(LocalDateTime[] array) {
+        LongHashSet set = new LongHashSet(array.length);
+        for (LocalDateTime dateTime : array) {
+            if (dateTime.getNano() != 0) {
+                return null;
+            }
+            set.add(dateTime.toEpochSecond(ZoneOffset.UTC));
+        }
+        return set;
+    }
 }
 
 /**
- * Клас Utils мiститить допомiжнi методи для роботи з даними типу LocalDateTime.
+ * Клас LongHashSet - множина примiтивних ключiв long з вiдкритою адресацiєю та лiнiйним зондуванням.
+ * 
+ * <p>Ключi зберiгаються безпосередньо в масивi long[] без вузлiв HashMap i об'єктiв LocalDateTime,
+ * тому один елемент займає 16-32 байти таблицi замiсть ~100 байт у HashSet. Таблиця має розмiр
+ * степеня двiйки i заповнюється не бiльше нiж наполовину; порожня комiрка позначається значенням
+ * {@link #EMPTY}, а сам ключ {@link #EMPTY} зберiгається окремим прапорцем.</p>
+ * 
+ * <p>Пакетний пошук {@link #contains(long[], boolean[])} обробляє ключi блоками: спочатку для всього
+ * блоку обчислюються хешi (простий цикл над масивом, який JIT-компiлятор може векторизувати), потiм
+ * виконуються першi зондування - незалежнi звернення до пам'ятi, якi процесор виконує паралельно,
+ * i лише пiсля цього розв'язуються колiзiї.</p>
  */
-class Utils {
+class LongHashSet {
+    static final long EMPTY = Long.MIN_VALUE;
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int BATCH_SIZE = 256;
+
+    private long[] table;
+    private int mask;
+    private int shift;
+    private int size;
+    private boolean containsEmpty;
+
     /**
-     * Виводить час виконання операцiї в наносекундах.
+     * Створює множину, в яку без розширення таблицi вмiщується задана кiлькiсть ключiв.
      * 
-     * @param startTime Час початку операцiї в наносекундах.
-     * @param operationName Назва операцiї.
+     * @param expectedSize Очiкувана кiлькiсть ключiв.
      */
-    static void printOperationDuration(long startTime, String operationName) {
-        long endTime = System.nanoTime();
-        long duration = (endTime - startTime);
-        System.out.println("\n>>>>>>>>>> Час виконання операцiї '" + operationName + "': " + duration + " наносекунд");
+    LongHashSet(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
     }
 
     /**
-     * Зчитує масив об'єктiв LocalDateTime з файлу.
+     * Додає ключ у множину.
      * 
-     * @param pathToFile Шлях до файлу з даними.
-     * @return Масив об'єктiв LocalDateTime.
+     * @param key Ключ.
+     * @return true, якщо ключа ще не було в множинi.
      */
-    static LocalDateTime[] readArrayFromFile(String pathToFile) {
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
-        LocalDateTime[] tempArray = new LocalDateTime[1000];
-        int index = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToFile))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                LocalDateTime dateTime = LocalDateTime.parse(line, formatter);
-                tempArray[index++] = dateTime;
+    boolean add(long key) {
+        if (key == EMPTY) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+
+        int slot = slot(key);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == key) {
+                return false;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            slot = (slot + 1) & mask;
         }
+        table[slot] = key;
+        if (++size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
 
-        LocalDateTime[] finalArray = new LocalDateTime[index];
-        System.arraycopy(tempArray, 0, finalArray, 0, index);
+    /**
+     * Перевiряє наявнiсть ключа в множинi.
+     * 
+     * @param key Ключ.
+     * @return true, якщо ключ є в множинi.
+     */
+    boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
 
-        return finalArray;
+        int slot = slot(key);
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
     }
 
     /**
-     * Записує масив об'єктiв LocalDateTime у файл.
+     * Пакетний пошук: записує в {@code found[i]} наявнiсть ключа {@code keys[i]}.
      * 
-     * @param dateTimeArray Масив об'єктiв LocalDateTime.
-     * @param pathToFile Шлях до файлу для запису.
+     * @param keys Ключi для пошуку.
+     * @param found Масив результатiв довжиною не менше {@code keys.length}.
      */
-    static void writeArrayToFile(LocalDateTime[] dateTimeArray, String pathToFile) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(pathToFile))) {
-            for (LocalDateTime dateTime : dateTimeArray) {
-                writer.write(dateTime.toString());
-                writer.newLine();
+    void contains(long[] keys, boolean[] found) {
+        int[] slots = new int[BATCH_SIZE];
+        for (int from = 0; from < keys.length; from += BATCH_SIZE) {
+            int to = Math.min(keys.length, from + BATCH_SIZE);
+
+            // хешi всього блоку
+            for (int i = from; i < to; i++) {
+                slots[i - from] = (int) ((keys[i] * GOLDEN_RATIO) >>> shift);
+            }
+
+            // першi зондування: незалежнi завантаження з таблицi
+            for (int i = from; i < to; i++) {
+                long current = table[slots[i - from]];
+                found[i] = current == keys[i] && current != EMPTY;
+                if (current == EMPTY) {
+                    slots[i - from] = -1;
+                }
+            }
+
+            // розв'язання колiзiй для ключiв, якi не вирiшилися першим зондуванням
+            for (int i = from; i < to; i++) {
+                if (found[i]) {
+                    continue;
+                }
+                if (keys[i] == EMPTY) {
+                    found[i] = containsEmpty;
+                } else if (slots[i - from] >= 0) {
+                    found[i] = containsFrom((slots[i - from] + 1) & mask, keys[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Перевiряє, чи всi ключi присутнi в множинi.
+     * 
+     * @param keys Ключi для перевiрки.
+     * @return true, якщо всi ключi присутнi.
+     */
+    boolean containsAll(long[] keys) {
+        boolean[] found = new boolean[keys.length];
+        contains(keys, found);
+        for (boolean isFound : found) {
+            if (!isFound) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Повертає кiлькiсть ключiв у множинi.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Повертає мiнiмальний i максимальний ключi (множина не повинна бути порожньою).
+     * 
+     * @return Масив з двох елементiв: мiнiмального та максимального ключiв.
+     */
+    long[] minAndMax() {
+        long min = containsEmpty ? EMPTY : Long.MAX_VALUE;
+        long max = containsEmpty ? EMPTY : Long.MIN_VALUE;
+        for (long key : table) {
+            if (key != EMPTY) {
+                min = Math.min(min, key);
+                max = Math.max(max, key);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return new long[] {min, max};
     }
-}
\ No newline at end of file
+
+    /**
+     * Повертає обсяг пам'ятi таблицi в байтах.
+     */
+    long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * Оцiнює обсяг пам'ятi HashSet&lt;LocalDateTime&gt; з тiєю ж кiлькiстю елементiв: таблиця посилань
+     * з коефiцiєнтом заповнення 0,75, вузол HashMap (32 байти) i три об'єкти дати i часу (72 байти) на елемент.
+     * 
+     * @param size Кiлькiсть елементiв.
+     * @return Орiєнтовний обсяг пам'ятi в байтах.
+     */
+    static long hashSetMemoryBytes(int size) {
+        long capacity = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1, (long) (size / 0.75f)) * 2 - 1));
+        return capacity * Integer.BYTES + (long) size * (32 + 24 + 24 + 24);
+    }
+
+    private boolean containsFrom(int slot, long key) {
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        mask = capacity - 1;
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldTable = table;
+        allocate(capacity);
+        for (long key : oldTable) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Клас BenchmarkData генерує вiдтворюванi данi заданого типу i розмiру для бенчмаркiв.
+ *
+ * <p>Значення мають той самий формат i дiапазон, що й файли з каталогу "list", але їх кiлькiсть
+ * задається параметром бенчмарку, а не обмежена розмiром файлу.</p>
+ */
+final class BenchmarkData {
+    /**
+     * Типи даних, для яких генеруються значення (назви збiгаються з файлами в каталозi "list").
+     */
+    static final String LOCAL_DATE_TIME = "LocalDateTime";
+    static final String LOCAL_DATE = "LocalDate";
+    static final String INT = "int";
+    static final String DOUBLE = "double";
+    static final String STRING = "String";
+
+    /**
+     * Розподiли дати i часу: рiвномiрний протягом року та перекошений до його початку.
+     */
+    static final String UNIFORM = "uniform";
+    static final String SKEWED = "skewed";
+
+    private static final long SEED = 20240325L;
+    private static final long FIRST_SECOND = LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final int SECONDS_IN_YEAR = 366 * 24 * 60 * 60;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Генерує масив значень.
+     *
+     * @param type Тип даних.
+     * @param size Кiлькiсть значень.
+     * @return Масив значень у випадковому порядку.
+     */
+    static Comparable<?>[] values(String type, int size) {
+        Random random = new Random(SEED);
+        Comparable<?>[] values = type.equals(LOCAL_DATE_TIME) ? new LocalDateTime[size] : new Comparable<?>[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = value(type, random);
+        }
+        return values;
+    }
+
+    /**
+     * Генерує масив дати i часу iз заданим розподiлом у межах року.
+     *
+     * <p>У перекошеному розподiлi секунда року дорiвнює u^4 * (секунд у роцi) для рiвномiрного u, тож
+     * половина значень припадає на першi три тижнi, а щiльнiсть спадає на кiлька порядкiв до кiнця року.
+     * На таких даних лiнiйна iнтерполяцiя мiж краями iнтервалу помиляється найбiльше.</p>
+     *
+     * @param distribution Розподiл ({@value #UNIFORM} або {@value #SKEWED}).
+     * @param size Кiлькiсть значень.
+     * @return Масив значень у випадковому порядку.
+     */
+    static LocalDateTime[] dateTimes(String distribution, int size) {
+        Random random = new Random(SEED);
+        LocalDateTime[] values = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            long second;
+            switch (distribution) {
+                case UNIFORM:
+                    second = random.nextInt(SECONDS_IN_YEAR);
+                    break;
+                case SKEWED:
+                    second = (long) (Math.pow(random.nextDouble(), 4) * SECONDS_IN_YEAR);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Невiдомий розподiл: " + distribution);
+            }
+            values[i] = LocalDateTime.ofEpochSecond(FIRST_SECOND + second, 0, ZoneOffset.UTC);
+        }
+        return values;
+    }
+
+    /**
+     * Записує у тимчасовий файл заданої кiлькостi рядкiв дату i час у форматi файлу "list/LocalDateTime.data".
+     *
+     * @param size Кiлькiсть рядкiв.
+     * @return Шлях до створеного файлу.
+     */
+    static Path writeDateTimeFile(int size) {
+        try {
+            Path path = Files.createTempFile("LocalDateTime", ".data");
+            path.toFile().deleteOnExit();
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            Random random = new Random(SEED);
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+                for (int i = 0; i < size; i++) {
+                    writer.write(formatter.format((LocalDateTime) value(LOCAL_DATE_TIME, random)));
+                    writer.newLine();
+                }
+            }
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Comparable<?> value(String type, Random random) {
+        switch (type) {
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.ofEpochSecond(FIRST_SECOND + random.nextInt(SECONDS_IN_YEAR), 0, ZoneOffset.UTC);
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(LocalDate.of(2023, 1, 1).toEpochDay() + random.nextInt(730));
+            case INT:
+                return random.nextInt();
+            case DOUBLE:
+                return random.nextGaussian() * Math.pow(10, random.nextInt(300) - 150);
+            case STRING:
+                return Long.toString(random.nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+            default:
+                throw new IllegalArgumentException("Невiдомий тип даних: " + type);
+        }
+    }
+}
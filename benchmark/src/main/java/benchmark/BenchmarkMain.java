@@ -0,0 +1,37 @@
+package benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входу benchmarks.jar: запускає JMH з параметрами командного рядка i профiлювальником GC.
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * mvn -pl benchmark -am package
+ * java -jar benchmark/target/benchmarks.jar
+ * java -jar benchmark/target/benchmarks.jar LookupBenchmark -p size=100000 -p type=LocalDateTime
+ * }
+ * </pre>
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
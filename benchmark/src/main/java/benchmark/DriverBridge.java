@@ -0,0 +1,160 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Клас DriverBridge надає бенчмаркам доступ до класiв модуля core.
+ *
+ * <p>Спiльнi класи програм (Utils, SortEngine, DataStatistics, EpochKeySearch) оголошенi в пакетi за замовчуванням i доступнi
+ * лише в межах пакета, а JMH не дозволяє бенчмарки в пакетi за замовчуванням. Тому методи
+ * знаходяться через рефлексiю один раз i викликаються через статичнi {@link MethodHandle},
+ * якi JIT-компiлятор вбудовує так само, як прямий виклик.</p>
+ */
+final class DriverBridge {
+    private static final MethodHandle READ_ARRAY_FROM_FILE = find("Utils", "readArrayFromFile", String.class);
+    private static final MethodHandle SORT_DATE_TIME_ARRAY = find("SortEngine", "sort", LocalDateTime[].class);
+    private static final MethodHandle SORT_COMPARABLE_ARRAY = find("SortEngine", "sortComparable", Comparable[].class);
+    private static final MethodHandle STATISTICS_OF_ARRAY = find("DataStatistics", "ofArray",
+            Comparable[].class, boolean.class, ToLongFunction.class);
+    private static final MethodHandle STATISTICS_OF_PRIORITY_QUEUE = find("DataStatistics", "ofPriorityQueue",
+            PriorityQueue.class);
+    private static final MethodHandle KEY_SEARCH_OF = find("EpochKeySearch", "of",
+            LocalDateTime[].class, type("EpochKeySearch$Method"));
+    private static final MethodHandle KEY_SEARCH_SEARCH = find("EpochKeySearch", "search",
+            LocalDateTime[].class, LocalDateTime.class);
+    private static final ToLongFunction<Object> HASH_KEY = Object::hashCode;
+
+    private DriverBridge() {
+    }
+
+    /**
+     * Utils.readArrayFromFile: зчитує масив дати i часу з файлу.
+     */
+    static LocalDateTime[] readArrayFromFile(String pathToFile) {
+        try {
+            return (LocalDateTime[]) READ_ARRAY_FROM_FILE.invokeExact(pathToFile);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * SortEngine.sort для масиву дати i часу (з порозрядним сортуванням у режимi auto).
+     */
+    static Object sort(LocalDateTime[] array) {
+        try {
+            return SORT_DATE_TIME_ARRAY.invokeExact(array);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * SortEngine.sortComparable для масиву порiвнюваних значень.
+     */
+    static Object sort(Comparable<?>[] array) {
+        try {
+            return SORT_COMPARABLE_ARRAY.invokeExact(array);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * DataStatistics.ofArray: мiнiмум, максимум i оцiнка кiлькостi унiкальних значень за один прохiд.
+     */
+    static Object statistics(Comparable<?>[] array, boolean sorted) {
+        try {
+            return STATISTICS_OF_ARRAY.invokeExact(array, sorted, HASH_KEY);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * DataStatistics.ofPriorityQueue: мiнiмум з голови черги, максимум серед листкiв купи.
+     */
+    static Object statistics(PriorityQueue<?> queue) {
+        try {
+            return STATISTICS_OF_PRIORITY_QUEUE.invokeExact(queue);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * EpochKeySearch.of: стовпець ключiв вiдсортованого масиву i, для методу {@code learned}, навчений iндекс.
+     */
+    static Object keySearch(LocalDateTime[] sortedArray, String method) {
+        Object methodConstant = null;
+        for (Object constant : type("EpochKeySearch$Method").getEnumConstants()) {
+            if (constant.toString().equals(method)) {
+                methodConstant = constant;
+            }
+        }
+        if (methodConstant == null) {
+            throw new IllegalArgumentException("Невiдомий метод пошуку: " + method);
+        }
+
+        try {
+            return KEY_SEARCH_OF.invokeExact(sortedArray, methodConstant);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * EpochKeySearch.search: пошук значення у вiдсортованому масивi, за яким побудовано keySearch.
+     */
+    static int search(Object keySearch, LocalDateTime[] sortedArray, LocalDateTime value) {
+        try {
+            return (int) KEY_SEARCH_SEARCH.invokeExact(keySearch, sortedArray, value);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    private static MethodHandle find(String className, String methodName, Class<?>... parameterTypes) {
+        try {
+            Method method = Class.forName(className).getDeclaredMethod(methodName, parameterTypes);
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            MethodType type = handle.type().changeReturnType(
+                    method.getReturnType().isPrimitive() || method.getReturnType().isArray() ? method.getReturnType() : Object.class);
+            // класи пакета за замовчуванням (отримувач, перелiки) недоступнi з пакета benchmark
+            for (int i = 0; i < type.parameterCount(); i++) {
+                if (!Modifier.isPublic(type.parameterType(i).getModifiers())) {
+                    type = type.changeParameterType(i, Object.class);
+                }
+            }
+            return handle.asType(type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не знайдено метод " + className + "." + methodName, e);
+        }
+    }
+
+    private static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Не знайдено клас " + className, e);
+        }
+    }
+
+    private static RuntimeException propagate(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
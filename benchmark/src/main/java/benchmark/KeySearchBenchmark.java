@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк пошуку у вiдсортованому масивi дати i часу (EpochKeySearch): двiйковий та iнтерполяцiйний
+ * пошук у стовпцi секунд i навчений кусково-лiнiйний iндекс на рiвномiрних i перекошених даних.
+ *
+ * <p>Для порiвняння з двiйковим пошуком у масивi об'єктiв див. LookupBenchmark.searchArray.
+ * Значення для пошуку вибираються з невiдсортованого масиву, тобто у випадковому порядку.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KeySearchBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({BenchmarkData.UNIFORM, BenchmarkData.SKEWED})
+    String distribution;
+
+    @Param({"binary", "interpolation", "learned"})
+    String method;
+
+    private LocalDateTime[] sortedArray;
+    private Object keySearch;
+    private LocalDateTime[] keys;
+    private int keyIndex;
+
+    @Setup
+    public void buildKeySearch() {
+        LocalDateTime[] unsortedArray = BenchmarkData.dateTimes(distribution, size);
+        sortedArray = unsortedArray.clone();
+        Arrays.sort(sortedArray);
+        keySearch = DriverBridge.keySearch(sortedArray, method);
+
+        keys = new LocalDateTime[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = unsortedArray[(int) ((long) i * size / KEY_COUNT)];
+        }
+    }
+
+    @Benchmark
+    public int search() {
+        return DriverBridge.search(keySearch, sortedArray, keys[keyIndex++ & (KEY_COUNT - 1)]);
+    }
+
+    /**
+     * Побудова стовпця ключiв i моделi пiсля сортування.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object build() {
+        return DriverBridge.keySearch(sortedArray, method);
+    }
+}
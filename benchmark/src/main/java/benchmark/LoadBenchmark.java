@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк зчитування масиву дати i часу з файлу (Utils.readArrayFromFile), з якого
+ * починають роботу всi три програми BasicDataOperationUsing*.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoadBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private Path dataFile;
+
+    @Setup
+    public void writeDataFile() {
+        dataFile = BenchmarkData.writeDateTimeFile(size);
+    }
+
+    @TearDown
+    public void deleteDataFile() throws Exception {
+        Files.deleteIfExists(dataFile);
+    }
+
+    @Benchmark
+    public LocalDateTime[] readArrayFromFile() {
+        return DriverBridge.readArrayFromFile(dataFile.toString());
+    }
+}
@@ -0,0 +1,124 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Бенчмарк операцiй програм BasicDataOperationUsing* над готовими даними: пошук у масивi та ArrayList,
+ * пошук мiнiмуму i максимуму, contains у HashSet, peek i poll у PriorityQueue.
+ *
+ * <p>Значення для пошуку вибираються з даних циклiчно, щоб вимiр не зводився до одного
+ * закешованого шляху бiнарного пошуку.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@SuppressWarnings("unchecked")
+public class LookupBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({BenchmarkData.LOCAL_DATE_TIME, BenchmarkData.LOCAL_DATE, BenchmarkData.INT, BenchmarkData.DOUBLE, BenchmarkData.STRING})
+    String type;
+
+    private Comparable<Object>[] unsortedArray;
+    private Comparable<Object>[] sortedArray;
+    private List<Comparable<Object>> unsortedList;
+    private List<Comparable<Object>> sortedList;
+    private Set<Comparable<Object>> set;
+    private PriorityQueue<Comparable<Object>> queue;
+    private Comparable<Object>[] keys;
+    private int keyIndex;
+
+    @Setup
+    public void buildCollections() {
+        unsortedArray = (Comparable<Object>[]) BenchmarkData.values(type, size);
+        sortedArray = unsortedArray.clone();
+        Arrays.sort(sortedArray);
+        unsortedList = new ArrayList<>(Arrays.asList(unsortedArray));
+        sortedList = new ArrayList<>(Arrays.asList(sortedArray));
+        set = new HashSet<>(unsortedList);
+        queue = new PriorityQueue<>(unsortedList);
+
+        // масив ключiв того самого типу, що й данi (LocalDateTime[] для LocalDateTime), без сирого типу
+        keys = Arrays.copyOf(unsortedArray, KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = unsortedArray[(int) ((long) i * size / KEY_COUNT)];
+        }
+    }
+
+    private Comparable<Object> nextKey() {
+        return keys[keyIndex++ & (KEY_COUNT - 1)];
+    }
+
+    @Benchmark
+    public int searchArray() {
+        return Arrays.binarySearch(sortedArray, nextKey());
+    }
+
+    @Benchmark
+    public int searchList() {
+        return Collections.binarySearch(sortedList, nextKey());
+    }
+
+    @Benchmark
+    public boolean containsSet() {
+        return set.contains(nextKey());
+    }
+
+    @Benchmark
+    public Object minMaxArray() {
+        return DriverBridge.statistics(unsortedArray, false);
+    }
+
+    @Benchmark
+    public Object minMaxSortedArray() {
+        return DriverBridge.statistics(sortedArray, true);
+    }
+
+    @Benchmark
+    public void minMaxList(Blackhole blackhole) {
+        blackhole.consume(Collections.min(unsortedList));
+        blackhole.consume(Collections.max(unsortedList));
+    }
+
+    @Benchmark
+    public Object minMaxQueue() {
+        return DriverBridge.statistics(queue);
+    }
+
+    /**
+     * peek i poll з поверненням елемента в чергу, щоб розмiр черги не змiнювався мiж вимiрами.
+     */
+    @Benchmark
+    public void peekAndPollQueue(Blackhole blackhole) {
+        blackhole.consume(queue.peek());
+        Comparable<Object> head = queue.poll();
+        queue.offer(head);
+        blackhole.consume(head);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк сортування масиву (SortEngine) та ArrayList (Collections.sort).
+ *
+ * <p>Кожен вимiр сортує свiжу копiю невiдсортованих даних; час копiювання (лiнiйний)
+ * входить у результат i однаковий для всiх варiантiв.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({BenchmarkData.LOCAL_DATE_TIME, BenchmarkData.LOCAL_DATE, BenchmarkData.INT, BenchmarkData.DOUBLE, BenchmarkData.STRING})
+    String type;
+
+    private Comparable<?>[] values;
+
+    @Setup
+    public void generateValues() {
+        values = BenchmarkData.values(type, size);
+    }
+
+    @Benchmark
+    public Comparable<?>[] sortArray() {
+        Comparable<?>[] array = values.clone();
+        if (array instanceof LocalDateTime[]) {
+            DriverBridge.sort((LocalDateTime[]) array);
+        } else {
+            DriverBridge.sort(array);
+        }
+        return array;
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Comparable> sortList() {
+        List<Comparable> list = new ArrayList<>(Arrays.asList(values));
+        Collections.sort(list);
+        return list;
+    }
+}
@@ -0,0 +1,165 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Клас BatchLookup виконує пакетний пошук багатьох значень за один прохiд.
+ * 
+ * <p>Ключi для пошуку зчитуються з файлу, заданого системною властивiстю {@value #SEARCH_BATCH_PROPERTY}
+ * (або зi стандартного вводу, якщо її значення {@code -}), сортуються i зiставляються з вiдсортованими
+ * даними одним проходом злиттям. Результати виводяться потоком у форматi
+ * {@code <значення>\t<found|not-found>\t<iндекс>}; для пошуку в хеш-множинi iндекс не виводиться.</p>
+ */
+class BatchLookup {
+    static final String SEARCH_BATCH_PROPERTY = "search.batch";
+    static final String STANDARD_INPUT = "-";
+
+    /**
+     * Порiвнює елемент вiдсортованих даних за iндексом зi значенням для пошуку.
+     */
+    @FunctionalInterface
+    interface IndexComparator {
+        /**
+         * @param index Iндекс елемента вiдсортованих даних.
+         * @param value Значення для пошуку.
+         * @return Вiд'ємне число, нуль або додатне число, якщо елемент менший, рiвний або бiльший за значення.
+         */
+        int compare(int index, LocalDateTime value);
+    }
+
+    private int foundCount;
+    private int notFoundCount;
+
+    /**
+     * Повертає джерело ключiв пакетного пошуку або null, якщо пакетний режим вимкнено.
+     */
+    static String configuredSource() {
+        return System.getProperty(SEARCH_BATCH_PROPERTY);
+    }
+
+    /**
+     * Зчитує ключi для пошуку з файлу або стандартного вводу та сортує їх.
+     * 
+     * @param source Шлях до файлу з ключами або {@value #STANDARD_INPUT} для стандартного вводу.
+     * @return Вiдсортований масив ключiв.
+     */
+    static LocalDateTime[] readSortedKeys(String source) {
+        LocalDateTime[] keys = new LocalDateTime[0];
+        try (DataLineReader reader = STANDARD_INPUT.equals(source)
+                ? new DataLineReader(Channels.newChannel(System.in))
+                : new DataLineReader(source)) {
+            keys = Utils.readArray(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        SortEngine.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Зiставляє вiдсортованi ключi з вiдсортованими даними одним проходом.
+     * 
+     * <p>Для кожного ключа позицiя в даних шукається експоненцiйним пошуком вiд позицiї попереднього
+     * ключа, тому загальна вартiсть становить O(m log(n/m)) замiсть m повних двiйкових пошукiв.
+     * Для знайдених значень виводиться iндекс першого входження, для ненайдених - -(точка вставки) - 1.</p>
+     * 
+     * @param sortedKeys Вiдсортованi ключi для пошуку.
+     * @param size Кiлькiсть елементiв вiдсортованих даних.
+     * @param comparator Порiвняння елемента даних за iндексом з ключем.
+     */
+    void sweep(LocalDateTime[] sortedKeys, int size, IndexComparator comparator) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), Utils.READ_BUFFER_SIZE));
+
+        int position = 0;
+        for (LocalDateTime key : sortedKeys) {
+            int bound = 1;
+            while (position + bound < size && comparator.compare(position + bound, key) < 0) {
+                position += bound;
+                bound <<= 1;
+            }
+
+            int low = position;
+            int high = Math.min(size, position + bound);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(middle, key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            position = low;
+
+            boolean found = position < size && comparator.compare(position, key) == 0;
+            writeResult(out, key, found);
+            out.print('\t');
+            out.println(found ? position : -(position + 1));
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Перевiряє наявнiсть кожного ключа за допомогою хеш-множини.
+     * 
+     * @param sortedKeys Ключi для пошуку.
+     * @param set Множина, в якiй виконується пошук.
+     */
+    void probe(LocalDateTime[] sortedKeys, Set<LocalDateTime> set) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), Utils.READ_BUFFER_SIZE));
+
+        for (LocalDateTime key : sortedKeys) {
+            writeResult(out, key, set.contains(key));
+            out.println();
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Виводить заздалегiдь обчисленi результати пошуку (наприклад, пакетного пошуку в {@code LongHashSet}).
+     * 
+     * @param sortedKeys Ключi для пошуку.
+     * @param found Результати пошуку для кожного ключа.
+     */
+    void report(LocalDateTime[] sortedKeys, boolean[] found) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), Utils.READ_BUFFER_SIZE));
+
+        for (int i = 0; i < sortedKeys.length; i++) {
+            writeResult(out, sortedKeys[i], found[i]);
+            out.println();
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Повертає кiлькiсть знайдених ключiв.
+     */
+    int foundCount() {
+        return foundCount;
+    }
+
+    /**
+     * Повертає кiлькiсть ненайдених ключiв.
+     */
+    int notFoundCount() {
+        return notFoundCount;
+    }
+
+    private void writeResult(PrintWriter out, LocalDateTime key, boolean found) {
+        out.print(key);
+        if (found) {
+            foundCount++;
+            out.print("\tfound");
+        } else {
+            notFoundCount++;
+            out.print("\tnot-found");
+        }
+    }
+}
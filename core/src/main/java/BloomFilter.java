@@ -0,0 +1,347 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Клас BloomFilter - блочний фiльтр Блума, що вiдсiкає пошук значень, яких точно немає в даних.
+ * 
+ * <p>Бiтовий масив дiлиться на блоки по {@value #BLOCK_BITS} бiт (одна кеш-лiнiя): старшi бiти хешу
+ * значення обирають блок, а всi k бiт значення встановлюються в межах цього блоку (позицiї беруться
+ * по {@value #BLOCK_BIT_INDEX_BITS} бiт з окремого хешу), тому перевiрка коштує один промах кешу. Розмiр
+ * i кiлькiсть хешiв обчислюються за бажаною часткою хибнопозитивних вiдповiдей, яка задається системною
+ * властивiстю {@value #BLOOM_FILTER_PROPERTY}.</p>
+ * 
+ * <p>Фiльтр зберiгається у файл "&lt;файл даних&gt;{@value #BLOOM_FILE_SUFFIX}" з описом файлу з даними
+ * (розмiр, час змiни, CRC32C), як {@link SortedIndex}, i використовується повторно, доки файл не змiниться.
+ * Лiчильники показують, скiльки пошукiв вiдсiчено фiльтром, скiльки пропущено до основної структури
+ * i скiльки з пропущених виявились хибнопозитивними.</p>
+ */
+class BloomFilter {
+    static final String BLOOM_FILTER_PROPERTY = "search.bloom";
+    static final String BLOOM_FILE_SUFFIX = ".bloom";
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    static final int HEADER_SIZE = 64;
+
+    private static final int MAGIC = 0x4C44424C;
+    private static final int VERSION = 1;
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    private static final int BLOCK_BIT_INDEX_BITS = Integer.numberOfTrailingZeros(BLOCK_BITS);
+    private static final int BITS_PER_HASH = Long.SIZE / BLOCK_BIT_INDEX_BITS;
+    private static final int MAX_HASH_COUNT = 16;
+    private static final double MAX_BITS_PER_VALUE = 64;
+    private static final double BITS_PER_VALUE_STEP = 0.25;
+
+    private final long[] words;
+    private final int blockCount;
+    private final int hashCount;
+    private final double falsePositiveRate;
+    private boolean persisted;
+    private long rejectedCount;
+    private long passedCount;
+    private long falsePositiveCount;
+
+    private BloomFilter(int blockCount, int hashCount, double falsePositiveRate) {
+        this.words = new long[blockCount * BLOCK_WORDS];
+        this.blockCount = blockCount;
+        this.hashCount = hashCount;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Повертає частку хибнопозитивних вiдповiдей з системної властивостi {@value #BLOOM_FILTER_PROPERTY}
+     * ({@code true} або порожнє значення - {@value #DEFAULT_FALSE_POSITIVE_RATE}).
+     * 
+     * @return Частка вiд 0 до 1 (не включно) або 0, якщо фiльтр вимкнено.
+     */
+    static double configuredFalsePositiveRate() {
+        String value = System.getProperty(BLOOM_FILTER_PROPERTY);
+        if (value == null || Boolean.FALSE.toString().equals(value)) {
+            return 0;
+        }
+        if (value.isBlank() || Boolean.TRUE.toString().equals(value)) {
+            return DEFAULT_FALSE_POSITIVE_RATE;
+        }
+        try {
+            double rate = Double.parseDouble(value);
+            if (rate > 0 && rate < 1) {
+                return rate;
+            }
+        } catch (NumberFormatException e) {
+            // нижче буде викинуто виняток з повiдомленням
+        }
+        throw new RuntimeException("Некоректна частка хибнопозитивних вiдповiдей фiльтра Блума: " + value);
+    }
+
+    /**
+     * Зчитує збережений фiльтр або, якщо його немає чи вiн застарiв, будує фiльтр з масиву
+     * i виводить час операцiї та розмiр фiльтра.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param array Масив значень файлу або null, якщо данi не зчитано в пам'ять.
+     * @return Фiльтр або null, якщо фiльтр вимкнено чи його неможливо отримати без даних.
+     */
+    static BloomFilter prepare(String pathToDataFile, LocalDateTime[] array) {
+        double falsePositiveRate = configuredFalsePositiveRate();
+        if (falsePositiveRate == 0) {
+            return null;
+        }
+
+        long startTime = Utils.startOperation();
+
+        BloomFilter filter = load(pathToDataFile, falsePositiveRate);
+
+        if (filter != null) {
+            Utils.printOperationDuration(startTime, "зчитування збереженого фiльтра Блума");
+        } else if (array != null) {
+            filter = of(array, falsePositiveRate);
+            Utils.printOperationThroughput(startTime, "побудова фiльтра Блума", array.length);
+        } else {
+            System.out.println("Фiльтр Блума вiдсутнiй або застарiв, пошук виконується без нього.");
+            return null;
+        }
+
+        System.out.println("Фiльтр Блума: " + (long) filter.words.length * Long.BYTES + " байт, хешiв " + filter.hashCount
+                + ", бажана частка хибнопозитивних " + falsePositiveRate);
+        return filter;
+    }
+
+    /**
+     * Будує фiльтр для значень масиву.
+     * 
+     * @param array Масив значень (у довiльному порядку).
+     * @param falsePositiveRate Бажана частка хибнопозитивних вiдповiдей.
+     * @return Фiльтр, що мiстить усi значення масиву.
+     */
+    static BloomFilter of(LocalDateTime[] array, double falsePositiveRate) {
+        double bitsPerValue = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int hashCount = hashCount(bitsPerValue);
+        while (bitsPerValue < MAX_BITS_PER_VALUE && blockedFalsePositiveRate(bitsPerValue, hashCount) > falsePositiveRate) {
+            bitsPerValue += BITS_PER_VALUE_STEP;
+            hashCount = hashCount(bitsPerValue);
+        }
+
+        long bitCount = (long) Math.ceil(Math.max(1, array.length) * bitsPerValue);
+        int blockCount = (int) Math.min(Integer.MAX_VALUE / BLOCK_WORDS, (bitCount + BLOCK_BITS - 1) / BLOCK_BITS);
+
+        BloomFilter filter = new BloomFilter(blockCount, hashCount, falsePositiveRate);
+        for (LocalDateTime value : array) {
+            filter.add(value);
+        }
+        return filter;
+    }
+
+    private static int hashCount(double bitsPerValue) {
+        return (int) Math.max(1, Math.min(MAX_HASH_COUNT, Math.round(bitsPerValue * Math.log(2))));
+    }
+
+    /**
+     * Частка хибнопозитивних вiдповiдей блочного фiльтра. Кiлькiсть значень у блоцi розподiлена за Пуассоном,
+     * тому частка вища, нiж у звичайного фiльтра з тим самим числом бiт на значення, i розмiр фiльтра
+     * збiльшується, доки вона не стане не бiльшою за бажану.
+     */
+    private static double blockedFalsePositiveRate(double bitsPerValue, int hashCount) {
+        double meanLoad = BLOCK_BITS / bitsPerValue;
+        double probability = Math.exp(-meanLoad);
+        double rate = 0;
+        for (int load = 0; load < 4 * meanLoad + 64; load++) {
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashCount * load);
+            rate += probability * Math.pow(bitSet, hashCount);
+            probability *= meanLoad / (load + 1);
+        }
+        return rate;
+    }
+
+    /**
+     * Зчитує збережений фiльтр, якщо вiн вiдповiдає поточному вмiсту файлу з даними i має ту саму частку
+     * хибнопозитивних вiдповiдей.
+     * 
+     * <p>Файл з даними перевiряє {@link SortedIndex#verify(Path, SortedIndex.DataStamp)}; якщо змiнився
+     * лише його час змiни, вiн оновлюється в заголовку фiльтра.</p>
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param falsePositiveRate Бажана частка хибнопозитивних вiдповiдей.
+     * @return Фiльтр або null, якщо файл фiльтра вiдсутнiй чи застарiв.
+     */
+    static BloomFilter load(String pathToDataFile, double falsePositiveRate) {
+        Path filterPath = Path.of(pathToDataFile + BLOOM_FILE_SUFFIX);
+        if (!Files.isRegularFile(filterPath)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(filterPath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // читаємо заголовок повнiстю
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+                    || header.getDouble(16) != falsePositiveRate) {
+                return null;
+            }
+            int hashCount = header.getInt(8);
+            int blockCount = header.getInt(12);
+            if (hashCount < 1 || hashCount > MAX_HASH_COUNT || blockCount < 1
+                    || channel.size() != HEADER_SIZE + (long) blockCount * BLOCK_BITS / Byte.SIZE) {
+                return null;
+            }
+
+            SortedIndex.DataStamp dataStamp = SortedIndex.verify(Path.of(pathToDataFile),
+                    new SortedIndex.DataStamp(header.getLong(24), header.getLong(32), header.getLong(40)));
+            if (dataStamp == null) {
+                return null;
+            }
+            if (dataStamp.modified != header.getLong(32)) {
+                SortedIndex.refreshModified(filterPath, 32, dataStamp.modified);
+            }
+
+            BloomFilter filter = new BloomFilter(blockCount, hashCount, falsePositiveRate);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+            int word = 0;
+            long position = HEADER_SIZE;
+            while (word < filter.words.length) {
+                buffer.clear().limit(Math.min(buffer.capacity(), (filter.words.length - word) * Long.BYTES));
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                    // читаємо буфер повнiстю
+                }
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    throw new EOFException("Файл фiльтра Блума закiнчився ранiше очiкуваного");
+                }
+                position += buffer.remaining();
+                while (buffer.remaining() >= Long.BYTES) {
+                    filter.words[word++] = buffer.getLong();
+                }
+            }
+            filter.persisted = true;
+            return filter;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Зберiгає фiльтр поруч з файлом з даними (атомарно через тимчасовий файл), якщо вiн ще не збережений.
+     * 
+     * <p>У заголовок записується опис файлу з даними, знятий пiд час зчитування масиву, тож фiльтр
+     * для файлу, змiненого пiсля зчитування, не буде використаний. Без опису фiльтр не зберiгається.</p>
+     * 
+     * @param pathToDataFile Шлях до файлу з даними, з якого побудовано фiльтр.
+     * @param dataStamp Опис файлу з даними, знятий пiд час зчитування масиву.
+     */
+    void save(String pathToDataFile, SortedIndex.DataStamp dataStamp) {
+        if (persisted || dataStamp == null) {
+            return;
+        }
+
+        Path filterPath = Path.of(pathToDataFile + BLOOM_FILE_SUFFIX);
+        Path tempPath = Path.of(pathToDataFile + BLOOM_FILE_SUFFIX + ".tmp");
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(hashCount)
+                    .putInt(blockCount)
+                    .putDouble(falsePositiveRate)
+                    .putLong(dataStamp.size)
+                    .putLong(dataStamp.modified)
+                    .putLong(dataStamp.checksum)
+                    .position(HEADER_SIZE);
+
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (long word : words) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putLong(word);
+                }
+                drain(channel, buffer);
+            }
+            Files.move(tempPath, filterPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            persisted = true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+        }
+    }
+
+    /**
+     * Перевiряє, чи може значення бути в даних.
+     * 
+     * @param value Значення для пошуку.
+     * @return false, якщо значення точно вiдсутнє; true, якщо його слiд шукати в основнiй структурi.
+     */
+    boolean mightContain(LocalDateTime value) {
+        long hash = HyperLogLog.mix(DataStatistics.dateTimeKey(value));
+        int block = blockOf(hash) * BLOCK_WORDS;
+        long bits = HyperLogLog.mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            if (i > 0 && i % BITS_PER_HASH == 0) {
+                bits = HyperLogLog.mix(bits);
+            }
+            int bit = (int) (bits >>> (i % BITS_PER_HASH * BLOCK_BIT_INDEX_BITS)) & (BLOCK_BITS - 1);
+            if ((words[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Враховує пошук у лiчильниках i виводить їх.
+     * 
+     * @param passed Чи пропустив фiльтр значення до основної структури.
+     * @param found Чи знайдено значення в основнiй структурi.
+     */
+    void recordLookup(boolean passed, boolean found) {
+        if (!passed) {
+            rejectedCount++;
+        } else {
+            passedCount++;
+            if (!found) {
+                falsePositiveCount++;
+            }
+        }
+        System.out.println("Фiльтр Блума: вiдсiчено " + rejectedCount + ", пропущено " + passedCount
+                + " (хибнопозитивних " + falsePositiveCount + ")");
+    }
+
+    private void add(LocalDateTime value) {
+        long hash = HyperLogLog.mix(DataStatistics.dateTimeKey(value));
+        int block = blockOf(hash) * BLOCK_WORDS;
+        long bits = HyperLogLog.mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            if (i > 0 && i % BITS_PER_HASH == 0) {
+                bits = HyperLogLog.mix(bits);
+            }
+            int bit = (int) (bits >>> (i % BITS_PER_HASH * BLOCK_BIT_INDEX_BITS)) & (BLOCK_BITS - 1);
+            words[block + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Обирає блок за старшими 32 бiтами хешу множенням замiсть дiлення з остачею.
+     */
+    private int blockOf(long hash) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
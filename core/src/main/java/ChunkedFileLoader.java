@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Клас ChunkedFileLoader паралельно зчитує великий файл з даними.
+ * 
+ * <p>Файл дiлиться на частини, межi яких зсуваються до початку наступного рядка, тому кожен рядок повнiстю
+ * належить однiй частинi. Кожна частина вiдображається в пам'ять окремим MappedByteBuffer i розбирається
+ * в окремий масив задачею ForkJoinPool, пiсля чого масиви з'єднуються в порядку частин, тож порядок рядкiв
+ * збiгається з послiдовним читанням.</p>
+ * 
+ * <p>За потреби кожна задача обчислює контрольну суму CRC32C своєї частини перед її розбором, i суми
+ * частин поєднуються в суму всього файлу ({@link #combineChecksums(long, long, long)}) без повторного читання.</p>
+ */
+class ChunkedFileLoader {
+    /**
+     * Мiнiмальний розмiр файлу, для якого зчитування розподiляється мiж потоками.
+     */
+    static final long PARALLEL_THRESHOLD = 8L << 20;
+
+    /**
+     * Мiнiмальний i максимальний розмiр частини файлу (максимальний обмежує розмiр вiдображення в пам'ять).
+     */
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 64L << 20;
+
+    /**
+     * Кiлькiсть частин на один потiк, щоб потоки, якi закiнчили ранiше, забирали частини iнших.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int PROBE_SIZE = 256;
+
+    /**
+     * Вiддзеркалений полiном CRC32C (Castagnoli).
+     */
+    private static final long CRC32C_POLYNOMIAL = 0x82F63B78L;
+
+    private ChunkedFileLoader() {
+    }
+
+    /**
+     * Перевiряє, чи варто зчитувати файл паралельно.
+     * 
+     * @param fileSize Розмiр файлу в байтах.
+     * @return true, якщо файл достатньо великий i доступно бiльше одного потоку.
+     */
+    static boolean isWorthwhile(long fileSize) {
+        return fileSize >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Зчитує всi непорожнi рядки файлу в масив об'єктiв LocalDateTime.
+     * 
+     * @param channel Канал файлу з даними.
+     * @return Масив об'єктiв LocalDateTime у порядку рядкiв файлу.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static LocalDateTime[] load(FileChannel channel) throws IOException {
+        return load(channel, 0, null);
+    }
+
+    /**
+     * Зчитує всi непорожнi рядки файлу в масив об'єктiв LocalDateTime i передає опис зчитаних байтiв.
+     * 
+     * @param channel Канал файлу з даними.
+     * @param modified Час змiни файлу (мс), отриманий до початку читання.
+     * @param stampConsumer Отримує розмiр i контрольну суму CRC32C зчитаних байтiв (null - не обчислювати).
+     * @return Масив об'єктiв LocalDateTime у порядку рядкiв файлу.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static LocalDateTime[] load(FileChannel channel, long modified, Consumer<SortedIndex.DataStamp> stampConsumer)
+            throws IOException {
+        long[] bounds = chunkBounds(channel, channel.size());
+        LocalDateTime[][] parts = new LocalDateTime[bounds.length - 1][];
+        int[] counts = new int[parts.length];
+        long[] checksums = stampConsumer != null ? new long[parts.length] : null;
+
+        try {
+            ForkJoinPool.commonPool().invoke(new ChunkTask(channel, bounds, parts, counts, checksums, 0, parts.length));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (stampConsumer != null) {
+            long checksum = checksums[0];
+            for (int i = 1; i < parts.length; i++) {
+                checksum = combineChecksums(checksum, checksums[i], bounds[i + 1] - bounds[i]);
+            }
+            stampConsumer.accept(new SortedIndex.DataStamp(bounds[parts.length], modified, checksum));
+        }
+
+        long total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        if (total > Utils.MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Кiлькiсть рядкiв у файлi перевищує максимальну довжину масиву");
+        }
+
+        LocalDateTime[] array = new LocalDateTime[(int) total];
+        int index = 0;
+        for (int i = 0; i < parts.length; i++) {
+            System.arraycopy(parts[i], 0, array, index, counts[i]);
+            index += counts[i];
+            parts[i] = null;
+        }
+        return array;
+    }
+
+    /**
+     * Обчислює межi частин файлу: кожна межа, крiм першої та останньої, - початок рядка.
+     */
+    private static long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        long byThreads = Math.min((long) ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE);
+        int chunkCount = (int) Math.max(Math.max(1, byThreads), (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        long[] bounds = new long[chunkCount + 1];
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        for (int i = 1; i < chunkCount; i++) {
+            long tentative = Math.max(bounds[i - 1], size / chunkCount * i);
+            bounds[i] = nextLineStart(channel, tentative, size, probe);
+        }
+        bounds[chunkCount] = size;
+        return bounds;
+    }
+
+    /**
+     * Повертає позицiю пiсля першого символу '\n', що знаходиться не ранiше {@code position}.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int bytesRead = channel.read(probe, position);
+            if (bytesRead <= 0) {
+                break;
+            }
+            for (int i = 0; i < bytesRead; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += bytesRead;
+        }
+        return size;
+    }
+
+    /**
+     * Розбирає рядки однiєї частини файлу, вiдображеної в пам'ять, i за потреби обчислює її контрольну суму.
+     */
+    private static int parseChunk(FileChannel channel, long from, long to, LocalDateTime[][] parts, long[] checksums,
+            int part) throws IOException {
+        int length = (int) (to - from);
+        LocalDateTime[] values = new LocalDateTime[length / Utils.ESTIMATED_LINE_LENGTH + 1];
+        int count = 0;
+        if (length == 0) {
+            parts[part] = values;
+            return 0;
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        if (checksums != null) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            checksums[part] = crc.getValue();
+        }
+        byte[] line = new byte[64];
+        int lineLength = 0;
+        for (int i = 0; i <= length; i++) {
+            byte b = i < length ? buffer.get(i) : (byte) '\n';
+            if (b == '\n') {
+                if (lineLength > 0) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, Utils.grow(count));
+                    }
+                    values[count++] = DateTimeParser.parse(line, 0, lineLength);
+                    lineLength = 0;
+                }
+            } else if (b != '\r') {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = b;
+            }
+        }
+        parts[part] = values;
+        return count;
+    }
+
+    /**
+     * Поєднує контрольнi суми CRC32C двох послiдовних частин у суму їх з'єднання (як crc32_combine у zlib):
+     * суму першої частини зсувають на довжину другої множенням на матрицю оператора "дописати нульовий байт"
+     * над GF(2), пiднесену до потрiбного степеня повторним пiднесенням до квадрата.
+     * 
+     * @param first Контрольна сума першої частини.
+     * @param second Контрольна сума другої частини.
+     * @param secondLength Довжина другої частини в байтах.
+     * @return Контрольна сума з'єднання частин.
+     */
+    static long combineChecksums(long first, long second, long secondLength) {
+        if (secondLength <= 0) {
+            return first;
+        }
+
+        long[] even = new long[Integer.SIZE];
+        long[] odd = new long[Integer.SIZE];
+
+        // оператор для одного нульового бiта
+        odd[0] = CRC32C_POLYNOMIAL;
+        long row = 1;
+        for (int n = 1; n < Integer.SIZE; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // оператори для двох i чотирьох нульових бiт
+        squareMatrix(even, odd);
+        squareMatrix(odd, even);
+
+        // кожна iтерацiя пiдносить оператор до квадрата (вiсiм, шiстнадцять... нульових бiт) i застосовує його
+        // для одиничних бiт довжини
+        do {
+            squareMatrix(even, odd);
+            if ((secondLength & 1) != 0) {
+                first = multiplyMatrix(even, first);
+            }
+            secondLength >>= 1;
+            if (secondLength == 0) {
+                break;
+            }
+            squareMatrix(odd, even);
+            if ((secondLength & 1) != 0) {
+                first = multiplyMatrix(odd, first);
+            }
+            secondLength >>= 1;
+        } while (secondLength != 0);
+
+        return first ^ second;
+    }
+
+    private static long multiplyMatrix(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void squareMatrix(long[] square, long[] matrix) {
+        for (int n = 0; n < Integer.SIZE; n++) {
+            square[n] = multiplyMatrix(matrix, matrix[n]);
+        }
+    }
+
+    /**
+     * Задача ForkJoin, що дiлить дiапазон частин файлу навпiл, доки не залишиться одна частина.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final LocalDateTime[][] parts;
+        private final int[] counts;
+        private final long[] checksums;
+        private final int from;
+        private final int to;
+
+        ChunkTask(FileChannel channel, long[] bounds, LocalDateTime[][] parts, int[] counts, long[] checksums,
+                int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.parts = parts;
+            this.counts = counts;
+            this.checksums = checksums;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    counts[from] = parseChunk(channel, bounds[from], bounds[to], parts, checksums, from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(channel, bounds, parts, counts, checksums, from, middle),
+                    new ChunkTask(channel, bounds, parts, counts, checksums, middle, to));
+        }
+    }
+}
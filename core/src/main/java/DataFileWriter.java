@@ -0,0 +1,272 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Клас DataFileWriter записує значення дати i часу у файл з даними без створення промiжних об'єктiв.
+ * 
+ * <p>Значення форматуються в текст {@link LocalDateTime#toString()} безпосередньо у буфер байтiв, який
+ * записується через FileChannel, а з системною властивiстю {@value #COMPRESSION_PROPERTY}={@code gzip} -
+ * через GZIPOutputStream у файл з розширенням ".gz". Данi спочатку записуються в тимчасовий файл, який
+ * лише в {@link #commit()} атомарно перейменовується, тому читачi нiколи не бачать частково записаного файлу.
+ * Якщо {@link #close()} викликано без {@link #commit()}, тимчасовий файл видаляється.</p>
+ */
+class DataFileWriter implements Closeable {
+    static final String COMPRESSION_PROPERTY = "output.compression";
+    static final String GZIP_COMPRESSION = "gzip";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Максимальна довжина рядка yyyy-MM-ddTHH:mm:ss.nnnnnnnnn разом iз символами нового рядка.
+     */
+    private static final int MAX_LINE_LENGTH = 29 + LINE_SEPARATOR.length;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_400_YEARS = 146_097;
+
+    private final Path path;
+    private final Path tempPath;
+    private final FileChannel channel;
+    private final GZIPOutputStream compressor;
+    private final byte[] buffer = new byte[Utils.READ_BUFFER_SIZE];
+    private final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    private int position;
+    private long lineCount;
+    private long byteCount;
+    private boolean committed;
+
+    /**
+     * Вiдкриває тимчасовий файл для запису.
+     * 
+     * @param pathToFile Шлях до файлу для запису (з властивiстю стиснення до нього додається ".gz").
+     * @throws IOException Якщо файл не вдалося створити.
+     */
+    DataFileWriter(String pathToFile) throws IOException {
+        this(pathToFile, GZIP_COMPRESSION.equals(System.getProperty(COMPRESSION_PROPERTY)));
+    }
+
+    /**
+     * Вiдкриває тимчасовий файл для запису незалежно вiд системної властивостi стиснення.
+     * 
+     * @param pathToFile Шлях до файлу для запису.
+     * @param gzip Чи стискати файл (тодi до шляху додається ".gz").
+     * @throws IOException Якщо файл не вдалося створити.
+     */
+    DataFileWriter(String pathToFile, boolean gzip) throws IOException {
+        path = Path.of(gzip ? pathToFile + ".gz" : pathToFile);
+        tempPath = Path.of(path + TEMP_FILE_SUFFIX);
+        channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            compressor = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), Utils.READ_BUFFER_SIZE) : null;
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Записує рядок зi значенням дати i часу.
+     * 
+     * @param value Значення дати i часу.
+     * @throws IOException Якщо виникла помилка запису.
+     */
+    void write(LocalDateTime value) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            writeLine(value.toString());
+            return;
+        }
+        ensureCapacity(MAX_LINE_LENGTH);
+        writeFields(year, value.getMonthValue(), value.getDayOfMonth(),
+                value.getHour(), value.getMinute(), value.getSecond(), value.getNano());
+    }
+
+    /**
+     * Записує рядок зi значенням дати i часу, заданим секундами вiд початку епохи (UTC) i наносекундами.
+     * 
+     * @param epochSecond Кiлькiсть секунд вiд 1970-01-01T00:00:00.
+     * @param nano Кiлькiсть наносекунд у межах секунди.
+     * @throws IOException Якщо виникла помилка запису.
+     */
+    void write(long epochSecond, int nano) throws IOException {
+        long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // перетворення кiлькостi днiв на дату за 400-рiчними циклами, рiк починається з 1 березня
+        long shiftedDays = days + DAYS_0000_TO_1970;
+        long cycle = Math.floorDiv(shiftedDays, DAYS_PER_400_YEARS);
+        int dayOfCycle = (int) (shiftedDays - cycle * DAYS_PER_400_YEARS);
+        int yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524 - dayOfCycle / 146096) / 365;
+        int dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = cycle * 400 + yearOfCycle + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            writeLine(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC).toString());
+            return;
+        }
+        ensureCapacity(MAX_LINE_LENGTH);
+        writeFields((int) year, month, day, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, nano);
+    }
+
+    /**
+     * Записує довiльний рядок у кодуваннi UTF-8.
+     * 
+     * @param line Рядок без символу нового рядка.
+     * @throws IOException Якщо виникла помилка запису.
+     */
+    void writeLine(String line) throws IOException {
+        int length = line.length();
+        if (length + LINE_SEPARATOR.length <= buffer.length) {
+            ensureCapacity(length + LINE_SEPARATOR.length);
+            int start = position;
+            int i = 0;
+            while (i < length && line.charAt(i) < 0x80) {
+                buffer[start + i] = (byte) line.charAt(i);
+                i++;
+            }
+            if (i == length) {
+                position = start + length;
+                writeLineSeparator();
+                return;
+            }
+        }
+
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; ) {
+            ensureCapacity(1);
+            int chunk = Math.min(bytes.length - offset, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+        }
+        ensureCapacity(LINE_SEPARATOR.length);
+        writeLineSeparator();
+    }
+
+    /**
+     * Дописує залишок буфера, завершує стиснення та атомарно перейменовує тимчасовий файл.
+     * 
+     * @throws IOException Якщо виникла помилка запису або перейменування.
+     */
+    void commit() throws IOException {
+        flush();
+        if (compressor != null) {
+            compressor.close();
+        } else {
+            channel.close();
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    /**
+     * Повертає кiлькiсть записаних рядкiв.
+     */
+    long lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Повертає кiлькiсть записаних байтiв тексту (до стиснення).
+     */
+    long byteCount() {
+        return byteCount + position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed) {
+            return;
+        }
+        try {
+            if (compressor != null) {
+                compressor.close();
+            } else {
+                channel.close();
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private void writeFields(int year, int month, int day, int hour, int minute, int second, int nano) {
+        int p = digits(year, 4, position);
+        buffer[p++] = '-';
+        p = digits(month, 2, p);
+        buffer[p++] = '-';
+        p = digits(day, 2, p);
+        buffer[p++] = 'T';
+        p = digits(hour, 2, p);
+        buffer[p++] = ':';
+        p = digits(minute, 2, p);
+        // як i LocalTime.toString(): нульовi секунди пропускаються, дробова частина - 3, 6 або 9 цифр
+        if (second > 0 || nano > 0) {
+            buffer[p++] = ':';
+            p = digits(second, 2, p);
+            if (nano > 0) {
+                buffer[p++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    p = digits(nano / 1_000_000, 3, p);
+                } else if (nano % 1000 == 0) {
+                    p = digits(nano / 1000, 6, p);
+                } else {
+                    p = digits(nano, 9, p);
+                }
+            }
+        }
+        position = p;
+        writeLineSeparator();
+    }
+
+    private int digits(int value, int width, int offset) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + width;
+    }
+
+    private void writeLineSeparator() {
+        for (byte b : LINE_SEPARATOR) {
+            buffer[position++] = b;
+        }
+        lineCount++;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (compressor != null) {
+            compressor.write(buffer, 0, position);
+        } else {
+            byteBuffer.clear().limit(position);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+        }
+        byteCount += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,227 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32C;
+
+/**
+ * Клас DataLineReader зчитує файл з даними через FileChannel з великим прямим буфером
+ * i видiляє з нього рядки без створення промiжних об'єктiв.
+ * 
+ * <p>Порожнi рядки та символи '\r' пропускаються.</p>
+ */
+class DataLineReader implements Closeable {
+    /**
+     * Орiєнтовна кiлькiсть рядкiв для каналiв невiдомого розмiру (наприклад, стандартного вводу).
+     */
+    private static final int DEFAULT_LINE_COUNT = 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+    private byte[] line = new byte[64];
+    private int lineLength;
+    private CRC32C checksum;
+    private long bytesRead;
+
+    /**
+     * Вiдкриває файл з даними для читання.
+     * 
+     * @param pathToFile Шлях до файлу з даними.
+     * @throws IOException Якщо файл не вдалося вiдкрити.
+     */
+    DataLineReader(String pathToFile) throws IOException {
+        this(FileChannel.open(Path.of(pathToFile), StandardOpenOption.READ));
+    }
+
+    /**
+     * Створює читач для довiльного каналу, наприклад {@code Channels.newChannel(System.in)}.
+     * 
+     * @param channel Канал, з якого зчитуються рядки.
+     */
+    DataLineReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * Вмикає обчислення контрольної суми CRC32C байтiв, якi буде зчитано з каналу пiсля виклику,
+     * для опису файлу з даними ({@link #stamp(long)}) без повторного читання файлу.
+     */
+    void computeChecksum() {
+        checksum = new CRC32C();
+        bytesRead = 0;
+    }
+
+    /**
+     * Повертає опис зчитаних байтiв: їх кiлькiсть i контрольну суму, обчисленi пiд час читання
+     * (потрiбен попереднiй виклик {@link #computeChecksum()}).
+     * 
+     * @param modified Час змiни файлу (мс), отриманий до початку читання.
+     * @return Опис файлу з даними.
+     */
+    SortedIndex.DataStamp stamp(long modified) {
+        return new SortedIndex.DataStamp(bytesRead, modified, checksum.getValue());
+    }
+
+    /**
+     * Оцiнює кiлькiсть рядкiв, що залишилися, за кiлькiстю ще не прочитаних байтiв файлу
+     * (вiд поточної позицiї каналу, а не вiд початку файлу).
+     * 
+     * @return Орiєнтовна кiлькiсть рядкiв.
+     * @throws IOException Якщо не вдалося отримати розмiр файлу.
+     */
+    int estimateLineCount() throws IOException {
+        if (!(channel instanceof FileChannel)) {
+            return DEFAULT_LINE_COUNT;
+        }
+        FileChannel fileChannel = (FileChannel) channel;
+        long remaining = Math.max(0, fileChannel.size() - fileChannel.position()) + buffer.remaining();
+        return (int) Math.min(Utils.MAX_ARRAY_LENGTH, remaining / Utils.ESTIMATED_LINE_LENGTH + 1);
+    }
+
+    /**
+     * Переходить до наступного непорожнього рядка файлу.
+     * 
+     * @return true, якщо рядок зчитано, false - якщо досягнуто кiнця файлу.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    boolean nextLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining() && !fillBuffer()) {
+                return lineLength > 0;
+            }
+
+            byte b = buffer.get();
+            if (b == '\n') {
+                if (lineLength > 0) {
+                    return true;
+                }
+            } else if (b != '\r') {
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[lineLength++] = b;
+            }
+        }
+    }
+
+    /**
+     * Повертає буфер з байтами поточного рядка. Вмiст буфера змiнюється пiд час читання наступного рядка.
+     * 
+     * @return Буфер з байтами поточного рядка.
+     */
+    byte[] line() {
+        return line;
+    }
+
+    /**
+     * Повертає довжину поточного рядка в байтах.
+     * 
+     * @return Довжина поточного рядка.
+     */
+    int lineLength() {
+        return lineLength;
+    }
+
+    /**
+     * Перетворює поточний рядок на об'єкт LocalDateTime.
+     * 
+     * @return Об'єкт LocalDateTime.
+     */
+    LocalDateTime parseLine() {
+        return DateTimeParser.parse(line, 0, lineLength);
+    }
+
+    /**
+     * Перетворює поточний рядок на кiлькiсть секунд вiд початку епохи без створення об'єктiв.
+     * 
+     * @return Кiлькiсть секунд вiд 1970-01-01T00:00:00.
+     */
+    long parseLineEpochSecond() {
+        return DateTimeParser.parseEpochSecond(line, 0, lineLength);
+    }
+
+    /**
+     * Повертає наносекунди поточного рядка (0 для рядкiв без дробової частини секунд).
+     * 
+     * @return Кiлькiсть наносекунд у межах секунди.
+     */
+    int parseLineNano() {
+        return DateTimeParser.parseNano(line, 0, lineLength);
+    }
+
+    /**
+     * Повертає iтератор, який послiдовно зчитує рядки файлу.
+     * 
+     * @return Iтератор об'єктiв LocalDateTime.
+     */
+    Iterator<LocalDateTime> iterator() {
+        return new Iterator<>() {
+            private boolean lineReady;
+
+            @Override
+            public boolean hasNext() {
+                if (!lineReady) {
+                    try {
+                        lineReady = nextLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return lineReady;
+            }
+
+            @Override
+            public LocalDateTime next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lineReady = false;
+                return parseLine();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Закриває файл, перетворюючи IOException на UncheckedIOException.
+     */
+    void closeUnchecked() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Заповнює буфер наступною порцiєю даних з файлу.
+     * 
+     * @return false, якщо досягнуто кiнця файлу.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    private boolean fillBuffer() throws IOException {
+        buffer.clear();
+        int count = channel.read(buffer);
+        buffer.flip();
+        if (checksum != null && count > 0) {
+            checksum.update(buffer);
+            buffer.rewind();
+            bytesRead += count;
+        }
+        return count > 0;
+    }
+}
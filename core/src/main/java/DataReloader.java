@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Клас DataReloader стежить за файлом з даними через WatchService i перебудовує знiмок даних у фоновому потоцi.
+ * 
+ * <p>Знiмок - незмiнна пiсля побудови структура (вiдсортований масив, множина, черга або цiлий об'єкт програми),
+ * яку будує переданий {@link Supplier}. Новий знiмок будується окремо вiд поточного i публiкується одним записом
+ * volatile-поля, тож читачi не блокуються i бачать або старий, або повнiстю побудований новий знiмок.</p>
+ * 
+ * <p>Стежити можна лише за каталогом, тому подiї iнших файлiв вiдкидаються. Файл перечитується, коли подiї
+ * перестають надходити протягом {@value #QUIET_PERIOD_MILLIS} мс (запис завершено) i змiнилися його розмiр
+ * або час змiни. Якщо файл не вдалося зчитати, залишається попереднiй знiмок.</p>
+ * 
+ * @param <T> Тип знiмка даних.
+ */
+class DataReloader<T> {
+    static final String WATCH_PROPERTY = "watch.reload";
+
+    /**
+     * Час без подiй, пiсля якого запис у файл вважається завершеним.
+     */
+    static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final Path dataFile;
+    private final Supplier<T> builder;
+    private volatile T snapshot;
+    private long loadedFileSize;
+    private FileTime loadedFileTime;
+
+    /**
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param builder Будує новий знiмок з файлу (викликається потоком перезавантаження).
+     */
+    DataReloader(String pathToDataFile, Supplier<T> builder) {
+        this.dataFile = Path.of(pathToDataFile).toAbsolutePath();
+        this.builder = builder;
+    }
+
+    /**
+     * Повертає поточний знiмок даних без блокування.
+     */
+    T snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Публiкує початковий знiмок i запускає фоновий потiк, що стежить за каталогом файлу з даними.
+     * 
+     * @param initial Знiмок, побудований з поточного вмiсту файлу.
+     */
+    void start(T initial) {
+        snapshot = initial;
+        try {
+            loadedFileSize = Files.size(dataFile);
+            loadedFileTime = Files.getLastModifiedTime(dataFile);
+
+            WatchService watchService = dataFile.getFileSystem().newWatchService();
+            dataFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            Thread watcher = new Thread(() -> watch(watchService), "data-reloader");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Чекає, доки буде опублiковано знiмок, вiдмiнний вiд переданого.
+     * 
+     * @param seen Знiмок, з яким уже працює викликач.
+     * @return Новий знiмок.
+     * @throws InterruptedException Якщо потiк перервано пiд час очiкування.
+     */
+    synchronized T awaitChange(T seen) throws InterruptedException {
+        while (snapshot == seen) {
+            wait();
+        }
+        return snapshot;
+    }
+
+    private void watch(WatchService watchService) {
+        try (watchService) {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isDataFileEvent(key);
+                boolean valid = key.reset();
+                while (valid && (key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= isDataFileEvent(key);
+                    valid = key.reset();
+                }
+                if (!valid) {
+                    System.out.println("Каталог " + dataFile.getParent() + " бiльше недоступний, перезавантаження даних зупинено.");
+                    return;
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isDataFileEvent(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || dataFile.getFileName().equals(event.context());
+        }
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            long fileSize = Files.size(dataFile);
+            FileTime fileTime = Files.getLastModifiedTime(dataFile);
+            if (fileSize == loadedFileSize && fileTime.equals(loadedFileTime)) {
+                return;
+            }
+            // файл, який не вдалося зчитати, перечитується лише пiсля наступної змiни
+            loadedFileSize = fileSize;
+            loadedFileTime = fileTime;
+
+            T next = builder.get();
+            System.out.println("Файл з даними змiнився, знiмок даних оновлено.");
+
+            synchronized (this) {
+                snapshot = next;
+                notifyAll();
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
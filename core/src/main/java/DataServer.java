@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Клас DataServer тримає вiдсортованi данi в пам'ятi та вiдповiдає на запити пошуку, дiапазону
+ * i мiнiмуму з максимумом через локальний сокет.
+ * 
+ * <p>Данi зчитуються i сортуються один раз пiд час запуску, тож запит не платить за запуск JVM, розбiр
+ * файлу i сортування. Кожне з'єднання обслуговує окремий потiк; запити i вiдповiдi - кадри двiйкового
+ * протоколу (big-endian), значення дати i часу передаються як секунди вiд початку епохи (long) i наносекунди
+ * (int). Клiєнт може надсилати кiлька запитiв не чекаючи вiдповiдей: усi повнi кадри з буфера обробляються
+ * разом, а вiдповiдi записуються в сокет одним викликом.</p>
+ * 
+ * <ul>
+ *   <li>{@code 1 <значення>} - пошук: {@code 0 <iндекс>}, де iндекс вiд'ємний ({@code -точка вставки - 1}), якщо значення не знайдено.</li>
+ *   <li>{@code 2 <вiд> <до> <лiмiт int>} - дiапазон: {@code 0 <кiлькiсть long> <n int> <n значень>}, не бiльше {@value #MAX_RANGE_VALUES} значень.</li>
+ *   <li>{@code 3} - мiнiмум i максимум: {@code 0 <кiлькiсть long> [<мiнiмум> <максимум>]}.</li>
+ * </ul>
+ * 
+ * <p>На некоректне значення сервер вiдповiдає {@value #STATUS_ERROR}, на невiдомий код запиту - також
+ * {@value #STATUS_ERROR} i закриває з'єднання. Змiнений файл з даними перечитує {@link DataReloader}
+ * у фоновому потоцi, тож запити не блокуються i не бачать частково побудованих даних.</p>
+ */
+class DataServer {
+    static final String SERVER_PROPERTY = "server.address";
+    static final String UNIX_ADDRESS_PREFIX = "unix:";
+
+    static final byte OP_SEARCH = 1;
+    static final byte OP_RANGE = 2;
+    static final byte OP_MIN_MAX = 3;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    /**
+     * Максимальна кiлькiсть значень у вiдповiдi на запит дiапазону.
+     */
+    static final int MAX_RANGE_VALUES = 4096;
+
+    private static final int VALUE_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int MAX_RESPONSE_BYTES = 1 + Long.BYTES + Integer.BYTES + MAX_RANGE_VALUES * VALUE_BYTES;
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    private final DataReloader<RangeQuery.SortedData> reloader;
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private DataServer(String pathToDataFile, Supplier<RangeQuery.SortedData> loader) {
+        this.reloader = new DataReloader<>(pathToDataFile, loader);
+    }
+
+    /**
+     * Повертає адресу сервера з системної властивостi {@value #SERVER_PROPERTY} або null.
+     */
+    static String configuredAddress() {
+        return System.getProperty(SERVER_PROPERTY);
+    }
+
+    /**
+     * Завантажує данi та обслуговує запити на адресi з системної властивостi {@value #SERVER_PROPERTY}:
+     * {@code unix:<шлях до сокета>} або {@code [<хост>:]<порт>} (за замовчуванням - localhost).
+     * Метод не повертається, доки процес не буде зупинено.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними, змiни якого вiдстежуються.
+     * @param loader Зчитує та сортує данi з файлу.
+     */
+    static void serve(String pathToDataFile, Supplier<RangeQuery.SortedData> loader) {
+        DataServer server = new DataServer(pathToDataFile, loader);
+        server.reloader.start(loader.get());
+
+        String address = configuredAddress();
+        try (ServerSocketChannel serverChannel = open(address)) {
+            boolean tcp = !address.startsWith(UNIX_ADDRESS_PREFIX);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.shutdown(address)));
+
+            ExecutorService connections = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "data-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            System.out.println("Сервер очiкує запити на " + serverChannel.getLocalAddress()
+                    + ", значень: " + server.reloader.snapshot().size());
+
+            while (true) {
+                SocketChannel channel = serverChannel.accept();
+                if (tcp) {
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                connections.execute(() -> server.handle(channel));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static ServerSocketChannel open(String address) throws IOException {
+        if (address.startsWith(UNIX_ADDRESS_PREFIX)) {
+            Path socketPath = Path.of(address.substring(UNIX_ADDRESS_PREFIX.length()));
+            Files.deleteIfExists(socketPath);
+            return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(socketPath));
+        }
+
+        int separator = address.lastIndexOf(':');
+        String host = separator < 0 ? "localhost" : address.substring(0, separator);
+        int port = Integer.parseInt(address.substring(separator + 1).trim());
+        return ServerSocketChannel.open().bind(new InetSocketAddress(host, port));
+    }
+
+    private void handle(SocketChannel channel) {
+        LatencyHistogram connectionLatency = new LatencyHistogram();
+        ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (channel) {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.hasRemaining() && in.remaining() >= requestLength(in.get(in.position()))) {
+                    if (out.remaining() < MAX_RESPONSE_BYTES) {
+                        flush(channel, out);
+                    }
+                    long startTime = System.nanoTime();
+                    boolean known = process(in, out, reloader.snapshot());
+                    connectionLatency.record(System.nanoTime() - startTime);
+                    if (!known) {
+                        flush(channel, out);
+                        return;
+                    }
+                }
+                in.compact();
+                flush(channel, out);
+            }
+        } catch (IOException e) {
+            // клiєнт розiрвав з'єднання
+        } finally {
+            synchronized (latency) {
+                latency.add(connectionLatency);
+            }
+        }
+    }
+
+    private static int requestLength(byte operation) {
+        switch (operation) {
+            case OP_SEARCH:
+                return 1 + VALUE_BYTES;
+            case OP_RANGE:
+                return 1 + 2 * VALUE_BYTES + Integer.BYTES;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Обробляє один кадр запиту i записує вiдповiдь.
+     * 
+     * @return false, якщо код запиту невiдомий i з'єднання треба закрити.
+     */
+    private static boolean process(ByteBuffer in, ByteBuffer out, RangeQuery.SortedData data) {
+        int start = in.position();
+        byte operation = in.get();
+        try {
+            switch (operation) {
+                case OP_SEARCH: {
+                    LocalDateTime value = readValue(in);
+                    long index = RangeQuery.lowerBound(data, value);
+                    boolean found = index < data.size() && data.compare(index, value) == 0;
+                    out.put(STATUS_OK).putLong(found ? index : -index - 1);
+                    return true;
+                }
+                case OP_RANGE: {
+                    LocalDateTime from = readValue(in);
+                    LocalDateTime to = readValue(in);
+                    int limit = Math.max(0, Math.min(in.getInt(), MAX_RANGE_VALUES));
+                    long first = RangeQuery.lowerBound(data, from);
+                    long end = Math.max(first, RangeQuery.upperBound(data, to));
+                    int returned = (int) Math.min(end - first, limit);
+                    out.put(STATUS_OK).putLong(end - first).putInt(returned);
+                    for (int i = 0; i < returned; i++) {
+                        writeValue(out, data.get(first + i));
+                    }
+                    return true;
+                }
+                case OP_MIN_MAX: {
+                    long size = data.size();
+                    out.put(STATUS_OK).putLong(size);
+                    if (size > 0) {
+                        writeValue(out, data.get(0));
+                        writeValue(out, data.get(size - 1));
+                    }
+                    return true;
+                }
+                default:
+                    out.put(STATUS_ERROR);
+                    return false;
+            }
+        } catch (DateTimeException e) {
+            in.position(start + requestLength(operation));
+            out.put(STATUS_ERROR);
+            return true;
+        }
+    }
+
+    private static LocalDateTime readValue(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeValue(ByteBuffer out, LocalDateTime value) {
+        out.putLong(value.toEpochSecond(ZoneOffset.UTC)).putInt(value.getNano());
+    }
+
+    private static void flush(SocketChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void shutdown(String address) {
+        if (address.startsWith(UNIX_ADDRESS_PREFIX)) {
+            try {
+                Files.deleteIfExists(Path.of(address.substring(UNIX_ADDRESS_PREFIX.length())));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        synchronized (latency) {
+            System.out.println("Оброблено запитiв: " + latency.count() + ", затримка обробки: p50 " + latency.percentile(0.5)
+                    + " нс, p99 " + latency.percentile(0.99) + " нс, максимум " + latency.max() + " нс");
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Клас DataStatistics за один прохiд обчислює мiнiмум, максимум, кiлькiсть елементiв
+ * та оцiнку кiлькостi унiкальних значень.
+ * 
+ * <p>Для вiдсортованих масивiв i спискiв прохiд не виконується: мiнiмум i максимум - це перший та
+ * останнiй елементи. Для PriorityQueue мiнiмум береться з голови черги, а максимум шукається лише серед
+ * листкiв купи. Великi масиви обробляються паралельно через ForkJoinPool.</p>
+ * 
+ * <p>Кiлькiсть унiкальних значень оцiнюється скетчем {@link HyperLogLog}, скетчi частин масиву
+ * об'єднуються пiсля паралельного проходу; якщо прохiд не виконувався, оцiнка дорiвнює -1.</p>
+ * 
+ * @param <T> Тип значень.
+ */
+class DataStatistics<T extends Comparable<? super T>> {
+    /**
+     * Мiнiмальний розмiр масиву, для якого обчислення розподiляється мiж потоками.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    static final long NOT_ESTIMATED = -1;
+
+    final long count;
+    final T min;
+    final T max;
+    final long distinctEstimate;
+
+    private DataStatistics(long count, T min, T max, long distinctEstimate) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.distinctEstimate = distinctEstimate;
+    }
+
+    /**
+     * Обчислює статистику масиву.
+     * 
+     * @param array Масив значень (непорожнiй).
+     * @param sorted Чи вiдсортований масив за зростанням.
+     * @param key Функцiя, що повертає ключ значення для оцiнки кiлькостi унiкальних значень.
+     * @return Статистика масиву.
+     */
+    static <T extends Comparable<? super T>> DataStatistics<T> ofArray(T[] array, boolean sorted, ToLongFunction<? super T> key) {
+        if (sorted) {
+            return new DataStatistics<>(array.length, array[0], array[array.length - 1], NOT_ESTIMATED);
+        }
+        if (array.length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return ForkJoinPool.commonPool().invoke(new ScanTask<>(array, 0, array.length, key)).toStatistics();
+        }
+        return Accumulator.scan(array, 0, array.length, key).toStatistics();
+    }
+
+    /**
+     * Обчислює статистику списку.
+     * 
+     * @param list Список значень (непорожнiй).
+     * @param sorted Чи вiдсортований список за зростанням.
+     * @param key Функцiя, що повертає ключ значення для оцiнки кiлькостi унiкальних значень.
+     * @return Статистика списку.
+     */
+    static <T extends Comparable<? super T>> DataStatistics<T> ofList(List<T> list, boolean sorted, ToLongFunction<? super T> key) {
+        if (sorted) {
+            return new DataStatistics<>(list.size(), list.get(0), list.get(list.size() - 1), NOT_ESTIMATED);
+        }
+        Accumulator<T> accumulator = new Accumulator<T>(key);
+        for (T value : list) {
+            accumulator.add(value);
+        }
+        return accumulator.toStatistics();
+    }
+
+    /**
+     * Обчислює статистику потоку значень за один послiдовний прохiд, не зберiгаючи значень у пам'ятi.
+     * 
+     * @param stream Потiк значень.
+     * @param key Функцiя, що повертає ключ значення для оцiнки кiлькостi унiкальних значень.
+     * @return Статистика потоку (мiнiмум i максимум - null, якщо потiк порожнiй).
+     */
+    static <T extends Comparable<? super T>> DataStatistics<T> ofStream(Stream<T> stream, ToLongFunction<? super T> key) {
+        Accumulator<T> accumulator = new Accumulator<T>(key);
+        stream.forEachOrdered(accumulator::add);
+        return accumulator.toStatistics();
+    }
+
+    /**
+     * Обчислює статистику множини. Кiлькiсть унiкальних значень дорiвнює розмiру множини.
+     * 
+     * @param set Множина значень (непорожня).
+     * @return Статистика множини.
+     */
+    static <T extends Comparable<? super T>> DataStatistics<T> ofSet(Set<T> set) {
+        Iterator<T> iterator = set.iterator();
+        T min = iterator.next();
+        T max = min;
+        while (iterator.hasNext()) {
+            T value = iterator.next();
+            if (value.compareTo(min) < 0) {
+                min = value;
+            } else if (value.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+        return new DataStatistics<>(set.size(), min, max, set.size());
+    }
+
+    /**
+     * Обчислює статистику черги з прiоритетом з природним порядком.
+     * 
+     * <p>Мiнiмум - голова черги. Iтератор PriorityQueue обходить внутрiшнiй масив купи по порядку,
+     * тому максимум шукається лише серед останнiх {@code (n + 1) / 2} елементiв - листкiв купи.</p>
+     * 
+     * @param queue Черга значень (непорожня).
+     * @return Статистика черги.
+     */
+    static <T extends Comparable<? super T>> DataStatistics<T> ofPriorityQueue(PriorityQueue<T> queue) {
+        T min = queue.peek();
+        if (queue.comparator() != null) {
+            return ofCollection(queue, min);
+        }
+
+        int firstLeaf = queue.size() / 2;
+        Iterator<T> iterator = queue.iterator();
+        for (int i = 0; i < firstLeaf; i++) {
+            iterator.next();
+        }
+        T max = iterator.next();
+        while (iterator.hasNext()) {
+            T value = iterator.next();
+            if (value.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+        return new DataStatistics<>(queue.size(), min, max, NOT_ESTIMATED);
+    }
+
+    private static <T extends Comparable<? super T>> DataStatistics<T> ofCollection(Collection<T> collection, T min) {
+        T max = min;
+        for (T value : collection) {
+            if (value.compareTo(max) > 0) {
+                max = value;
+            }
+        }
+        return new DataStatistics<>(collection.size(), min, max, NOT_ESTIMATED);
+    }
+
+    /**
+     * Ключ дати i часу для оцiнки кiлькостi унiкальних значень.
+     * 
+     * @param dateTime Дата i час.
+     * @return Ключ, однаковий для рiвних значень.
+     */
+    static long dateTimeKey(LocalDateTime dateTime) {
+        return dateTimeKey(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    /**
+     * Ключ дати i часу, заданої секундами вiд початку епохи та наносекундами.
+     * 
+     * @param epochSecond Секунди вiд початку епохи (UTC).
+     * @param nano Наносекунди.
+     * @return Ключ, однаковий для рiвних значень.
+     */
+    static long dateTimeKey(long epochSecond, int nano) {
+        return epochSecond * 1_000_000_000L + nano;
+    }
+
+    /**
+     * Виводить мiнiмум, максимум, дiапазон та, якщо вона обчислювалась, оцiнку кiлькостi унiкальних значень.
+     * 
+     * @param container Назва контейнера для виведення (наприклад, "масивi").
+     * @param range Дiапазон значень (рiзниця мiж максимумом i мiнiмумом) або null, якщо вiн не має сенсу для типу.
+     */
+    void print(String container, Object range) {
+        System.out.println("Мiнiмальне значення в " + container + ": " + min);
+        System.out.println("Максимальне значення в " + container + ": " + max);
+        if (range != null) {
+            System.out.println("Дiапазон значень в " + container + ": " + range);
+        }
+        if (distinctEstimate != NOT_ESTIMATED) {
+            System.out.println("Кiлькiсть унiкальних значень в " + container + ": ~" + distinctEstimate + " з " + count);
+        }
+    }
+
+    /**
+     * Накопичує мiнiмум, максимум, кiлькiсть та скетч унiкальних значень.
+     */
+    private static final class Accumulator<T extends Comparable<? super T>> {
+        private final ToLongFunction<? super T> key;
+        private final HyperLogLog distinct = new HyperLogLog();
+        private long count;
+        private T min;
+        private T max;
+
+        Accumulator(ToLongFunction<? super T> key) {
+            this.key = key;
+        }
+
+        static <T extends Comparable<? super T>> Accumulator<T> scan(T[] array, int from, int to, ToLongFunction<? super T> key) {
+            Accumulator<T> accumulator = new Accumulator<T>(key);
+            for (int i = from; i < to; i++) {
+                accumulator.add(array[i]);
+            }
+            return accumulator;
+        }
+
+        void add(T value) {
+            if (count++ == 0) {
+                min = value;
+                max = value;
+            } else if (value.compareTo(min) < 0) {
+                min = value;
+            } else if (value.compareTo(max) > 0) {
+                max = value;
+            }
+            distinct.add(key.applyAsLong(value));
+        }
+
+        Accumulator<T> merge(Accumulator<T> other) {
+            if (other.count == 0) {
+                return this;
+            }
+            if (count == 0 || other.min.compareTo(min) < 0) {
+                min = other.min;
+            }
+            if (count == 0 || other.max.compareTo(max) > 0) {
+                max = other.max;
+            }
+            count += other.count;
+            distinct.merge(other.distinct);
+            return this;
+        }
+
+        DataStatistics<T> toStatistics() {
+            return new DataStatistics<>(count, min, max, distinct.estimate());
+        }
+    }
+
+    /**
+     * Задача ForkJoin, що дiлить масив навпiл, доки частина не стане меншою за порiг.
+     */
+    private static final class ScanTask<T extends Comparable<? super T>> extends RecursiveTask<Accumulator<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] array;
+        private final int from;
+        private final int to;
+        private final ToLongFunction<? super T> key;
+
+        ScanTask(T[] array, int from, int to, ToLongFunction<? super T> key) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.key = key;
+        }
+
+        @Override
+        protected Accumulator<T> compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return Accumulator.scan(array, from, to, key);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<T> left = new ScanTask<>(array, from, middle, key);
+            left.fork();
+            Accumulator<T> right = new ScanTask<>(array, middle, to, key).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Клас DateTimeDataset - спiльний для програм конвеєр обробки масиву дати i часу з файлу з даними.
+ * 
+ * <p>Клас обирає джерело даних за системними властивостями (потокова обробка файлу, злиття з файлом .sorted,
+ * зовнiшнє сортування, збережений iндекс або зчитування файлу в пам'ять), виконує операцiї з масивом
+ * i iндексом (сортування, пошук, мiнiмум i максимум, запити за дiапазоном, агрегацiю) та записує
+ * файл .sorted, iндекс i фiльтр Блума. Програми додають до нього лише операцiї зi своєю структурою даних
+ * (списком, множиною, чергою).</p>
+ * 
+ * <p>Змiннi екземпляра:</p>
+ * <ul>
+ *   <li>{@link #dateTimeValueToSearch} - Значення LocalDateTime для пошуку.</li>
+ *   <li>{@link #streamed} - Чи обробляється файл з даними потоком без зчитування в пам'ять.</li>
+ *   <li>{@link #dateTimeArray} - Масив LocalDateTime.</li>
+ *   <li>{@link #arraySorted} - Чи вiдсортований масив (тодi мiнiмум i максимум беруться з краю).</li>
+ *   <li>{@link #sortedArrayWithDuplicates} - Вiдсортований масив з повторами, якщо пошук виконується в масивi без повторiв.</li>
+ *   <li>{@link #batchKeys} - Вiдсортованi ключi для пакетного пошуку.</li>
+ *   <li>{@link #sortedIndex} - Двiйковий iндекс, вiдображений в пам'ять (у режимi пошуку в iндексi).</li>
+ *   <li>{@link #timeBuckets} - Кiлькостi значень по годинах, днях i мiсяцях (у режимi агрегацiї).</li>
+ *   <li>{@link #bloomFilter} - Фiльтр Блума, що вiдсiкає пошук вiдсутнiх значень (у режимi фiльтра).</li>
+ *   <li>{@link #keySearch} - Iнтерполяцiйний пошук або навчений iндекс за секундами вiд початку епохи (якщо обрано методом пошуку).</li>
+ *   <li>{@link #dataStamp} - Розмiр, час змiни i контрольна сума файлу з даними, знятi пiд час зчитування масиву.</li>
+ * </ul>
+ */
+class DateTimeDataset {
+    static final String STREAM_READ_PROPERTY = "read.stream";
+
+    final String pathToDataFile;
+    LocalDateTime dateTimeValueToSearch;
+    boolean streamed;
+    LocalDateTime[] dateTimeArray;
+    boolean arraySorted;
+    LocalDateTime[] sortedArrayWithDuplicates;
+    LocalDateTime[] batchKeys;
+    SortedIndex sortedIndex;
+    TimeBuckets timeBuckets;
+    BloomFilter bloomFilter;
+    EpochKeySearch keySearch;
+    SortedIndex.DataStamp dataStamp;
+
+    /**
+     * Створює набiр даних зi значенням для пошуку з аргументiв командного рядка
+     * або з ключами пакетного пошуку, заданими системною властивiстю {@value BatchLookup#SEARCH_BATCH_PROPERTY}.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param args Аргументи командного рядка, де перший аргумент - значення для пошуку
+     *             (у пакетному режимi не використовується).
+     */
+    DateTimeDataset(String pathToDataFile, String[] args) {
+        this.pathToDataFile = pathToDataFile;
+
+        String batchSource = BatchLookup.configuredSource();
+        if (args.length == 0 && batchSource == null) {
+            throw new RuntimeException("Вiдсутнє значення для пошуку");
+        }
+
+        if (batchSource != null) {
+            long startTime = Utils.startOperation();
+
+            batchKeys = BatchLookup.readSortedKeys(batchSource);
+
+            Utils.printOperationThroughput(startTime, "зчитування та сортування ключiв пакетного пошуку", batchKeys.length);
+        } else {
+            String valueToSearch = args[0];
+            dateTimeValueToSearch = LocalDateTime.parse(valueToSearch, DateTimeFormatter.ISO_DATE_TIME);
+        }
+    }
+
+    /**
+     * Створює набiр даних знiмка для того самого значення для пошуку.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @param dateTimeValueToSearch Значення LocalDateTime для пошуку.
+     */
+    DateTimeDataset(String pathToDataFile, LocalDateTime dateTimeValueToSearch) {
+        this.pathToDataFile = pathToDataFile;
+        this.dateTimeValueToSearch = dateTimeValueToSearch;
+    }
+
+    /**
+     * Вiдкриває результати, збереженi попереднiми запусками, якщо їх увiмкнено системними властивостями:
+     * злиття дописаних рядкiв з файлом .sorted, зовнiшнє сортування або iндекс. Потокова обробка
+     * ({@value #STREAM_READ_PROPERTY}) не потребує нi збережених результатiв, нi зчитування файлу в пам'ять.
+     * У пакетному режимi данi завжди зчитуються з файлу.
+     * 
+     * @return true, якщо данi доступнi без зчитування файлу з даними в пам'ять.
+     */
+    boolean openStored() {
+        if (batchKeys != null) {
+            return false;
+        }
+
+        if (Boolean.getBoolean(STREAM_READ_PROPERTY)) {
+            streamed = true;
+            return true;
+        }
+
+        if (Boolean.getBoolean(IncrementalMerge.INCREMENTAL_SORT_PROPERTY)) {
+            long startTime = Utils.startOperation();
+
+            long appendedCount = IncrementalMerge.merge(pathToDataFile);
+
+            if (appendedCount != IncrementalMerge.NOT_MERGED) {
+                Utils.printOperationThroughput(startTime, "злиття нових рядкiв з вiдсортованим файлом", appendedCount);
+
+                sortedIndex = SortedIndex.open(pathToDataFile);
+                if (sortedIndex != null) {
+                    return true;
+                }
+            }
+            System.out.println("Вiдсортований файл або iндекс не вiдповiдає файлу з даними, буде виконано повне сортування.");
+        }
+
+        if (Boolean.getBoolean(ExternalSort.EXTERNAL_SORT_PROPERTY)) {
+            long startTime = Utils.startOperation();
+
+            long sortedCount = ExternalSort.sort(pathToDataFile);
+
+            if (sortedCount != ExternalSort.NOT_SORTED) {
+                Utils.printOperationThroughput(startTime, "зовнiшнє сортування файлу з даними", sortedCount);
+
+                sortedIndex = SortedIndex.open(pathToDataFile);
+                if (sortedIndex != null) {
+                    return true;
+                }
+            }
+            System.out.println("Зовнiшнє сортування не виконано, данi буде зчитано в пам'ять.");
+        }
+
+        if (Boolean.getBoolean(SortedIndex.INDEX_LOOKUP_PROPERTY)) {
+            long startTime = Utils.startOperation();
+
+            sortedIndex = SortedIndex.open(pathToDataFile);
+
+            if (sortedIndex != null) {
+                Utils.printOperationDuration(startTime, "вiдкриття iндексу дати i часу");
+                return true;
+            }
+            System.out.println("Iндекс вiдсутнiй або застарiв, данi буде зчитано з файлу.");
+        }
+
+        return false;
+    }
+
+    /**
+     * Виконує операцiї зi збереженими результатами або потоком рядкiв файлу: шукає значення,
+     * мiнiмум i максимум (та запити за дiапазоном в iндексi).
+     * 
+     * @return true, якщо результати було вiдкрито методом {@link #openStored()} i операцiї виконано.
+     */
+    boolean runStoredOperations() {
+        if (streamed) {
+            searchStream();
+            findMinAndMaxInStream();
+            return true;
+        }
+
+        if (sortedIndex != null) {
+            bloomFilter = BloomFilter.prepare(pathToDataFile, null);
+
+            searchIndex();
+            findMinAndMaxInIndex();
+            RangeQuery.run(sortedIndex, "iндексi", dateTimeValueToSearch);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Зчитує масив дати i часу з файлу разом з описом файлу для iндексу та готує фiльтр Блума (крiм пакетного режиму).
+     */
+    void readArray() {
+        long startTime = Utils.startOperation();
+
+        dateTimeArray = Utils.readArrayFromFile(pathToDataFile, stamp -> dataStamp = stamp);
+
+        Utils.printOperationThroughput(startTime, "зчитування масиву дати i часу з файлу", dateTimeArray.length);
+
+        if (batchKeys == null) {
+            bloomFilter = BloomFilter.prepare(pathToDataFile, dateTimeArray);
+        }
+    }
+
+    /**
+     * Виконує операцiї з масивом: пошук i мiнiмум та максимум до i пiсля сортування,
+     * запити за дiапазоном до вiдсортованого масиву та агрегацiю по годинах, днях i мiсяцях.
+     */
+    void runArrayOperations() {
+        searchArray();
+        findMinAndMaxInArray();
+
+        sortArray();
+
+        searchArray();
+        findMinAndMaxInArray();
+
+        // запити за дiапазоном до вiдсортованого масиву
+        RangeQuery.run(RangeQuery.SortedData.of(dateTimeArray), "масивi", dateTimeValueToSearch);
+
+        // агрегацiя по годинах, днях i мiсяцях
+        aggregateArray();
+    }
+
+    /**
+     * Записує вiдсортований масив у файл .sorted, двiйковий iндекс i фiльтр Блума.
+     * 
+     * <p>Файли описують увесь файл з даними, тому записується масив з повторами,
+     * навiть якщо пошук виконувався в масивi без повторiв.</p>
+     */
+    void writeSortedFiles() {
+        LocalDateTime[] sortedArray = sortedArray();
+
+        // записати вiдсортований масив в окремий файл
+        Utils.writeArrayToFile(sortedArray, pathToDataFile + ".sorted");
+
+        // записати двiйковий iндекс для пошуку без зчитування файлу з даними
+        SortedIndex.write(sortedArray, pathToDataFile, dataStamp);
+
+        // зберегти фiльтр Блума поруч з файлом .sorted
+        if (bloomFilter != null) {
+            bloomFilter.save(pathToDataFile, dataStamp);
+        }
+    }
+
+    /**
+     * Сортує масив об'єктiв LocalDateTime, за потреби видаляє повтори i готує обраний метод пошуку.
+     * Вимiрює та виводить час, витрачений на сортування масиву.
+     */
+    void sortArray() {
+        long startTime = Utils.startOperation();
+
+        SortEngine.Strategy strategy = SortEngine.sort(dateTimeArray);
+        arraySorted = true;
+
+        Utils.printOperationDuration(startTime, "сортування масиву дати i часу", strategy);
+
+        if (Boolean.getBoolean(SortEngine.DISTINCT_PROPERTY)) {
+            deduplicateArray();
+        }
+
+        keySearch = EpochKeySearch.prepare(dateTimeArray);
+    }
+
+    /**
+     * Видаляє повтори з копiї вiдсортованого масиву дати i часу за один лiнiйний прохiд без побудови множини.
+     * Масив з повторами зберiгається в {@link #sortedArrayWithDuplicates} для запису файлiв i агрегацiї.
+     */
+    void deduplicateArray() {
+        long startTime = Utils.startOperation();
+
+        int length = dateTimeArray.length;
+        LocalDateTime[] distinctArray = dateTimeArray.clone();
+        int distinctCount = SortEngine.deduplicate(distinctArray);
+        if (distinctCount < length) {
+            sortedArrayWithDuplicates = dateTimeArray;
+            dateTimeArray = Arrays.copyOf(distinctArray, distinctCount);
+        }
+
+        Utils.printOperationThroughput(startTime, "видалення повторiв з вiдсортованого масиву дати i часу", length);
+
+        System.out.println("Видалено повторiв: " + (length - distinctCount) + ", унiкальних значень: " + distinctCount);
+    }
+
+    /**
+     * Метод для пошуку значення в масивi дати i часу.
+     */
+    void searchArray() {
+        String operationName = keySearch != null
+                ? "пошук в масивi дати i часу (" + keySearch.method() + ")" : "пошук в масивi дати i часу";
+        long startTime = Utils.startOperation();
+
+        boolean passed = bloomFilter == null || bloomFilter.mightContain(dateTimeValueToSearch);
+        int index = -1;
+        if (passed) {
+            index = keySearch != null ? keySearch.search(dateTimeArray, dateTimeValueToSearch)
+                    : EpochKeySearch.binarySearch(dateTimeArray, dateTimeValueToSearch);
+        }
+
+        Utils.printOperationDuration(startTime, operationName);
+
+        if (bloomFilter != null) {
+            // у невiдсортованому масивi двiйковий пошук не доводить вiдсутностi значення
+            bloomFilter.recordLookup(passed, index >= 0 || !arraySorted);
+        }
+
+        if (index >= 0) {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в масивi за iндексом: " + index);
+        } else {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' в масивi не знайдено.");
+        }
+    }
+
+    /**
+     * Знаходить мiнiмальне та максимальне значення в масивi дати i часу.
+     */
+    void findMinAndMaxInArray() {
+        if (dateTimeArray == null || dateTimeArray.length == 0) {
+            System.out.println("Масив порожнiй або не iнiцiалiзований.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        DataStatistics<LocalDateTime> statistics = DataStatistics.ofArray(dateTimeArray, arraySorted, DataStatistics::dateTimeKey);
+
+        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в масивi");
+
+        statistics.print("масивi", Duration.between(statistics.min, statistics.max));
+    }
+
+    /**
+     * Обчислює кiлькостi значень масиву по годинах, днях i мiсяцях, зберiгає їх поруч з файлом .sorted
+     * та виводить кошики гранулярностi, заданої системною властивiстю {@value TimeBuckets#AGGREGATE_PROPERTY}.
+     * Якщо збереженi агрегати вiдповiдають файлу з даними, вони не обчислюються повторно.
+     */
+    void aggregateArray() {
+        TimeBuckets.Granularity granularity = TimeBuckets.configuredGranularity();
+        if (granularity == null) {
+            return;
+        }
+
+        if (!loadTimeBuckets()) {
+            long startTime = Utils.startOperation();
+
+            LocalDateTime[] array = sortedArray();
+            timeBuckets = TimeBuckets.ofArray(array, arraySorted);
+
+            Utils.printOperationThroughput(startTime, "агрегацiя масиву дати i часу по перiодах", array.length);
+
+            timeBuckets.save(pathToDataFile, dataStamp);
+        }
+        timeBuckets.print(granularity);
+    }
+
+    /**
+     * Зчитує агрегати, збереженi попереднiм запуском, якщо вони вiдповiдають файлу з даними.
+     * 
+     * @return true, якщо агрегати зчитано в {@link #timeBuckets}.
+     */
+    boolean loadTimeBuckets() {
+        long startTime = Utils.startOperation();
+
+        timeBuckets = TimeBuckets.load(pathToDataFile);
+
+        if (timeBuckets == null) {
+            return false;
+        }
+        Utils.printOperationDuration(startTime, "зчитування збережених агрегатiв дати i часу");
+        return true;
+    }
+
+    /**
+     * Повертає масив з усiма значеннями файлу з даними: масив з повторами, якщо їх видалено, або сам масив.
+     */
+    private LocalDateTime[] sortedArray() {
+        return sortedArrayWithDuplicates != null ? sortedArrayWithDuplicates : dateTimeArray;
+    }
+
+    /**
+     * Виконує пакетний пошук ключiв у вiдсортованому масивi дати i часу одним проходом.
+     */
+    void searchBatchInArray() {
+        long startTime = Utils.startOperation();
+
+        BatchLookup batchLookup = new BatchLookup();
+        batchLookup.sweep(batchKeys, dateTimeArray.length, (index, value) -> dateTimeArray[index].compareTo(value));
+
+        Utils.printOperationThroughput(startTime, "пакетний пошук в масивi дати i часу", batchKeys.length);
+
+        System.out.println("Знайдено значень: " + batchLookup.foundCount() + ", не знайдено: " + batchLookup.notFoundCount());
+    }
+
+    /**
+     * Метод для пошуку значення у двiйковому iндексi дати i часу, вiдображеному в пам'ять.
+     */
+    void searchIndex() {
+        long startTime = Utils.startOperation();
+
+        boolean passed = bloomFilter == null || bloomFilter.mightContain(dateTimeValueToSearch);
+        long index = passed ? sortedIndex.binarySearch(dateTimeValueToSearch) : -1;
+
+        Utils.printOperationDuration(startTime, "пошук в iндексi дати i часу");
+
+        if (bloomFilter != null) {
+            bloomFilter.recordLookup(passed, index >= 0);
+        }
+
+        if (index >= 0) {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено в iндексi на позицiї: " + index);
+        } else {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' в iндексi не знайдено.");
+        }
+    }
+
+    /**
+     * Виводить мiнiмальне та максимальне значення дати i часу, збереженi в заголовку iндексу.
+     */
+    void findMinAndMaxInIndex() {
+        if (sortedIndex.count() == 0) {
+            System.out.println("Iндекс порожнiй.");
+            return;
+        }
+
+        long startTime = Utils.startOperation();
+
+        LocalDateTime min = sortedIndex.min();
+        LocalDateTime max = sortedIndex.max();
+
+        Utils.printOperationDuration(startTime, "пошук мiнiмальної i максимальної дати i часу в iндексi");
+
+        System.out.println("Мiнiмальне значення в iндексi: " + min);
+        System.out.println("Максимальне значення в iндексi: " + max);
+    }
+
+    /**
+     * Шукає перше входження значення, послiдовно зчитуючи рядки файлу з даними потоком
+     * ({@link Utils#streamFromFile(String)}), тож розмiр файлу не обмежений пам'яттю.
+     */
+    void searchStream() {
+        long startTime = Utils.startOperation();
+
+        long index = -1;
+        long position = 0;
+        try (Stream<LocalDateTime> stream = Utils.streamFromFile(pathToDataFile)) {
+            Iterator<LocalDateTime> iterator = stream.iterator();
+            while (index < 0 && iterator.hasNext()) {
+                if (iterator.next().equals(dateTimeValueToSearch)) {
+                    index = position;
+                }
+                position++;
+            }
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        Utils.printOperationThroughput(startTime, "потоковий пошук у файлi з даними", position);
+
+        if (index >= 0) {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' знайдено у файлi в рядку: " + index);
+        } else {
+            System.out.println("Значення '" + dateTimeValueToSearch + "' у файлi не знайдено.");
+        }
+    }
+
+    /**
+     * Знаходить мiнiмальне та максимальне значення одним проходом потоку рядкiв файлу з даними.
+     */
+    void findMinAndMaxInStream() {
+        long startTime = Utils.startOperation();
+
+        DataStatistics<LocalDateTime> statistics;
+        try (Stream<LocalDateTime> stream = Utils.streamFromFile(pathToDataFile)) {
+            statistics = DataStatistics.ofStream(stream, DataStatistics::dateTimeKey);
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        Utils.printOperationThroughput(startTime, "потоковий пошук мiнiмальної i максимальної дати i часу у файлi", statistics.count);
+
+        if (statistics.count == 0) {
+            System.out.println("Файл з даними порожнiй.");
+            return;
+        }
+        statistics.print("файлi", Duration.between(statistics.min, statistics.max));
+    }
+}
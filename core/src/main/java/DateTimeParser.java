@@ -0,0 +1,139 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Клас DateTimeParser розбирає дату i час у фiксованому форматi yyyy-MM-ddTHH:mm:ss[Z]
+ * безпосередньо з байтiв буфера читання.
+ * 
+ * <p>Рядки iншого формату (дробовi секунди, змiщення часового поясу тощо) передаються
+ * до {@link DateTimeFormatter#ISO_DATE_TIME}, тому результат завжди збiгається з
+ * {@code LocalDateTime.parse(line, DateTimeFormatter.ISO_DATE_TIME)}.</p>
+ */
+class DateTimeParser {
+    private static final int FIXED_LENGTH = 19;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_0000_TO_1970 = 719_468;
+
+    private DateTimeParser() {
+    }
+
+    /**
+     * Перетворює рядок з байтiв на об'єкт LocalDateTime.
+     * 
+     * @param text Масив байтiв, що мiстить рядок.
+     * @param offset Позицiя початку рядка.
+     * @param length Довжина рядка.
+     * @return Об'єкт LocalDateTime.
+     */
+    static LocalDateTime parse(byte[] text, int offset, int length) {
+        if (!isFixedLayout(text, offset, length)) {
+            return parseWithFormatter(text, offset, length);
+        }
+
+        return LocalDateTime.of(
+                digits4(text, offset), digits2(text, offset + 5), digits2(text, offset + 8),
+                digits2(text, offset + 11), digits2(text, offset + 14), digits2(text, offset + 17));
+    }
+
+    /**
+     * Перетворює рядок з байтiв на кiлькiсть секунд вiд початку епохи (дата i час розглядаються як UTC).
+     * Для рядкiв фiксованого формату жодних об'єктiв не створюється.
+     * 
+     * @param text Масив байтiв, що мiстить рядок.
+     * @param offset Позицiя початку рядка.
+     * @param length Довжина рядка.
+     * @return Кiлькiсть секунд вiд 1970-01-01T00:00:00.
+     */
+    static long parseEpochSecond(byte[] text, int offset, int length) {
+        if (!isFixedLayout(text, offset, length)) {
+            return parseWithFormatter(text, offset, length).toEpochSecond(ZoneOffset.UTC);
+        }
+
+        long days = epochDay(digits4(text, offset), digits2(text, offset + 5), digits2(text, offset + 8));
+        return days * SECONDS_PER_DAY
+                + digits2(text, offset + 11) * 3600
+                + digits2(text, offset + 14) * 60
+                + digits2(text, offset + 17);
+    }
+
+    /**
+     * Повертає наносекунди з рядка з байтiв. Для рядкiв фiксованого формату завжди 0.
+     * 
+     * @param text Масив байтiв, що мiстить рядок.
+     * @param offset Позицiя початку рядка.
+     * @param length Довжина рядка.
+     * @return Кiлькiсть наносекунд у межах секунди.
+     */
+    static int parseNano(byte[] text, int offset, int length) {
+        if (isFixedLayout(text, offset, length)) {
+            return 0;
+        }
+        return parseWithFormatter(text, offset, length).getNano();
+    }
+
+    /**
+     * Перевiряє, чи має рядок фiксований формат yyyy-MM-ddTHH:mm:ss[Z] з допустимими значеннями полiв.
+     */
+    private static boolean isFixedLayout(byte[] text, int offset, int length) {
+        if (length != FIXED_LENGTH && !(length == FIXED_LENGTH + 1 && text[offset + FIXED_LENGTH] == 'Z')) {
+            return false;
+        }
+        if (text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':' || text[offset + 16] != ':') {
+            return false;
+        }
+        for (int i = 0; i < FIXED_LENGTH; i++) {
+            if (i == 4 || i == 7 || i == 10 || i == 13 || i == 16) {
+                continue;
+            }
+            int digit = text[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+        }
+
+        int year = digits4(text, offset);
+        int month = digits2(text, offset + 5);
+        int day = digits2(text, offset + 8);
+        return month >= 1 && month <= 12
+                && day >= 1 && day <= monthLength(year, month)
+                && digits2(text, offset + 11) < 24
+                && digits2(text, offset + 14) < 60
+                && digits2(text, offset + 17) < 60;
+    }
+
+    private static int digits2(byte[] text, int offset) {
+        return (text[offset] - '0') * 10 + (text[offset + 1] - '0');
+    }
+
+    private static int digits4(byte[] text, int offset) {
+        return digits2(text, offset) * 100 + digits2(text, offset + 2);
+    }
+
+    private static int monthLength(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Обчислює номер дня вiд 1970-01-01 для дати пролептичного григорiанського календаря.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static LocalDateTime parseWithFormatter(byte[] text, int offset, int length) {
+        String line = new String(text, offset, length, StandardCharsets.US_ASCII);
+        return LocalDateTime.parse(line, DateTimeFormatter.ISO_DATE_TIME);
+    }
+}
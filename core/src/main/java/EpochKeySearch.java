@@ -0,0 +1,377 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Клас EpochKeySearch шукає значення у вiдсортованому масивi дати i часу за стовпцем ключiв - секунд
+ * вiд початку епохи - iнтерполяцiйним пошуком або навченим кусково-лiнiйним iндексом.
+ * 
+ * <p>Метод задається системною властивiстю {@value #SEARCH_METHOD_PROPERTY} ({@code binary},
+ * {@code interpolation}, {@code learned}). Iнтерполяцiйний пошук оцiнює позицiю ключа за значеннями
+ * на краях iнтервалу i для рiвномiрно розподiлених даних робить O(log log n) проб; якщо крок iнтерполяцiї
+ * не зменшив iнтервал удвiчi, наступна проба робиться посерединi, тож для перекошених даних кiлькiсть
+ * проб не перевищує 2 log2(n).</p>
+ * 
+ * <p>Навчений iндекс будується пiсля сортування одним проходом ("звуженням конуса"): вiдрiзок продовжується,
+ * доки iснує пряма, що передбачає позицiю першого входження кожного ключа з похибкою не бiльше
+ * {@value #MAX_ERROR}. Пошук обирає вiдрiзок двiйковим пошуком серед перших ключiв вiдрiзкiв (їх мало,
+ * i вони знаходяться в кешi) i уточнює позицiю двiйковим пошуком у вiкнi 2 * {@value #MAX_ERROR} + 1
+ * елементiв. Для вiдсутнiх ключiв межi вiкна перевiряються, i за потреби пошук продовжується за вiкном.</p>
+ * 
+ * <p>Усi методи, зокрема двiйковий пошук {@link #binarySearch(LocalDateTime[], LocalDateTime)} без стовпця ключiв,
+ * повертають iндекс першого входження значення, тож для даних з повторами їх результати однаковi
+ * (на вiдмiну вiд {@link Arrays#binarySearch(Object[], Object)}, що повертає довiльне з рiвних значень).</p>
+ */
+class EpochKeySearch {
+    static final String SEARCH_METHOD_PROPERTY = "search.method";
+
+    /**
+     * Максимальна похибка передбаченої позицiї навченого iндексу.
+     */
+    static final int MAX_ERROR = 32;
+
+    /**
+     * Розмiр iнтервалу, з якого iнтерполяцiйний пошук переходить на двiйковий.
+     */
+    private static final int INTERPOLATION_CUTOFF = 16;
+
+    /**
+     * Методи пошуку.
+     */
+    enum Method {
+        /** Двiйковий пошук у масивi об'єктiв без стовпця ключiв ({@link EpochKeySearch#binarySearch}). */
+        BINARY,
+        /** Iнтерполяцiйний пошук у стовпцi ключiв. */
+        INTERPOLATION,
+        /** Навчений кусково-лiнiйний iндекс над стовпцем ключiв. */
+        LEARNED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final long[] keys;
+    private final Method method;
+    private final long[] segmentKeys;
+    private final int[] segmentPositions;
+    private final double[] segmentSlopes;
+
+    private EpochKeySearch(long[] keys, Method method, long[] segmentKeys, int[] segmentPositions, double[] segmentSlopes) {
+        this.keys = keys;
+        this.method = method;
+        this.segmentKeys = segmentKeys;
+        this.segmentPositions = segmentPositions;
+        this.segmentSlopes = segmentSlopes;
+    }
+
+    /**
+     * Повертає метод пошуку, заданий системною властивiстю {@value #SEARCH_METHOD_PROPERTY}.
+     * 
+     * @return Обраний метод пошуку.
+     */
+    static Method configuredMethod() {
+        String value = System.getProperty(SEARCH_METHOD_PROPERTY, Method.BINARY.toString());
+        try {
+            return Method.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Невiдомий метод пошуку: " + value, e);
+        }
+    }
+
+    /**
+     * Будує пошук для вiдсортованого масиву дати i часу, якщо системною властивiстю обрано
+     * iнтерполяцiйний пошук або навчений iндекс, i виводить час побудови та розмiр моделi.
+     * 
+     * @param sortedArray Вiдсортований масив об'єктiв LocalDateTime.
+     * @return Пошук за ключами масиву або null для двiйкового пошуку.
+     */
+    static EpochKeySearch prepare(LocalDateTime[] sortedArray) {
+        Method method = configuredMethod();
+        if (method == Method.BINARY) {
+            return null;
+        }
+
+        String operationName = "побудова пошуку " + method + " за ключами масиву";
+        long startTime = Utils.startOperation();
+
+        EpochKeySearch keySearch = of(sortedArray, method);
+
+        Utils.printOperationThroughput(startTime, operationName, sortedArray.length);
+
+        keySearch.printModel();
+        return keySearch;
+    }
+
+    /**
+     * Будує пошук над вiдсортованим стовпцем секунд, якщо системною властивiстю обрано
+     * iнтерполяцiйний пошук або навчений iндекс, i виводить час побудови та розмiр моделi.
+     * 
+     * @param sortedKeys Вiдсортованi секунди вiд початку епохи.
+     * @return Пошук за ключами або null для двiйкового пошуку.
+     */
+    static EpochKeySearch prepare(long[] sortedKeys) {
+        Method method = configuredMethod();
+        if (method == Method.BINARY) {
+            return null;
+        }
+
+        String operationName = "побудова пошуку " + method + " за секундами вiд початку епохи";
+        long startTime = Utils.startOperation();
+
+        EpochKeySearch keySearch = of(sortedKeys, method);
+
+        Utils.printOperationThroughput(startTime, operationName, sortedKeys.length);
+
+        keySearch.printModel();
+        return keySearch;
+    }
+
+    private void printModel() {
+        if (method == Method.LEARNED) {
+            System.out.println("Навчений iндекс: " + segmentCount() + " вiдрiзкiв, " + modelBytes()
+                    + " байт, похибка позицiї не бiльше " + MAX_ERROR);
+        }
+    }
+
+    /**
+     * Будує стовпець ключiв вiдсортованого масиву дати i часу i, для навченого iндексу, вiдрiзки моделi.
+     * 
+     * @param sortedArray Вiдсортований масив об'єктiв LocalDateTime.
+     * @param method Метод пошуку ({@code interpolation} або {@code learned}).
+     * @return Пошук за ключами масиву.
+     */
+    static EpochKeySearch of(LocalDateTime[] sortedArray, Method method) {
+        long[] keys = new long[sortedArray.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sortedArray[i].toEpochSecond(ZoneOffset.UTC);
+        }
+        return of(keys, method);
+    }
+
+    /**
+     * Будує пошук над готовим вiдсортованим стовпцем ключiв (масив не копiюється).
+     * 
+     * @param sortedKeys Вiдсортованi секунди вiд початку епохи.
+     * @param method Метод пошуку ({@code interpolation} або {@code learned}).
+     * @return Пошук за ключами.
+     */
+    static EpochKeySearch of(long[] sortedKeys, Method method) {
+        if (method != Method.LEARNED) {
+            return new EpochKeySearch(sortedKeys, method, null, null, null);
+        }
+
+        long[] segmentKeys = new long[16];
+        int[] segmentPositions = new int[16];
+        double[] segmentSlopes = new double[16];
+        int segmentCount = 0;
+
+        int position = 0;
+        while (position < sortedKeys.length) {
+            long firstKey = sortedKeys[position];
+            int firstPosition = position;
+            double lowSlope = 0;
+            double highSlope = Double.POSITIVE_INFINITY;
+
+            // пропускаємо повтори першого ключа: модель передбачає перше входження
+            position = nextKey(sortedKeys, position);
+            while (position < sortedKeys.length) {
+                double distance = sortedKeys[position] - firstKey;
+                double low = Math.max(lowSlope, (position - MAX_ERROR - firstPosition) / distance);
+                double high = Math.min(highSlope, (position + MAX_ERROR - firstPosition) / distance);
+                if (low > high) {
+                    break;
+                }
+                lowSlope = low;
+                highSlope = high;
+                position = nextKey(sortedKeys, position);
+            }
+
+            if (segmentCount == segmentKeys.length) {
+                int capacity = Utils.grow(segmentCount);
+                segmentKeys = Arrays.copyOf(segmentKeys, capacity);
+                segmentPositions = Arrays.copyOf(segmentPositions, capacity);
+                segmentSlopes = Arrays.copyOf(segmentSlopes, capacity);
+            }
+            segmentKeys[segmentCount] = firstKey;
+            segmentPositions[segmentCount] = firstPosition;
+            segmentSlopes[segmentCount] = highSlope == Double.POSITIVE_INFINITY ? 0 : (lowSlope + highSlope) / 2;
+            segmentCount++;
+        }
+
+        return new EpochKeySearch(sortedKeys, method, Arrays.copyOf(segmentKeys, segmentCount),
+                Arrays.copyOf(segmentPositions, segmentCount), Arrays.copyOf(segmentSlopes, segmentCount));
+    }
+
+    Method method() {
+        return method;
+    }
+
+    /**
+     * Кiлькiсть вiдрiзкiв навченого iндексу (0 для iнших методiв).
+     */
+    int segmentCount() {
+        return segmentKeys == null ? 0 : segmentKeys.length;
+    }
+
+    /**
+     * Обсяг пам'ятi моделi навченого iндексу (без стовпця ключiв).
+     */
+    long modelBytes() {
+        return (long) segmentCount() * (Long.BYTES + Integer.BYTES + Double.BYTES);
+    }
+
+    /**
+     * Шукає значення у вiдсортованому масивi, за яким побудовано стовпець ключiв.
+     * 
+     * <p>Перше входження секунди значення шукається обраним методом у стовпцi ключiв, пiсля чого
+     * значення з тiєю самою секундою (вони вiдрiзняються лише наносекундами) порiвнюються по черзi.</p>
+     * 
+     * @param sortedArray Вiдсортований масив об'єктiв LocalDateTime.
+     * @param value Значення для пошуку.
+     * @return Iндекс першого входження значення або -(точка вставки) - 1.
+     */
+    int search(LocalDateTime[] sortedArray, LocalDateTime value) {
+        long key = value.toEpochSecond(ZoneOffset.UTC);
+        int index = lowerBound(key);
+        while (index < keys.length && keys[index] == key && sortedArray[index].compareTo(value) < 0) {
+            index++;
+        }
+        if (index < keys.length && keys[index] == key && sortedArray[index].equals(value)) {
+            return index;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Двiйковий пошук першого входження значення у вiдсортованому масивi без стовпця ключiв.
+     * 
+     * @param sortedArray Вiдсортований масив об'єктiв LocalDateTime.
+     * @param value Значення для пошуку.
+     * @return Iндекс першого входження значення або -(точка вставки) - 1.
+     */
+    static int binarySearch(LocalDateTime[] sortedArray, LocalDateTime value) {
+        int low = 0;
+        int high = sortedArray.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedArray[middle].compareTo(value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low < sortedArray.length && sortedArray[low].equals(value)) {
+            return low;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Повертає позицiю першого ключа, не меншого за заданий.
+     * 
+     * @param key Секунди вiд початку епохи.
+     * @return Позицiя вiд 0 до кiлькостi ключiв включно.
+     */
+    int lowerBound(long key) {
+        if (method == Method.LEARNED) {
+            return learnedLowerBound(key);
+        }
+        if (method == Method.INTERPOLATION) {
+            return interpolationLowerBound(keys, key);
+        }
+        return lowerBound(keys, 0, keys.length, key);
+    }
+
+    /**
+     * Iнтерполяцiйний пошук першого ключа, не меншого за заданий.
+     * 
+     * @param sortedKeys Вiдсортованi ключi.
+     * @param key Ключ для пошуку.
+     * @return Позицiя вiд 0 до кiлькостi ключiв включно.
+     */
+    static int interpolationLowerBound(long[] sortedKeys, long key) {
+        int low = 0;
+        int high = sortedKeys.length - 1;
+        // шукана позицiя завжди знаходиться в [low, high + 1]
+        while (high - low > INTERPOLATION_CUTOFF) {
+            if (sortedKeys[low] >= key) {
+                return low;
+            }
+            if (sortedKeys[high] < key) {
+                return high + 1;
+            }
+
+            int width = high - low;
+            int probe = low + (int) ((double) (key - sortedKeys[low]) / (sortedKeys[high] - sortedKeys[low]) * width);
+            probe = Math.min(high, Math.max(low + 1, probe));
+            if (sortedKeys[probe] < key) {
+                low = probe + 1;
+            } else {
+                high = probe;
+            }
+
+            if (high - low > width / 2) {
+                int middle = (low + high) >>> 1;
+                if (sortedKeys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+        }
+        return lowerBound(sortedKeys, low, high + 1, key);
+    }
+
+    private int learnedLowerBound(long key) {
+        if (keys.length == 0 || key <= segmentKeys[0]) {
+            return 0;
+        }
+
+        // останнiй вiдрiзок з першим ключем, не бiльшим за заданий (key + 1 переповнюється для Long.MAX_VALUE)
+        int segment = key == Long.MAX_VALUE ? segmentKeys.length - 1
+                : lowerBound(segmentKeys, 0, segmentKeys.length, key + 1) - 1;
+        double predicted = segmentPositions[segment] + (key - segmentKeys[segment]) * segmentSlopes[segment];
+        int from = (int) Math.max(0, Math.min(keys.length, predicted - MAX_ERROR - 1));
+        int to = (int) Math.max(from, Math.min(keys.length, predicted + MAX_ERROR + 2));
+
+        int index = lowerBound(keys, from, to, key);
+        if (index == from && from > 0 && keys[from - 1] >= key) {
+            return lowerBound(keys, 0, from, key);
+        }
+        if (index == to && to < keys.length && keys[to] < key) {
+            return lowerBound(keys, to, keys.length, key);
+        }
+        return index;
+    }
+
+    /**
+     * Двiйковий пошук першого ключа, не меншого за заданий, у дiапазонi [from, to).
+     */
+    private static int lowerBound(long[] sortedKeys, int from, int to, long key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedKeys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Позицiя першого ключа, бiльшого за ключ у заданiй позицiї.
+     */
+    private static int nextKey(long[] sortedKeys, int position) {
+        long key = sortedKeys[position];
+        do {
+            position++;
+        } while (position < sortedKeys.length && sortedKeys[position] == key);
+        return position;
+    }
+}
@@ -0,0 +1,452 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Клас ExternalSort сортує файл з даними, який не вмiщується в пам'ять, зовнiшнiм сортуванням злиттям.
+ * 
+ * <p>Файл зчитується серiями, розмiр яких обмежено бюджетом пам'ятi ({@value #MEMORY_BUDGET_PROPERTY}).
+ * Значення кожної серiї зберiгаються у стовпцях секунд i наносекунд, сортуються {@link SortEngine} (паралельно
+ * або порозрядно для великих серiй) i записуються у тимчасовий двiйковий файл по {@value #RECORD_BYTES} байт
+ * на значення. Пiсля цього серiї зливаються деревом переможених: вибiр наступного значення з k серiй коштує
+ * log2(k) порiвнянь, а результат потоково записується у файл ".sorted" та двiйковий iндекс, тож у пам'ятi
+ * одночасно знаходяться лише буфери серiй.</p>
+ * 
+ * <p>Пiд час зчитування серiй значення додаються до скетча {@link HyperLogLog}, тож кiлькiсть унiкальних
+ * значень оцiнюється без окремого проходу.</p>
+ */
+class ExternalSort {
+    static final String EXTERNAL_SORT_PROPERTY = "sort.external";
+    static final String MEMORY_BUDGET_PROPERTY = "sort.memory";
+    static final String TEMP_DIRECTORY_PROPERTY = "sort.tmpdir";
+
+    /**
+     * Результат, коли зовнiшнє сортування не виконано.
+     */
+    static final long NOT_SORTED = -1;
+
+    /**
+     * Розмiр значення у файлi серiї: секунди (long) i наносекунди (int).
+     */
+    static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Байтiв пам'ятi на значення серiї: стовпцi секунд i наносекунд та допомiжний масив сортування.
+     */
+    private static final int BYTES_PER_RUN_VALUE = 2 * Long.BYTES + Integer.BYTES;
+
+    private static final int MIN_RUN_LENGTH = 1 << 10;
+    private static final int MIN_MERGE_BUFFER = 64 << 10;
+    private static final int MAX_MERGE_BUFFER = 8 << 20;
+    private static final int NANO_BITS = 30;
+
+    private ExternalSort() {
+    }
+
+    /**
+     * Повертає бюджет пам'ятi з системної властивостi {@value #MEMORY_BUDGET_PROPERTY} (байти або з суфiксом
+     * {@code k}, {@code m}, {@code g}); за замовчуванням - чверть максимального розмiру купи.
+     */
+    static long configuredMemoryBudget() {
+        String value = System.getProperty(MEMORY_BUDGET_PROPERTY);
+        if (value == null) {
+            return Runtime.getRuntime().maxMemory() / 4;
+        }
+
+        value = value.trim().toLowerCase(Locale.ROOT);
+        int shift = 0;
+        switch (value.isEmpty() ? ' ' : value.charAt(value.length() - 1)) {
+            case 'k':
+                shift = 10;
+                break;
+            case 'm':
+                shift = 20;
+                break;
+            case 'g':
+                shift = 30;
+                break;
+            default:
+                break;
+        }
+        try {
+            long budget = Long.parseLong(shift == 0 ? value : value.substring(0, value.length() - 1)) << shift;
+            if (budget <= 0) {
+                throw new NumberFormatException();
+            }
+            return budget;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Некоректний бюджет пам'ятi для зовнiшнього сортування: " + value);
+        }
+    }
+
+    /**
+     * Сортує файл з даними в межах бюджету пам'ятi i записує файл ".sorted" та двiйковий iндекс.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @return Кiлькiсть вiдсортованих значень або {@link #NOT_SORTED}, якщо файл не вдалося зчитати.
+     */
+    static long sort(String pathToDataFile) {
+        long memoryBudget = configuredMemoryBudget();
+        int runLength = (int) Math.max(MIN_RUN_LENGTH, Math.min(Utils.MAX_ARRAY_LENGTH, memoryBudget / BYTES_PER_RUN_VALUE));
+
+        Path tempDirectory = null;
+        List<Path> runs = new ArrayList<>();
+        try {
+            String tempDirectoryRoot = System.getProperty(TEMP_DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir"));
+            tempDirectory = Files.createTempDirectory(Path.of(tempDirectoryRoot), "external-sort");
+
+            long startTime = Utils.startOperation();
+
+            RunStatistics statistics = writeRuns(pathToDataFile, runLength, tempDirectory, runs);
+
+            Utils.printOperationThroughput(startTime, "формування вiдсортованих серiй", statistics.count);
+            System.out.println("Серiй: " + runs.size() + " по " + runLength + " значень (бюджет пам'ятi " + memoryBudget
+                    + " байт); зчитування " + statistics.readNanos + " нс, сортування " + statistics.sortNanos
+                    + " нс, запис серiй " + statistics.spillNanos + " нс");
+            System.out.println("Кiлькiсть унiкальних значень у файлi: ~" + statistics.distinct.estimate() + " з " + statistics.count);
+
+            startTime = Utils.startOperation();
+
+            long byteCount = mergeRuns(pathToDataFile, runs, statistics, memoryBudget);
+
+            Utils.printWriteThroughput(startTime, "злиття серiй деревом переможених", statistics.count, byteCount);
+            return statistics.count;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (DateTimeException e) {
+            System.out.println("Не вдалося розiбрати рядок: " + e.getMessage());
+        } finally {
+            deleteRuns(tempDirectory, runs);
+        }
+        return NOT_SORTED;
+    }
+
+    /**
+     * Зчитує файл серiями, сортує кожну серiю i записує її у тимчасовий файл. Контрольна сума i розмiр файлу
+     * для iндексу обчислюються з тих самих байтiв пiд час читання, а час змiни береться до його початку.
+     */
+    private static RunStatistics writeRuns(String pathToDataFile, int runLength, Path tempDirectory, List<Path> runs)
+            throws IOException {
+        RunStatistics statistics = new RunStatistics();
+        long[] seconds = null;
+        int[] nanos = null;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+
+        long dataModified = Files.getLastModifiedTime(Path.of(pathToDataFile)).toMillis();
+        try (DataLineReader reader = new DataLineReader(pathToDataFile)) {
+            reader.computeChecksum();
+            boolean hasMore = reader.nextLine();
+            while (hasMore) {
+                long startTime = System.nanoTime();
+
+                if (seconds == null) {
+                    int capacity = (int) Math.min(runLength, Files.size(Path.of(pathToDataFile)) / Utils.ESTIMATED_LINE_LENGTH + 1);
+                    seconds = new long[capacity];
+                    nanos = new int[capacity];
+                }
+                int length = 0;
+                boolean runWithNanos = false;
+                while (hasMore && length < runLength) {
+                    if (length == seconds.length) {
+                        int capacity = Math.min(runLength, Utils.grow(length));
+                        seconds = Arrays.copyOf(seconds, capacity);
+                        nanos = Arrays.copyOf(nanos, capacity);
+                    }
+                    seconds[length] = reader.parseLineEpochSecond();
+                    nanos[length] = reader.parseLineNano();
+                    statistics.distinct.add(DataStatistics.dateTimeKey(seconds[length], nanos[length]));
+                    runWithNanos |= nanos[length] != 0;
+                    length++;
+                    hasMore = reader.nextLine();
+                }
+                long readTime = System.nanoTime();
+
+                sortRun(seconds, nanos, length, runWithNanos);
+                long sortTime = System.nanoTime();
+
+                Path run = tempDirectory.resolve("run-" + runs.size() + ".bin");
+                runs.add(run);
+                writeRun(run, seconds, nanos, length, buffer);
+
+                statistics.count += length;
+                statistics.withNanos |= runWithNanos;
+                statistics.readNanos += readTime - startTime;
+                statistics.sortNanos += sortTime - readTime;
+                statistics.spillNanos += System.nanoTime() - sortTime;
+            }
+            statistics.dataStamp = reader.stamp(dataModified);
+        }
+        return statistics;
+    }
+
+    /**
+     * Сортує першi {@code length} значень стовпцiв. Якщо є наносекунди i дiапазон секунд серiї це дозволяє,
+     * секунди i наносекунди пакуються в один ключ long, iнакше пари сортуються пiрамiдальним сортуванням.
+     */
+    private static void sortRun(long[] seconds, int[] nanos, int length, boolean withNanos) {
+        long[] keys = length == seconds.length ? seconds : Arrays.copyOf(seconds, length);
+        if (!withNanos) {
+            SortEngine.sort(keys);
+            if (keys != seconds) {
+                System.arraycopy(keys, 0, seconds, 0, length);
+            }
+            return;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, seconds[i]);
+            max = Math.max(max, seconds[i]);
+        }
+        if (max - min >= 0 && max - min < (1L << (Long.SIZE - 1 - NANO_BITS))) {
+            for (int i = 0; i < length; i++) {
+                keys[i] = ((seconds[i] - min) << NANO_BITS) | nanos[i];
+            }
+            SortEngine.sort(keys);
+            for (int i = 0; i < length; i++) {
+                nanos[i] = (int) (keys[i] & ((1L << NANO_BITS) - 1));
+                seconds[i] = (keys[i] >>> NANO_BITS) + min;
+            }
+            return;
+        }
+
+        heapSort(seconds, nanos, length);
+    }
+
+    private static void heapSort(long[] seconds, int[] nanos, int length) {
+        for (int i = length / 2 - 1; i >= 0; i--) {
+            siftDown(seconds, nanos, i, length);
+        }
+        for (int end = length - 1; end > 0; end--) {
+            swap(seconds, nanos, 0, end);
+            siftDown(seconds, nanos, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] seconds, int[] nanos, int node, int length) {
+        while (true) {
+            int child = 2 * node + 1;
+            if (child >= length) {
+                return;
+            }
+            if (child + 1 < length && less(seconds[child], nanos[child], seconds[child + 1], nanos[child + 1])) {
+                child++;
+            }
+            if (!less(seconds[node], nanos[node], seconds[child], nanos[child])) {
+                return;
+            }
+            swap(seconds, nanos, node, child);
+            node = child;
+        }
+    }
+
+    private static void swap(long[] seconds, int[] nanos, int i, int j) {
+        long second = seconds[i];
+        seconds[i] = seconds[j];
+        seconds[j] = second;
+        int nano = nanos[i];
+        nanos[i] = nanos[j];
+        nanos[j] = nano;
+    }
+
+    private static boolean less(long second, int nano, long otherSecond, int otherNano) {
+        return second < otherSecond || second == otherSecond && nano < otherNano;
+    }
+
+    private static void writeRun(Path run, long[] seconds, int[] nanos, int length, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            for (int i = 0; i < length; i++) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(seconds[i]).putInt(nanos[i]);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Зливає вiдсортованi серiї деревом переможених у файл ".sorted" та iндекс.
+     * 
+     * @return Кiлькiсть байтiв, записаних у файл ".sorted".
+     */
+    private static long mergeRuns(String pathToDataFile, List<Path> runs, RunStatistics statistics, long memoryBudget)
+            throws IOException {
+        int bufferSize = (int) Math.max(MIN_MERGE_BUFFER, Math.min(MAX_MERGE_BUFFER, memoryBudget / (runs.size() + 1)));
+        bufferSize -= bufferSize % RECORD_BYTES;
+
+        RunReader[] readers = new RunReader[runs.size()];
+        try (DataFileWriter sortedWriter = new DataFileWriter(pathToDataFile + IncrementalMerge.SORTED_FILE_SUFFIX);
+                SortedIndex.Writer indexWriter = new SortedIndex.Writer(pathToDataFile, statistics.count, statistics.withNanos)) {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(runs.get(i), bufferSize);
+            }
+
+            if (readers.length > 0) {
+                LoserTree tree = new LoserTree(readers);
+                for (int winner = tree.winner(); !readers[winner].exhausted; winner = tree.replay(winner)) {
+                    RunReader reader = readers[winner];
+                    sortedWriter.write(reader.second, reader.nano);
+                    indexWriter.add(reader.second, reader.nano);
+                    reader.advance();
+                }
+            }
+
+            sortedWriter.commit();
+            indexWriter.commit(statistics.dataStamp);
+            return sortedWriter.byteCount();
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void deleteRuns(Path tempDirectory, List<Path> runs) {
+        try {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            if (tempDirectory != null) {
+                Files.deleteIfExists(tempDirectory);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Пiдсумки формування серiй.
+     */
+    private static final class RunStatistics {
+        long count;
+        boolean withNanos;
+        long readNanos;
+        long sortNanos;
+        long spillNanos;
+        SortedIndex.DataStamp dataStamp;
+        final HyperLogLog distinct = new HyperLogLog();
+    }
+
+    /**
+     * Послiдовне читання серiї з власним буфером; поточне значення доступне в полях без створення об'єктiв.
+     */
+    private static final class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        long second;
+        int nano;
+        boolean exhausted;
+
+        RunReader(Path run, int bufferSize) throws IOException {
+            channel = FileChannel.open(run, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.limit(0);
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer.compact();
+                while (buffer.position() < RECORD_BYTES && channel.read(buffer) > 0) {
+                    // дочитуємо щонайменше одне значення
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES) {
+                    exhausted = true;
+                    return;
+                }
+            }
+            second = buffer.getLong();
+            nano = buffer.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Дерево переможених для k-шляхового злиття.
+     * 
+     * <p>Внутрiшнi вузли зберiгають переможених (бiльшi значення) у поєдинках, а вузол 0 - загального переможця,
+     * тож пiсля видачi значення достатньо переграти лише шлях вiд листка його серiї до кореня. Вичерпана серiя
+     * програє будь-якiй iншiй.</p>
+     */
+    private static final class LoserTree {
+        private final RunReader[] readers;
+        private final int[] tree;
+
+        LoserTree(RunReader[] readers) {
+            this.readers = readers;
+            int k = readers.length;
+            tree = new int[k];
+
+            int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++) {
+                winners[k + i] = i;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int left = winners[2 * node];
+                int right = winners[2 * node + 1];
+                boolean leftWins = beats(left, right);
+                winners[node] = leftWins ? left : right;
+                tree[node] = leftWins ? right : left;
+            }
+            tree[0] = winners[1];
+        }
+
+        int winner() {
+            return tree[0];
+        }
+
+        /**
+         * Переграє поєдинки на шляху вiд листка серiї, значення якої щойно видано, до кореня.
+         * 
+         * @return Iндекс серiї з найменшим поточним значенням.
+         */
+        int replay(int run) {
+            int winner = run;
+            for (int node = (run + readers.length) >>> 1; node >= 1; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return winner;
+        }
+
+        private boolean beats(int run, int other) {
+            RunReader a = readers[run];
+            RunReader b = readers[other];
+            if (a.exhausted || b.exhausted) {
+                return !a.exhausted || b.exhausted && run < other;
+            }
+            return less(a.second, a.nano, b.second, b.nano) || a.second == b.second && a.nano == b.nano && run < other;
+        }
+    }
+}
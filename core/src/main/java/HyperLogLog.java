@@ -0,0 +1,175 @@
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Клас HyperLogLog - ймовiрнiсна оцiнка кiлькостi унiкальних значень у сталому обсязi пам'ятi.
+ * 
+ * <p>Перша частина бiтiв хешу значення обирає один з 2^{@value #PRECISION} регiстрiв, а регiстр зберiгає
+ * найбiльшу позицiю першої одиницi в решi бiтiв. Вiдносна похибка оцiнки - близько 1,04/sqrt(m) (~0,8%),
+ * а розмiр - 16 КiБ незалежно вiд кiлькостi значень, тому так можна оцiнювати потоки, якi не вмiщуються
+ * в пам'ять. Для малих кiлькостей оцiнка уточнюється лiнiйним пiдрахунком за порожнiми регiстрами.</p>
+ * 
+ * <p>Скетчi, побудованi окремими потоками або для окремих файлiв, об'єднуються {@link #merge(HyperLogLog)}
+ * (поелементним максимумом регiстрiв); результат такий самий, як у скетча, побудованого за всiма значеннями.</p>
+ */
+class HyperLogLog {
+    static final String DISTINCT_FILES_PROPERTY = "distinct.files";
+
+    static final int PRECISION = 14;
+
+    private static final int REGISTER_COUNT = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+    private long count;
+
+    /**
+     * Повертає список файлiв з системної властивостi {@value #DISTINCT_FILES_PROPERTY} (через кому);
+     * порожнє значення означає файл з даними програми.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними програми.
+     * @return Список файлiв або null, якщо властивiсть не задана.
+     */
+    static List<String> configuredFiles(String pathToDataFile) {
+        String value = System.getProperty(DISTINCT_FILES_PROPERTY);
+        if (value == null) {
+            return null;
+        }
+        if (value.isBlank()) {
+            return List.of(pathToDataFile);
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(path -> !path.isEmpty()).toList();
+    }
+
+    /**
+     * Додає значення за його ключем (однаковим для рiвних значень, див. {@link DataStatistics#dateTimeKey}).
+     * 
+     * @param key Ключ значення.
+     */
+    void add(long key) {
+        long hash = mix(key);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+        count++;
+    }
+
+    /**
+     * Об'єднує з цим скетчем iнший скетч.
+     * 
+     * @param other Скетч, значення якого додаються.
+     * @return Цей скетч.
+     */
+    HyperLogLog merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * Кiлькiсть доданих значень (з повторами).
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * Оцiнює кiлькiсть унiкальних значень.
+     * 
+     * @return Оцiнка, не бiльша за кiлькiсть доданих значень.
+     */
+    long estimate() {
+        double sum = 0;
+        int emptyRegisters = 0;
+        for (byte register : registers) {
+            sum += Double.longBitsToDouble((1023L - register) << 52);
+            if (register == 0) {
+                emptyRegisters++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && emptyRegisters > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / emptyRegisters);
+        }
+        return Math.min(count, Math.round(estimate));
+    }
+
+    /**
+     * Будує скетч значень файлу, зчитуючи його по одному рядку, тож розмiр файлу не обмежений пам'яттю.
+     * 
+     * @param pathToFile Шлях до файлу з даними.
+     * @return Скетч значень файлу.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static HyperLogLog ofFile(String pathToFile) throws IOException {
+        HyperLogLog sketch = new HyperLogLog();
+        try (DataLineReader reader = new DataLineReader(pathToFile)) {
+            while (reader.nextLine()) {
+                sketch.add(DataStatistics.dateTimeKey(reader.parseLineEpochSecond(), reader.parseLineNano()));
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * Паралельно будує скетчi файлiв, виводить оцiнку для кожного файлу та для їх об'єднання.
+     * 
+     * @param pathsToFiles Шляхи до файлiв з даними.
+     */
+    static void printEstimates(List<String> pathsToFiles) {
+        long startTime = Utils.startOperation();
+
+        List<HyperLogLog> sketches = pathsToFiles.parallelStream().map(HyperLogLog::ofFileOrNull).toList();
+
+        HyperLogLog union = new HyperLogLog();
+        for (HyperLogLog sketch : sketches) {
+            if (sketch != null) {
+                union.merge(sketch);
+            }
+        }
+
+        Utils.printOperationThroughput(startTime, "оцiнка кiлькостi унiкальних значень HyperLogLog", union.count);
+
+        for (int i = 0; i < pathsToFiles.size(); i++) {
+            HyperLogLog sketch = sketches.get(i);
+            if (sketch != null) {
+                System.out.println("Кiлькiсть унiкальних значень у файлi " + pathsToFiles.get(i) + ": ~"
+                        + sketch.estimate() + " з " + sketch.count);
+            }
+        }
+        if (pathsToFiles.size() > 1) {
+            System.out.println("Кiлькiсть унiкальних значень в усiх файлах: ~" + union.estimate() + " з " + union.count);
+        }
+    }
+
+    private static HyperLogLog ofFileOrNull(String pathToFile) {
+        try {
+            return ofFile(pathToFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (DateTimeException e) {
+            System.out.println("Не вдалося розiбрати рядок у файлi " + pathToFile + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Фiналiзатор MurmurHash3 (fmix64): рiвномiрно розподiляє бiти ключа.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Клас IncrementalMerge оновлює вiдсортований файл i iндекс пiсля дописування нових рядкiв у файл з даними.
+ * 
+ * <p>Заголовок iндексу ({@link SortedIndex.Header}) зберiгає розмiр i контрольну суму файлу з даними на момент
+ * останнього запису. Якщо поточний файл починається з тих самих байтiв, новими вважаються лише рядки пiсля цього
+ * розмiру: вони зчитуються i сортуються в пам'ятi, а потiм зливаються з файлом ".sorted" одним послiдовним проходом,
+ * пiд час якого новi ".sorted" та iндекс записуються потоково. Вiдсортований файл повнiстю в пам'ять не завантажується,
+ * тому вартiсть оновлення - сортування нових рядкiв i один прохiд файлами.</p>
+ */
+class IncrementalMerge {
+    static final String INCREMENTAL_SORT_PROPERTY = "sort.incremental";
+    static final String SORTED_FILE_SUFFIX = ".sorted";
+
+    /**
+     * Результат, коли злиття неможливе i потрiбне повне сортування.
+     */
+    static final long NOT_MERGED = -1;
+
+    private IncrementalMerge() {
+    }
+
+    /**
+     * Зливає новi рядки файлу з даними з файлом ".sorted" i оновлює iндекс.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @return Кiлькiсть нових рядкiв або {@link #NOT_MERGED}, якщо iндекс чи ".sorted" вiдсутнi або не вiдповiдають
+     *         початку файлу з даними (наприклад, файл змiнено не лише дописуванням).
+     */
+    static long merge(String pathToDataFile) {
+        Path dataPath = Path.of(pathToDataFile);
+        try {
+            SortedIndex.Header header = SortedIndex.Header.read(pathToDataFile);
+            if (header == null || !Files.isRegularFile(Path.of(pathToDataFile + SORTED_FILE_SUFFIX))) {
+                return NOT_MERGED;
+            }
+
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+                long dataModified = Files.getLastModifiedTime(dataPath).toMillis();
+                long dataSize = channel.size();
+                if (dataSize < header.dataSize) {
+                    return NOT_MERGED;
+                }
+
+                CRC32C crc = new CRC32C();
+                SortedIndex.updateChecksum(crc, channel, 0, header.dataSize);
+                if (crc.getValue() != header.dataChecksum) {
+                    return NOT_MERGED;
+                }
+                if (dataSize == header.dataSize) {
+                    return 0;
+                }
+                if (!startsNewLine(channel, header.dataSize)) {
+                    return NOT_MERGED;
+                }
+                SortedIndex.updateChecksum(crc, channel, header.dataSize, dataSize);
+
+                channel.position(header.dataSize);
+                LocalDateTime[] appended = Utils.readArray(new DataLineReader(channel));
+                SortEngine.sort(appended);
+
+                SortedIndex.DataStamp dataStamp = new SortedIndex.DataStamp(dataSize, dataModified, crc.getValue());
+                return mergeSorted(pathToDataFile, header, appended, dataStamp) ? appended.length : NOT_MERGED;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (DateTimeException e) {
+            System.out.println("Не вдалося розiбрати рядок: " + e.getMessage());
+        }
+        return NOT_MERGED;
+    }
+
+    /**
+     * Зливає вiдсортований файл з вiдсортованими новими значеннями, одночасно записуючи новi ".sorted" та iндекс.
+     * 
+     * @return false, якщо кiлькiсть рядкiв ".sorted" не збiгається з iндексом (тодi жоден файл не змiнюється).
+     */
+    private static boolean mergeSorted(String pathToDataFile, SortedIndex.Header header, LocalDateTime[] appended,
+            SortedIndex.DataStamp dataStamp) throws IOException {
+        long[] appendedSeconds = new long[appended.length];
+        int[] appendedNanos = new int[appended.length];
+        boolean withNanos = header.hasNanos();
+        for (int i = 0; i < appended.length; i++) {
+            appendedSeconds[i] = appended[i].toEpochSecond(ZoneOffset.UTC);
+            appendedNanos[i] = appended[i].getNano();
+            withNanos |= appendedNanos[i] != 0;
+        }
+
+        String pathToSortedFile = pathToDataFile + SORTED_FILE_SUFFIX;
+        try (DataFileWriter sortedWriter = new DataFileWriter(pathToSortedFile, false);
+                SortedIndex.Writer indexWriter = new SortedIndex.Writer(pathToDataFile, header.count + appended.length, withNanos)) {
+            long sortedCount = 0;
+            int next = 0;
+            try (DataLineReader reader = new DataLineReader(pathToSortedFile)) {
+                while (reader.nextLine()) {
+                    long second = reader.parseLineEpochSecond();
+                    int nano = reader.parseLineNano();
+                    while (next < appended.length && (appendedSeconds[next] < second
+                            || appendedSeconds[next] == second && appendedNanos[next] < nano)) {
+                        sortedWriter.write(appendedSeconds[next], appendedNanos[next]);
+                        indexWriter.add(appendedSeconds[next], appendedNanos[next]);
+                        next++;
+                    }
+                    sortedWriter.write(second, nano);
+                    indexWriter.add(second, nano);
+                    sortedCount++;
+                }
+            }
+            if (sortedCount != header.count) {
+                return false;
+            }
+            for (; next < appended.length; next++) {
+                sortedWriter.write(appendedSeconds[next], appendedNanos[next]);
+                indexWriter.add(appendedSeconds[next], appendedNanos[next]);
+            }
+
+            sortedWriter.commit();
+            indexWriter.commit(dataStamp);
+        }
+        return true;
+    }
+
+    /**
+     * Перевiряє, що новi байти починають новий рядок, тобто не продовжують останнiй рядок попереднього вмiсту.
+     */
+    private static boolean startsNewLine(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return true;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(2);
+        while (bytes.hasRemaining() && channel.read(bytes, position - 1 + bytes.position()) > 0) {
+            // читаємо останнiй байт попереднього вмiсту i перший новий байт
+        }
+        return bytes.get(0) == '\n' || bytes.get(1) == '\n' || bytes.get(1) == '\r';
+    }
+}
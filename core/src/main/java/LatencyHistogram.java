@@ -0,0 +1,95 @@
+/**
+ * Клас LatencyHistogram - гiстограма затримок з логарифмiчно-лiнiйними кошиками, як у HdrHistogram.
+ * 
+ * <p>Кожен степiнь двiйки дiлиться на {@value #SUB_BUCKETS} рiвних кошикiв, тому вiдносна похибка
+ * перцентилiв не перевищує 1/{@value #SUB_BUCKETS} (~3%) для будь-якої тривалостi, а розмiр гiстограми
+ * сталий i не залежить вiд кiлькостi вимiрiв.</p>
+ */
+class LatencyHistogram {
+    static final int SUB_BUCKETS = 32;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Записує значення (вiд'ємнi значення вважаються нулем).
+     */
+    void record(long value) {
+        value = Math.max(0, value);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Додає до гiстограми всi вимiри iншої гiстограми.
+     * 
+     * @param other Гiстограма, вимiри якої додаються.
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return totalCount;
+    }
+
+    long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /**
+     * Повертає значення перцентиля: верхню межу кошика, в який потрапляє вiдповiдний за рангом вимiр,
+     * обмежену максимальним значенням.
+     * 
+     * @param quantile Частка вiд 0 до 1 (наприклад, 0.99).
+     * @return Значення перцентиля.
+     */
+    long percentile(double quantile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, bucketUpperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowerBound = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,225 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Клас OperationMetrics збирає метрики операцiй: кiлькiсть викликiв, гiстограму затримок з перцентилями,
+ * видiлену пам'ять та кiлькiсть оброблених рядкiв.
+ * 
+ * <p>Збiр вмикається системною властивiстю {@value #METRICS_OUTPUT_PROPERTY} з шляхом до файлу, у який
+ * метрики записуються при завершеннi програми. Формат визначається розширенням файлу: {@code .csv} - CSV,
+ * {@code .prom} - текстовий формат Prometheus, iнакше - JSON. Без властивостi методи класу не викликаються:
+ * {@link Utils} перевiряє константу {@link #ENABLED}, яку JIT-компiлятор вiдкидає разом з гiлкою.</p>
+ * 
+ * <p>Видiлення пам'ятi вимiрюється через ThreadMXBean для потоку, що виконує операцiю; пам'ять,
+ * видiлена потоками ForkJoinPool пiд час паралельних операцiй, не враховується.</p>
+ */
+class OperationMetrics {
+    static final String METRICS_OUTPUT_PROPERTY = "metrics.output";
+
+    static final boolean ENABLED = System.getProperty(METRICS_OUTPUT_PROPERTY) != null;
+
+    /**
+     * Кiлькiсть останнiх початкiв операцiй, для яких пам'ятається видiлена пам'ять
+     * (достатньо для вкладених операцiй).
+     */
+    private static final int PENDING_STARTS = 16;
+
+    private static final Map<String, Operation> OPERATIONS = new LinkedHashMap<>();
+    private static final long[] pendingStartTimes = new long[PENDING_STARTS];
+    private static final long[] pendingAllocatedBytes = new long[PENDING_STARTS];
+    private static int pendingIndex;
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = allocationBean();
+
+    static {
+        if (ENABLED) {
+            String output = System.getProperty(METRICS_OUTPUT_PROPERTY);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> export(output)));
+        }
+    }
+
+    private OperationMetrics() {
+    }
+
+    /**
+     * Повертає час початку операцiї i запам'ятовує кiлькiсть байтiв, видiлених поточним потоком.
+     */
+    static synchronized long start() {
+        long allocatedBytes = allocatedBytes();
+        long time = System.nanoTime();
+        pendingStartTimes[pendingIndex] = time;
+        pendingAllocatedBytes[pendingIndex] = allocatedBytes;
+        pendingIndex = (pendingIndex + 1) % PENDING_STARTS;
+        return time;
+    }
+
+    /**
+     * Записує завершену операцiю.
+     * 
+     * @param operationName Назва операцiї.
+     * @param startTime Час початку операцiї, повернутий {@link Utils#startOperation()}.
+     * @param duration Тривалiсть операцiї в наносекундах.
+     * @param rows Кiлькiсть оброблених рядкiв (0, якщо операцiя не обробляє рядки).
+     */
+    static synchronized void record(String operationName, long startTime, long duration, long rows) {
+        long allocatedBytes = -1;
+        long currentAllocatedBytes = allocatedBytes();
+        for (int i = 0; i < PENDING_STARTS; i++) {
+            if (pendingStartTimes[i] == startTime && pendingAllocatedBytes[i] >= 0 && currentAllocatedBytes >= 0) {
+                allocatedBytes = currentAllocatedBytes - pendingAllocatedBytes[i];
+                break;
+            }
+        }
+        OPERATIONS.computeIfAbsent(operationName, Operation::new).record(duration, allocatedBytes, rows);
+    }
+
+    /**
+     * Записує зiбранi метрики у файл у форматi, визначеному розширенням.
+     * 
+     * @param pathToFile Шлях до файлу з метриками.
+     */
+    static synchronized void export(String pathToFile) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(pathToFile), StandardCharsets.UTF_8)) {
+            if (pathToFile.endsWith(".csv")) {
+                writeCsv(writer);
+            } else if (pathToFile.endsWith(".prom")) {
+                writePrometheus(writer);
+            } else {
+                writeJson(writer);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeJson(BufferedWriter writer) throws IOException {
+        writer.write("{\"operations\": [");
+        String separator = "\n";
+        for (Operation operation : OPERATIONS.values()) {
+            writer.write(separator + "  {\"name\": \"" + escape(operation.name, '"') + "\""
+                    + ", \"count\": " + operation.count
+                    + ", \"totalNanos\": " + operation.totalNanos
+                    + ", \"minNanos\": " + operation.histogram.min()
+                    + ", \"maxNanos\": " + operation.histogram.max()
+                    + ", \"meanNanos\": " + operation.totalNanos / operation.count
+                    + ", \"p50Nanos\": " + operation.histogram.percentile(0.5)
+                    + ", \"p90Nanos\": " + operation.histogram.percentile(0.9)
+                    + ", \"p99Nanos\": " + operation.histogram.percentile(0.99)
+                    + ", \"p999Nanos\": " + operation.histogram.percentile(0.999)
+                    + ", \"allocatedBytes\": " + operation.allocatedBytes
+                    + ", \"rows\": " + operation.rows
+                    + ", \"rowsPerSecond\": " + operation.rowsPerSecond() + "}");
+            separator = ",\n";
+        }
+        writer.write("\n]}\n");
+    }
+
+    private static void writeCsv(BufferedWriter writer) throws IOException {
+        writer.write("name,count,totalNanos,minNanos,maxNanos,meanNanos,p50Nanos,p90Nanos,p99Nanos,p999Nanos,allocatedBytes,rows,rowsPerSecond\n");
+        for (Operation operation : OPERATIONS.values()) {
+            writer.write("\"" + operation.name.replace("\"", "\"\"") + "\","
+                    + operation.count + ","
+                    + operation.totalNanos + ","
+                    + operation.histogram.min() + ","
+                    + operation.histogram.max() + ","
+                    + operation.totalNanos / operation.count + ","
+                    + operation.histogram.percentile(0.5) + ","
+                    + operation.histogram.percentile(0.9) + ","
+                    + operation.histogram.percentile(0.99) + ","
+                    + operation.histogram.percentile(0.999) + ","
+                    + operation.allocatedBytes + ","
+                    + operation.rows + ","
+                    + operation.rowsPerSecond() + "\n");
+        }
+    }
+
+    private static void writePrometheus(BufferedWriter writer) throws IOException {
+        writer.write("# HELP data_operation_duration_seconds Тривалiсть операцiї.\n");
+        writer.write("# TYPE data_operation_duration_seconds summary\n");
+        for (Operation operation : OPERATIONS.values()) {
+            String label = "operation=\"" + escape(operation.name, '"') + "\"";
+            for (double quantile : new double[] {0.5, 0.9, 0.99, 0.999}) {
+                writer.write("data_operation_duration_seconds{" + label + ",quantile=\"" + quantile + "\"} "
+                        + seconds(operation.histogram.percentile(quantile)) + "\n");
+            }
+            writer.write("data_operation_duration_seconds_sum{" + label + "} " + seconds(operation.totalNanos) + "\n");
+            writer.write("data_operation_duration_seconds_count{" + label + "} " + operation.count + "\n");
+        }
+        writer.write("# HELP data_operation_allocated_bytes_total Пам'ять, видiлена потоком операцiї.\n");
+        writer.write("# TYPE data_operation_allocated_bytes_total counter\n");
+        for (Operation operation : OPERATIONS.values()) {
+            writer.write("data_operation_allocated_bytes_total{operation=\"" + escape(operation.name, '"') + "\"} "
+                    + operation.allocatedBytes + "\n");
+        }
+        writer.write("# HELP data_operation_rows_total Кiлькiсть оброблених рядкiв.\n");
+        writer.write("# TYPE data_operation_rows_total counter\n");
+        for (Operation operation : OPERATIONS.values()) {
+            if (operation.rows > 0) {
+                writer.write("data_operation_rows_total{operation=\"" + escape(operation.name, '"') + "\"} "
+                        + operation.rows + "\n");
+            }
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    /**
+     * Екранує зворотну косу риску, лапки та символ нового рядка для JSON i Prometheus.
+     */
+    private static String escape(String value, char quote) {
+        return value.replace("\\", "\\\\").replace(String.valueOf(quote), "\\" + quote).replace("\n", "\\n");
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (!ENABLED || !(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+    }
+
+    /**
+     * Метрики однiєї операцiї.
+     */
+    private static final class Operation {
+        final String name;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        long count;
+        long totalNanos;
+        long allocatedBytes;
+        long rows;
+        long rowsNanos;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        void record(long duration, long allocated, long rowCount) {
+            count++;
+            totalNanos += duration;
+            histogram.record(duration);
+            if (allocated > 0) {
+                allocatedBytes += allocated;
+            }
+            if (rowCount > 0) {
+                rows += rowCount;
+                rowsNanos += duration;
+            }
+        }
+
+        long rowsPerSecond() {
+            return rowsNanos > 0 ? (long) (rows * 1_000_000_000.0 / rowsNanos) : 0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Клас RangeQuery виконує запити до вiдсортованих даних за дiапазоном: кiлькiсть i перелiк значень мiж двома
+ * межами, найближче менше або рiвне (floor) i бiльше або рiвне (ceiling) значення та k найближчих значень.
+ * 
+ * <p>Межi дiапазону знаходяться двiйковим пошуком нижньої та верхньої меж, а k найближчих значень утворюють
+ * суцiльне вiкно навколо точки вставки, тому кожен запит виконується за O(log n + k) без проходу всiма даними.
+ * Запити вмикаються системними властивостями {@value #RANGE_PROPERTY} (межi у форматi
+ * {@code <вiд>..<до>} включно) та {@value #NEAREST_PROPERTY} (кiлькiсть найближчих до значення для пошуку).</p>
+ */
+class RangeQuery {
+    static final String RANGE_PROPERTY = "search.range";
+    static final String NEAREST_PROPERTY = "search.nearest";
+
+    private static final String RANGE_SEPARATOR = "..";
+
+    /**
+     * Вiдсортованi данi з доступом за iндексом: масив, стовпцi секунд або вiдображений у пам'ять iндекс.
+     */
+    interface SortedData {
+        /**
+         * Повертає кiлькiсть елементiв.
+         */
+        long size();
+
+        /**
+         * Повертає елемент за iндексом.
+         */
+        LocalDateTime get(long index);
+
+        /**
+         * Порiвнює елемент за iндексом зi значенням.
+         * 
+         * @return Вiд'ємне число, нуль або додатне число, якщо елемент менший, рiвний або бiльший за значення.
+         */
+        default int compare(long index, LocalDateTime value) {
+            return get(index).compareTo(value);
+        }
+
+        /**
+         * Створює вiдсортованi данi для вiдсортованого масиву.
+         */
+        static SortedData of(LocalDateTime[] sortedArray) {
+            return new SortedData() {
+                @Override
+                public long size() {
+                    return sortedArray.length;
+                }
+
+                @Override
+                public LocalDateTime get(long index) {
+                    return sortedArray[(int) index];
+                }
+            };
+        }
+    }
+
+    private RangeQuery() {
+    }
+
+    /**
+     * Виконує запити, заданi системними властивостями, i виводить їх результати.
+     * 
+     * @param data Вiдсортованi данi.
+     * @param container Назва контейнера для виведення (у мiсцевому вiдмiнку, наприклад "масивi").
+     * @param value Значення для пошуку найближчих (може бути null у пакетному режимi).
+     */
+    static void run(SortedData data, String container, LocalDateTime value) {
+        String range = System.getProperty(RANGE_PROPERTY);
+        if (range != null) {
+            int separator = range.indexOf(RANGE_SEPARATOR);
+            if (separator < 0) {
+                throw new RuntimeException("Дiапазон має бути заданий у форматi <вiд>..<до>: " + range);
+            }
+            LocalDateTime from = LocalDateTime.parse(range.substring(0, separator).trim(), DateTimeFormatter.ISO_DATE_TIME);
+            LocalDateTime to = LocalDateTime.parse(range.substring(separator + RANGE_SEPARATOR.length()).trim(),
+                    DateTimeFormatter.ISO_DATE_TIME);
+            printRange(data, container, from, to);
+        }
+
+        String nearest = System.getProperty(NEAREST_PROPERTY);
+        if (nearest != null && value != null) {
+            printNearest(data, container, value, Integer.parseInt(nearest.trim()));
+        }
+    }
+
+    /**
+     * Повертає iндекс першого елемента, не меншого за значення (або розмiр даних, якщо такого немає).
+     */
+    static long lowerBound(SortedData data, LocalDateTime value) {
+        long low = 0;
+        long high = data.size();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (data.compare(middle, value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Повертає iндекс першого елемента, бiльшого за значення (або розмiр даних, якщо такого немає).
+     */
+    static long upperBound(SortedData data, LocalDateTime value) {
+        long low = 0;
+        long high = data.size();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (data.compare(middle, value) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Повертає найбiльший елемент, не бiльший за значення, або null.
+     */
+    static LocalDateTime floor(SortedData data, LocalDateTime value) {
+        long index = upperBound(data, value) - 1;
+        return index >= 0 ? data.get(index) : null;
+    }
+
+    /**
+     * Повертає найменший елемент, не менший за значення, або null.
+     */
+    static LocalDateTime ceiling(SortedData data, LocalDateTime value) {
+        long index = lowerBound(data, value);
+        return index < data.size() ? data.get(index) : null;
+    }
+
+    /**
+     * Знаходить вiкно з k елементiв, найближчих до значення (за рiвної вiдстанi перевага - меншому елементу).
+     * 
+     * @return Межi вiкна {@code [from, to)} у вiдсортованих даних.
+     */
+    static long[] nearest(SortedData data, LocalDateTime value, int k) {
+        long size = data.size();
+        long from = lowerBound(data, value);
+        long to = from;
+        for (int i = 0; i < k && to - from < size; i++) {
+            if (to >= size || from > 0 && Duration.between(data.get(from - 1), value)
+                    .compareTo(Duration.between(value, data.get(to))) <= 0) {
+                from--;
+            } else {
+                to++;
+            }
+        }
+        return new long[] {from, to};
+    }
+
+    private static void printRange(SortedData data, String container, LocalDateTime from, LocalDateTime to) {
+        String operationName = "пошук дiапазону значень в " + container;
+        long startTime = Utils.startOperation();
+
+        long first = lowerBound(data, from);
+        long end = Math.max(first, upperBound(data, to));
+
+        Utils.printOperationDuration(startTime, operationName);
+
+        System.out.println("Значень в " + container + " вiд " + from + " до " + to + ": " + (end - first));
+        print(data, first, end);
+    }
+
+    private static void printNearest(SortedData data, String container, LocalDateTime value, int k) {
+        String operationName = "пошук " + k + " найближчих значень в " + container;
+        long startTime = Utils.startOperation();
+
+        LocalDateTime floor = floor(data, value);
+        LocalDateTime ceiling = ceiling(data, value);
+        long[] window = nearest(data, value, k);
+
+        Utils.printOperationDuration(startTime, operationName);
+
+        System.out.println("Найбiльше значення в " + container + ", не бiльше за '" + value + "': " + floor);
+        System.out.println("Найменше значення в " + container + ", не менше за '" + value + "': " + ceiling);
+        System.out.println("Найближчi до '" + value + "' значення в " + container + ": " + (window[1] - window[0]));
+        print(data, window[0], window[1]);
+    }
+
+    private static void print(SortedData data, long from, long to) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), Utils.READ_BUFFER_SIZE));
+        for (long i = from; i < to; i++) {
+            out.println(data.get(i));
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,344 @@
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Клас SortEngine сортує масиви та списки дати i часу обраною стратегiєю.
+ * 
+ * <p>Стратегiя задається системною властивiстю {@value #SORT_STRATEGY_PROPERTY}
+ * ({@code auto}, {@code sequential}, {@code parallel}, {@code radix}). У режимi {@code auto}
+ * стратегiя обирається за розмiром вхiдних даних.</p>
+ * 
+ * <p>Системна властивiсть {@value #DISTINCT_PROPERTY} вмикає видалення повторiв з вiдсортованого масиву
+ * ({@link #deduplicate(Comparable[])}).</p>
+ */
+class SortEngine {
+    static final String SORT_STRATEGY_PROPERTY = "sort.strategy";
+    static final String DISTINCT_PROPERTY = "sort.distinct";
+
+    /**
+     * Мiнiмальний розмiр масиву, для якого в режимi auto використовується Arrays.parallelSort.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * Мiнiмальний розмiр масиву, для якого в режимi auto використовується порозрядне сортування.
+     */
+    static final int RADIX_THRESHOLD = 1 << 16;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+    private static final int MIN_RADIX_CHUNK = 1 << 16;
+
+    /**
+     * Стратегiї сортування.
+     */
+    enum Strategy {
+        /** Вибiр стратегiї за розмiром даних. */
+        AUTO,
+        /** Однопотокове сортування Arrays.sort / Collections.sort (TimSort для об'єктiв). */
+        SEQUENTIAL,
+        /** Багатопотокове сортування Arrays.parallelSort. */
+        PARALLEL,
+        /** Багатопотокове порозрядне (LSD) сортування за ключами секунд вiд початку епохи. */
+        RADIX;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private SortEngine() {
+    }
+
+    /**
+     * Повертає стратегiю, задану системною властивiстю {@value #SORT_STRATEGY_PROPERTY}.
+     * 
+     * @return Обрана стратегiя сортування.
+     */
+    static Strategy configuredStrategy() {
+        String value = System.getProperty(SORT_STRATEGY_PROPERTY, Strategy.AUTO.toString());
+        try {
+            return Strategy.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Невiдома стратегiя сортування: " + value, e);
+        }
+    }
+
+    /**
+     * Сортує масив об'єктiв LocalDateTime.
+     * 
+     * <p>Порозрядне сортування можливе лише тодi, коли всi елементи не мають наносекунд;
+     * iнакше замiсть нього виконується Arrays.parallelSort.</p>
+     * 
+     * @param array Масив для сортування.
+     * @return Стратегiя, якою фактично вiдсортовано масив.
+     */
+    static Strategy sort(LocalDateTime[] array) {
+        return sort(array, resolve(configuredStrategy(), array.length));
+    }
+
+    /**
+     * Сортує список об'єктiв LocalDateTime.
+     * 
+     * @param list Список для сортування.
+     * @return Стратегiя, якою фактично вiдсортовано список.
+     */
+    static Strategy sort(List<LocalDateTime> list) {
+        Strategy strategy = resolve(configuredStrategy(), list.size());
+        if (strategy == Strategy.SEQUENTIAL) {
+            Collections.sort(list);
+            return strategy;
+        }
+
+        LocalDateTime[] array = list.toArray(new LocalDateTime[0]);
+        strategy = sort(array, strategy);
+        ListIterator<LocalDateTime> iterator = list.listIterator();
+        for (LocalDateTime dateTime : array) {
+            iterator.next();
+            iterator.set(dateTime);
+        }
+        return strategy;
+    }
+
+    /**
+     * Сортує масив ключiв long (секунд вiд початку епохи).
+     * 
+     * @param keys Масив для сортування.
+     * @return Стратегiя, якою фактично вiдсортовано масив.
+     */
+    static Strategy sort(long[] keys) {
+        Strategy strategy = resolve(configuredStrategy(), keys.length);
+        switch (strategy) {
+            case RADIX:
+                radixSort(keys, null);
+                break;
+            case PARALLEL:
+                Arrays.parallelSort(keys);
+                break;
+            default:
+                Arrays.sort(keys);
+                break;
+        }
+        return strategy;
+    }
+
+    /**
+     * Сортує масив значень double у порядку {@link Double#compare(double, double)}.
+     * 
+     * <p>Для порозрядного сортування бiти кожного значення перетворюються на ключ long,
+     * порядок якого збiгається з порядком значень double.</p>
+     * 
+     * @param values Масив для сортування.
+     * @return Стратегiя, якою фактично вiдсортовано масив.
+     */
+    static Strategy sort(double[] values) {
+        Strategy strategy = resolve(configuredStrategy(), values.length);
+        switch (strategy) {
+            case RADIX:
+                long[] keys = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    keys[i] = sortableKey(Double.doubleToLongBits(values[i]));
+                }
+                radixSort(keys, null);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = Double.longBitsToDouble(sortableKey(keys[i]));
+                }
+                break;
+            case PARALLEL:
+                Arrays.parallelSort(values);
+                break;
+            default:
+                Arrays.sort(values);
+                break;
+        }
+        return strategy;
+    }
+
+    /**
+     * Сортує масив довiльних порiвнюваних об'єктiв. Порозрядне сортування для них недоступне,
+     * тому замiсть нього виконується Arrays.parallelSort.
+     * 
+     * @param array Масив для сортування.
+     * @return Стратегiя, якою фактично вiдсортовано масив.
+     */
+    static <T extends Comparable<? super T>> Strategy sortComparable(T[] array) {
+        Strategy strategy = resolve(configuredStrategy(), array.length);
+        if (strategy == Strategy.SEQUENTIAL) {
+            Arrays.sort(array);
+            return strategy;
+        }
+        Arrays.parallelSort(array);
+        return Strategy.PARALLEL;
+    }
+
+    /**
+     * Видаляє повтори з вiдсортованого масиву за один лiнiйний прохiд: унiкальнi значення переносяться
+     * на початок масиву в тому ж порядку, а решта елементiв обнуляється.
+     * 
+     * @param sorted Масив, вiдсортований за зростанням.
+     * @return Кiлькiсть унiкальних значень (довжина заповненого початку масиву).
+     */
+    static <T extends Comparable<? super T>> int deduplicate(T[] sorted) {
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (count == 0 || sorted[i].compareTo(sorted[count - 1]) != 0) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        Arrays.fill(sorted, count, sorted.length, null);
+        return count;
+    }
+
+    /**
+     * Видаляє повтори з вiдсортованого масиву ключiв long за один лiнiйний прохiд.
+     * 
+     * @param sorted Масив, вiдсортований за зростанням.
+     * @return Кiлькiсть унiкальних значень (довжина заповненого початку масиву).
+     */
+    static int deduplicate(long[] sorted) {
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (count == 0 || sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Перетворює бiти double на ключ long зi збереженням порядку (перетворення є власною оберненою).
+     */
+    private static long sortableKey(long bits) {
+        return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+    }
+
+    private static Strategy sort(LocalDateTime[] array, Strategy strategy) {
+        if (strategy == Strategy.RADIX) {
+            long[] keys = new long[array.length];
+            for (int i = 0; i < array.length; i++) {
+                if (array[i].getNano() != 0) {
+                    strategy = Strategy.PARALLEL;
+                    break;
+                }
+                keys[i] = array[i].toEpochSecond(ZoneOffset.UTC);
+            }
+            if (strategy == Strategy.RADIX) {
+                radixSort(keys, array);
+                return strategy;
+            }
+        }
+
+        if (strategy == Strategy.PARALLEL) {
+            Arrays.parallelSort(array);
+        } else {
+            Arrays.sort(array);
+        }
+        return strategy;
+    }
+
+    private static Strategy resolve(Strategy strategy, int length) {
+        if (strategy != Strategy.AUTO) {
+            return strategy;
+        }
+        if (length < PARALLEL_THRESHOLD) {
+            return Strategy.SEQUENTIAL;
+        }
+        return length < RADIX_THRESHOLD ? Strategy.PARALLEL : Strategy.RADIX;
+    }
+
+    /**
+     * Порозрядне LSD-сортування ключiв (та, за наявностi, пов'язаних з ними значень) по 8 бiт за прохiд.
+     * 
+     * <p>Ключi розглядаються як беззнаковi вiдступи вiд мiнiмального ключа, тому кiлькiсть проходiв
+     * визначається дiапазоном значень, а не розрядністю long. Кожен прохiд рахує гiстограми
+     * i розкладає елементи частинами масиву паралельно у спiльному пулi fork-join.</p>
+     * 
+     * @param keys Ключi для сортування.
+     * @param values Значення, що переставляються разом iз ключами, або null.
+     */
+    static void radixSort(long[] keys, Object[] values) {
+        int length = keys.length;
+        if (length < 2) {
+            return;
+        }
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        int passes = (Long.SIZE - Long.numberOfLeadingZeros(max - min) + RADIX_BITS - 1) / RADIX_BITS;
+        if (passes == 0) {
+            return;
+        }
+
+        int chunkCount = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), length / MIN_RADIX_CHUNK));
+        int chunkSize = (length + chunkCount - 1) / chunkCount;
+        long offset = min;
+
+        long[] sourceKeys = keys;
+        long[] targetKeys = new long[length];
+        Object[] sourceValues = values;
+        Object[] targetValues = values == null ? null : new Object[length];
+        int[][] counts = new int[chunkCount][RADIX_BUCKETS];
+
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+            long[] fromKeys = sourceKeys;
+            long[] toKeys = targetKeys;
+            Object[] fromValues = sourceValues;
+            Object[] toValues = targetValues;
+
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                int[] count = counts[chunk];
+                Arrays.fill(count, 0);
+                int end = Math.min(length, (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    count[(int) ((fromKeys[i] - offset) >>> shift) & (RADIX_BUCKETS - 1)]++;
+                }
+            });
+
+            int position = 0;
+            for (int bucket = 0; bucket < RADIX_BUCKETS; bucket++) {
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    int count = counts[chunk][bucket];
+                    counts[chunk][bucket] = position;
+                    position += count;
+                }
+            }
+
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                int[] next = counts[chunk];
+                int end = Math.min(length, (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    int target = next[(int) ((fromKeys[i] - offset) >>> shift) & (RADIX_BUCKETS - 1)]++;
+                    toKeys[target] = fromKeys[i];
+                    if (fromValues != null) {
+                        toValues[target] = fromValues[i];
+                    }
+                }
+            });
+
+            sourceKeys = toKeys;
+            targetKeys = fromKeys;
+            sourceValues = toValues;
+            targetValues = fromValues;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            if (values != null) {
+                System.arraycopy(sourceValues, 0, values, 0, length);
+            }
+        }
+    }
+}
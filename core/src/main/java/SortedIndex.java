@@ -0,0 +1,537 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Клас SortedIndex зберiгає вiдсортованi значення дати i часу у двiйковому файлi фiксованої ширини
+ * та виконує двiйковий пошук безпосередньо у вiдображеному в пам'ять файлi.
+ * 
+ * <p>Формат файлу: заголовок {@value #HEADER_SIZE} байт (сигнатура, версiя, прапорцi, кiлькiсть
+ * значень, мiнiмум, максимум, розмiр, час змiни та контрольна сума CRC32C файлу з даними), далi
+ * вiдсортованi секунди вiд початку епохи (long) i, якщо встановлено прапорець {@link #FLAG_NANOS},
+ * наносекунди (int) у тому ж порядку.</p>
+ */
+class SortedIndex implements Closeable, RangeQuery.SortedData {
+    static final String INDEX_FILE_SUFFIX = ".index";
+    static final String INDEX_LOOKUP_PROPERTY = "index.lookup";
+    static final int HEADER_SIZE = 64;
+    static final int FLAG_NANOS = 1;
+
+    private static final int MAGIC = 0x4C445449;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final LongBuffer[] secondSegments;
+    private final IntBuffer[] nanoSegments;
+    private final long count;
+    private final long min;
+    private final long max;
+
+    private SortedIndex(FileChannel channel, Header header) throws IOException {
+        this.channel = channel;
+        count = header.count;
+        min = header.min;
+        max = header.max;
+
+        int segmentCount = (int) ((count + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        secondSegments = new LongBuffer[segmentCount];
+        nanoSegments = header.hasNanos() ? new IntBuffer[segmentCount] : null;
+        long nanosPosition = HEADER_SIZE + count * Long.BYTES;
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i << SEGMENT_SHIFT;
+            long size = Math.min(count - first, 1L << SEGMENT_SHIFT);
+            secondSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * Long.BYTES,
+                    size * Long.BYTES).asLongBuffer();
+            if (nanoSegments != null) {
+                nanoSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, nanosPosition + first * Integer.BYTES,
+                        size * Integer.BYTES).asIntBuffer();
+            }
+        }
+    }
+
+    /**
+     * Вiдкриває iндекс для файлу з даними, якщо вiн iснує i вiдповiдає поточному вмiсту файлу
+     * ({@link #verify(Path, DataStamp)}). Якщо змiнився лише час змiни файлу з даними, вiн оновлюється
+     * в заголовку iндексу, тож наступнi вiдкриття не перераховують контрольну суму.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @return Вiдкритий iндекс або null, якщо iндекс вiдсутнiй чи застарiв.
+     */
+    static SortedIndex open(String pathToDataFile) {
+        Path indexPath = Path.of(pathToDataFile + INDEX_FILE_SUFFIX);
+        if (!Files.isRegularFile(indexPath)) {
+            return null;
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(indexPath, StandardOpenOption.READ);
+            Header header = Header.read(channel);
+            if (header == null) {
+                channel.close();
+                return null;
+            }
+
+            DataStamp dataStamp = verify(Path.of(pathToDataFile),
+                    new DataStamp(header.dataSize, header.dataModified, header.dataChecksum));
+            if (dataStamp == null) {
+                channel.close();
+                return null;
+            }
+            if (dataStamp.modified != header.dataModified) {
+                refreshModified(indexPath, 48, dataStamp.modified);
+            }
+
+            return new SortedIndex(channel, header);
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Записує iндекс для вiдсортованого масиву LocalDateTime.
+     * 
+     * @param sortedArray Вiдсортований масив об'єктiв LocalDateTime.
+     * @param pathToDataFile Шлях до файлу з даними, з якого отримано масив.
+     * @param dataStamp Опис файлу з даними, знятий пiд час зчитування масиву.
+     */
+    static void write(LocalDateTime[] sortedArray, String pathToDataFile, DataStamp dataStamp) {
+        long[] seconds = new long[sortedArray.length];
+        int[] nanos = null;
+        for (int i = 0; i < sortedArray.length; i++) {
+            seconds[i] = sortedArray[i].toEpochSecond(ZoneOffset.UTC);
+            if (sortedArray[i].getNano() != 0) {
+                if (nanos == null) {
+                    nanos = new int[sortedArray.length];
+                }
+                nanos[i] = sortedArray[i].getNano();
+            }
+        }
+        write(seconds, nanos, pathToDataFile, dataStamp);
+    }
+
+    /**
+     * Записує iндекс для вiдсортованих стовпцiв секунд i наносекунд.
+     * 
+     * <p>Iндекс спочатку записується в тимчасовий файл, який потiм атомарно перейменовується,
+     * тому читачi нiколи не бачать частково записаного iндексу.</p>
+     * 
+     * <p>У заголовок записується опис файлу з даними, знятий пiд час зчитування, а не поточний стан файлу:
+     * якщо файл змiнився пiсля зчитування, iндекс не вiдповiдатиме йому i не буде використаний.
+     * Якщо опису немає (файл не вдалося зчитати), iндекс не записується.</p>
+     * 
+     * @param seconds Вiдсортованi секунди вiд початку епохи.
+     * @param nanos Наносекунди або null, якщо всi вони дорiвнюють 0.
+     * @param pathToDataFile Шлях до файлу з даними, з якого отримано масив.
+     * @param dataStamp Опис файлу з даними, знятий пiд час зчитування масиву.
+     */
+    static void write(long[] seconds, int[] nanos, String pathToDataFile, DataStamp dataStamp) {
+        if (dataStamp == null) {
+            return;
+        }
+
+        try (Writer writer = new Writer(pathToDataFile, seconds.length, nanos != null)) {
+            for (int i = 0; i < seconds.length; i++) {
+                writer.add(seconds[i], nanos == null ? 0 : nanos[i]);
+            }
+            writer.commit(dataStamp);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Повертає кiлькiсть значень в iндексi.
+     */
+    long count() {
+        return count;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Повертає значення з iндексу за його позицiєю.
+     */
+    @Override
+    public LocalDateTime get(long index) {
+        return LocalDateTime.ofEpochSecond(second(index), nano(index), ZoneOffset.UTC);
+    }
+
+    @Override
+    public int compare(long index, LocalDateTime value) {
+        return compare(index, value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+    }
+
+    /**
+     * Повертає мiнiмальне значення з заголовка iндексу.
+     */
+    LocalDateTime min() {
+        return LocalDateTime.ofEpochSecond(min, count == 0 ? 0 : nano(0), ZoneOffset.UTC);
+    }
+
+    /**
+     * Повертає максимальне значення з заголовка iндексу.
+     */
+    LocalDateTime max() {
+        return LocalDateTime.ofEpochSecond(max, count == 0 ? 0 : nano(count - 1), ZoneOffset.UTC);
+    }
+
+    /**
+     * Шукає значення в iндексi двiйковим пошуком.
+     * 
+     * @param value Значення для пошуку.
+     * @return Iндекс знайденого значення або -(точка вставки) - 1, як у {@link java.util.Arrays#binarySearch(long[], long)}.
+     */
+    long binarySearch(LocalDateTime value) {
+        long second = value.toEpochSecond(ZoneOffset.UTC);
+        int nano = value.getNano();
+
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (compare(middle, second, nano) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        if (low < count && compare(low, second, nano) == 0) {
+            return low;
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long second(long index) {
+        return secondSegments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    private int nano(long index) {
+        if (nanoSegments == null) {
+            return 0;
+        }
+        return nanoSegments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    private int compare(long index, long second, int nano) {
+        int result = Long.compare(second(index), second);
+        return result != 0 ? result : Integer.compare(nano(index), nano);
+    }
+
+    /**
+     * Перевiряє, чи вiдповiдає файл з даними опису, збереженому в похiдному файлi (iндексi, фiльтрi Блума, агрегатах).
+     * 
+     * <p>Розмiр i час змiни порiвнюються без читання файлу, тож iнший розмiр одразу означає змiну даних.
+     * Якщо вiдрiзняється лише час змiни (наприклад, пiсля {@code touch} або запису того самого вмiсту),
+     * файл перечитується i порiвнюється контрольна сума.</p>
+     * 
+     * @param dataPath Шлях до файлу з даними.
+     * @param stored Опис, збережений у похiдному файлi.
+     * @return Опис з поточним часом змiни файлу або null, якщо вмiст файлу змiнився.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static DataStamp verify(Path dataPath, DataStamp stored) throws IOException {
+        long size = Files.size(dataPath);
+        if (size != stored.size) {
+            return null;
+        }
+        long modified = Files.getLastModifiedTime(dataPath).toMillis();
+        if (modified == stored.modified) {
+            return stored;
+        }
+        return checksum(dataPath) == stored.checksum ? new DataStamp(size, modified, stored.checksum) : null;
+    }
+
+    /**
+     * Замiнює час змiни файлу з даними (long) у двiйковому заголовку похiдного файлу пiсля того, як
+     * {@link #verify(Path, DataStamp)} пiдтвердив незмiнний вмiст. Файл копiюється у тимчасовий i атомарно
+     * перейменовується, тому читачi бачать або старий, або новий заголовок. Помилка лише виводиться:
+     * застарiлий час змiни означає повторну перевiрку контрольної суми, а не невiрнi данi.
+     * 
+     * @param path Шлях до похiдного файлу.
+     * @param position Позицiя часу змiни в заголовку.
+     * @param modified Поточний час змiни файлу з даними (мс).
+     */
+    static void refreshModified(Path path, long position, long modified) {
+        Path tempPath = Path.of(path + ".tmp");
+        try {
+            Files.copy(path, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, modified);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, position + buffer.position());
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+        }
+    }
+
+    /**
+     * Обчислює контрольну суму CRC32C файлу.
+     */
+    static long checksum(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            updateChecksum(crc, channel, 0, channel.size());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Додає до контрольної суми CRC32C байти файлу з дiапазону [from, to).
+     * 
+     * @param crc Контрольна сума, що обчислюється.
+     * @param channel Канал файлу.
+     * @param from Позицiя першого байта.
+     * @param to Позицiя пiсля останнього байта.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static void updateChecksum(CRC32C crc, FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            int bytesRead = channel.read(buffer, position);
+            if (bytesRead < 0) {
+                throw new EOFException("Файл закiнчився ранiше позицiї " + to);
+            }
+            buffer.flip();
+            crc.update(buffer);
+            position += bytesRead;
+        }
+    }
+
+    /**
+     * Опис файлу з даними: розмiр, час змiни та контрольна сума CRC32C.
+     * 
+     * <p>Час змiни береться до початку зчитування, а розмiр i контрольна сума - з байтiв, якi фактично
+     * зчитано, тому опис вiдповiдає саме тим даним, з яких побудовано iндекс, фiльтр Блума чи агрегати.</p>
+     */
+    static final class DataStamp {
+        final long size;
+        final long modified;
+        final long checksum;
+
+        /**
+         * @param size Кiлькiсть зчитаних байтiв файлу з даними.
+         * @param modified Час змiни файлу з даними (мс), отриманий до початку зчитування.
+         * @param checksum Контрольна сума CRC32C зчитаних байтiв.
+         */
+        DataStamp(long size, long modified, long checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Заголовок iндексу: кiлькiсть значень, мiнiмум, максимум i опис файлу з даними, з якого побудовано iндекс.
+     */
+    static final class Header {
+        final int flags;
+        final long count;
+        final long min;
+        final long max;
+        final long dataSize;
+        final long dataModified;
+        final long dataChecksum;
+
+        private Header(ByteBuffer buffer) {
+            flags = buffer.getInt(8);
+            count = buffer.getLong(16);
+            min = buffer.getLong(24);
+            max = buffer.getLong(32);
+            dataSize = buffer.getLong(40);
+            dataModified = buffer.getLong(48);
+            dataChecksum = buffer.getLong(56);
+        }
+
+        /**
+         * Чи мiстить iндекс стовпець наносекунд.
+         */
+        boolean hasNanos() {
+            return (flags & FLAG_NANOS) != 0;
+        }
+
+        /**
+         * Зчитує заголовок iндексу для файлу з даними.
+         * 
+         * @param pathToDataFile Шлях до файлу з даними.
+         * @return Заголовок або null, якщо iндекс вiдсутнiй чи має iнший формат.
+         * @throws IOException Якщо виникла помилка читання.
+         */
+        static Header read(String pathToDataFile) throws IOException {
+            Path indexPath = Path.of(pathToDataFile + INDEX_FILE_SUFFIX);
+            if (!Files.isRegularFile(indexPath)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                return read(channel);
+            }
+        }
+
+        private static Header read(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // читаємо заголовок повнiстю
+            }
+            if (buffer.hasRemaining() || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new Header(buffer);
+        }
+    }
+
+    /**
+     * Послiдовно записує iндекс: значення додаються у вiдсортованому порядку, а заголовок записується
+     * в {@link #commit(DataStamp)}, пiсля чого тимчасовий файл атомарно перейменовується.
+     * Якщо {@link #close()} викликано без {@link #commit(DataStamp)}, тимчасовий файл видаляється.
+     */
+    static final class Writer implements Closeable {
+        private final Path indexPath;
+        private final Path tempPath;
+        private final FileChannel channel;
+        private final long count;
+        private final ByteBuffer secondBuffer = ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE);
+        private final ByteBuffer nanoBuffer;
+        private long secondPosition = HEADER_SIZE;
+        private long nanoPosition;
+        private long written;
+        private long min;
+        private long max;
+        private boolean committed;
+
+        /**
+         * @param pathToDataFile Шлях до файлу з даними.
+         * @param count Кiлькiсть значень, якi буде додано.
+         * @param withNanos Чи записувати стовпець наносекунд.
+         * @throws IOException Якщо тимчасовий файл не вдалося створити.
+         */
+        Writer(String pathToDataFile, long count, boolean withNanos) throws IOException {
+            this.indexPath = Path.of(pathToDataFile + INDEX_FILE_SUFFIX);
+            this.tempPath = Path.of(pathToDataFile + INDEX_FILE_SUFFIX + ".tmp");
+            this.count = count;
+            this.nanoBuffer = withNanos ? ByteBuffer.allocateDirect(Utils.READ_BUFFER_SIZE) : null;
+            this.nanoPosition = HEADER_SIZE + count * Long.BYTES;
+            this.channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Додає наступне значення у вiдсортованому порядку.
+         * 
+         * @param second Секунди вiд початку епохи.
+         * @param nano Наносекунди (iгноруються, якщо стовпець наносекунд не записується).
+         * @throws IOException Якщо виникла помилка запису.
+         */
+        void add(long second, int nano) throws IOException {
+            if (written == 0) {
+                min = second;
+            }
+            max = second;
+            written++;
+
+            if (secondBuffer.remaining() < Long.BYTES) {
+                secondPosition = drain(channel, secondBuffer, secondPosition);
+            }
+            secondBuffer.putLong(second);
+            if (nanoBuffer != null) {
+                if (nanoBuffer.remaining() < Integer.BYTES) {
+                    nanoPosition = drain(channel, nanoBuffer, nanoPosition);
+                }
+                nanoBuffer.putInt(nano);
+            }
+        }
+
+        /**
+         * Записує заголовок i атомарно перейменовує тимчасовий файл на файл iндексу.
+         * 
+         * @param dataStamp Опис файлу з даними, знятий пiд час його зчитування.
+         * @throws IOException Якщо виникла помилка запису або перейменування.
+         */
+        void commit(DataStamp dataStamp) throws IOException {
+            if (written != count) {
+                throw new IllegalStateException("Додано " + written + " значень iндексу замiсть " + count);
+            }
+            drain(channel, secondBuffer, secondPosition);
+            if (nanoBuffer != null) {
+                drain(channel, nanoBuffer, nanoPosition);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(nanoBuffer == null ? 0 : FLAG_NANOS)
+                    .putInt(0)
+                    .putLong(count)
+                    .putLong(min)
+                    .putLong(max)
+                    .putLong(dataStamp.size)
+                    .putLong(dataStamp.modified)
+                    .putLong(dataStamp.checksum);
+            drain(channel, header, 0);
+            channel.close();
+
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+
+        private static long drain(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+            return position;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Клас TimeBuckets обчислює кiлькостi значень дати i часу по годинах, днях i мiсяцях.
+ * 
+ * <p>Значення перетворюються на секунди вiд початку епохи, i за один прохiд рахується кiлькiсть у щiльному
+ * масивi кошикiв найдрiбнiшої гранулярностi (година, а для дуже широкого дiапазону - день); межi масиву кошикiв
+ * беруться з краю вiдсортованого масиву або з попереднього паралельного проходу. Великi масиви дiляться мiж
+ * потоками ForkJoinPool, кожна частина рахує у власний масив, i масиви сумуються в кiнцi. Днi та мiсяцi
+ * згортаються з дрiбнiших кошикiв, тож повторний прохiд даними не потрiбен.</p>
+ * 
+ * <p>Агрегати зберiгаються поруч з файлом ".sorted" у файлi "&lt;файл даних&gt;{@value #ROLLUP_FILE_SUFFIX}"
+ * (CSV з рядком {@code granularity,bucket_start,count}) разом з розмiром, часом змiни i контрольною сумою
+ * файлу з даними, тому повторна агрегацiя незмiненого файлу лише зчитує збережений результат.</p>
+ */
+class TimeBuckets {
+    static final String AGGREGATE_PROPERTY = "aggregate.buckets";
+    static final String ROLLUP_FILE_SUFFIX = ".rollup.csv";
+
+    /**
+     * Максимальна кiлькiсть кошикiв щiльного масиву (для годин - близько 478 рокiв).
+     */
+    private static final long MAX_DENSE_BUCKETS = 1L << 22;
+
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final String CSV_HEADER = "granularity,bucket_start,count";
+
+    /**
+     * Гранулярнiсть агрегацiї.
+     */
+    enum Granularity {
+        HOUR("годинах"),
+        DAY("днях"),
+        MONTH("мiсяцях");
+
+        final String label;
+
+        Granularity(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Назва гранулярностi у файлi агрегатiв i в системнiй властивостi.
+         */
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Непорожнi кошики однiєї гранулярностi у порядку зростання.
+     */
+    static final class Level {
+        final long[] starts;
+        final long[] counts;
+
+        Level(long[] starts, long[] counts) {
+            this.starts = starts;
+            this.counts = counts;
+        }
+    }
+
+    private final Map<Granularity, Level> levels = new EnumMap<>(Granularity.class);
+
+    private TimeBuckets() {
+    }
+
+    /**
+     * Повертає гранулярнiсть, задану системною властивiстю, або null, якщо агрегацiю вимкнено.
+     */
+    static Granularity configuredGranularity() {
+        String value = System.getProperty(AGGREGATE_PROPERTY);
+        if (value == null) {
+            return null;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            if (granularity.key().equals(value.trim())) {
+                return granularity;
+            }
+        }
+        throw new RuntimeException("Невiдома гранулярнiсть агрегацiї: " + value + " (очiкується hour, day або month)");
+    }
+
+    /**
+     * Обчислює агрегати масиву дати i часу.
+     * 
+     * @param array Масив значень.
+     * @param sorted Чи вiдсортований масив (тодi мiнiмум i максимум беруться з краю).
+     * @return Агрегати по годинах, днях i мiсяцях.
+     */
+    static TimeBuckets ofArray(LocalDateTime[] array, boolean sorted) {
+        return compute(array.length, index -> array[index].toEpochSecond(ZoneOffset.UTC), sorted);
+    }
+
+    /**
+     * Обчислює агрегати масиву секунд вiд початку епохи.
+     * 
+     * @param seconds Секунди вiд початку епохи (UTC).
+     * @param sorted Чи вiдсортований масив.
+     * @return Агрегати по годинах, днях i мiсяцях.
+     */
+    static TimeBuckets ofEpochSeconds(long[] seconds, boolean sorted) {
+        return compute(seconds.length, index -> seconds[index], sorted);
+    }
+
+    private static TimeBuckets compute(int size, IntToLongFunction key, boolean sorted) {
+        TimeBuckets buckets = new TimeBuckets();
+        if (size == 0) {
+            for (Granularity granularity : Granularity.values()) {
+                buckets.levels.put(granularity, new Level(new long[0], new long[0]));
+            }
+            return buckets;
+        }
+
+        long min;
+        long max;
+        if (sorted) {
+            min = key.applyAsLong(0);
+            max = key.applyAsLong(size - 1);
+        } else {
+            long[] range = IntStream.range(0, size).parallel().mapToLong(key)
+                    .collect(() -> new long[] {Long.MAX_VALUE, Long.MIN_VALUE},
+                            (result, value) -> {
+                                result[0] = Math.min(result[0], value);
+                                result[1] = Math.max(result[1], value);
+                            },
+                            (left, right) -> {
+                                left[0] = Math.min(left[0], right[0]);
+                                left[1] = Math.max(left[1], right[1]);
+                            });
+            min = range[0];
+            max = range[1];
+        }
+
+        int unit = Math.floorDiv(max, SECONDS_PER_HOUR) - Math.floorDiv(min, SECONDS_PER_HOUR) < MAX_DENSE_BUCKETS
+                ? SECONDS_PER_HOUR : SECONDS_PER_DAY;
+        long firstUnit = Math.floorDiv(min, unit);
+        long unitCount = Math.floorDiv(max, unit) - firstUnit + 1;
+        if (unitCount > MAX_DENSE_BUCKETS) {
+            throw new IllegalStateException("Дiапазон значень занадто великий для агрегацiї: " + unitCount + " днiв");
+        }
+
+        long threshold = Math.max(DataStatistics.PARALLEL_THRESHOLD, size / Math.max(1, ForkJoinPool.getCommonPoolParallelism()));
+        CountTask task = new CountTask(key, 0, size, threshold, unit, firstUnit, (int) unitCount);
+        long[] counts = size >= DataStatistics.PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1
+                ? ForkJoinPool.commonPool().invoke(task)
+                : task.compute();
+
+        if (unit == SECONDS_PER_HOUR) {
+            buckets.levels.put(Granularity.HOUR, sparse(counts, firstUnit, SECONDS_PER_HOUR));
+            counts = rollUp(counts, firstUnit, 24);
+            firstUnit = Math.floorDiv(firstUnit, 24);
+        }
+        buckets.levels.put(Granularity.DAY, sparse(counts, firstUnit, SECONDS_PER_DAY));
+        buckets.levels.put(Granularity.MONTH, months(counts, firstUnit));
+        return buckets;
+    }
+
+    /**
+     * Згортає щiльнi кошики в кошики, у {@code factor} разiв ширшi.
+     */
+    private static long[] rollUp(long[] counts, long firstUnit, int factor) {
+        long firstBucket = Math.floorDiv(firstUnit, factor);
+        long[] result = new long[(int) (Math.floorDiv(firstUnit + counts.length - 1, factor) - firstBucket + 1)];
+        for (int i = 0; i < counts.length; i++) {
+            result[(int) (Math.floorDiv(firstUnit + i, factor) - firstBucket)] += counts[i];
+        }
+        return result;
+    }
+
+    private static Level sparse(long[] counts, long firstUnit, int unit) {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        long[] starts = new long[nonEmpty];
+        long[] values = new long[nonEmpty];
+        int index = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                starts[index] = (firstUnit + i) * unit;
+                values[index++] = counts[i];
+            }
+        }
+        return new Level(starts, values);
+    }
+
+    /**
+     * Згортає щiльнi кошики днiв у кошики календарних мiсяцiв.
+     */
+    private static Level months(long[] dayCounts, long firstDay) {
+        List<long[]> months = new ArrayList<>();
+        long currentMonthStart = Long.MIN_VALUE;
+        for (int i = 0; i < dayCounts.length; i++) {
+            if (dayCounts[i] == 0) {
+                continue;
+            }
+            long monthStart = LocalDate.ofEpochDay(firstDay + i).withDayOfMonth(1).toEpochDay() * SECONDS_PER_DAY;
+            if (monthStart != currentMonthStart) {
+                months.add(new long[] {monthStart, 0});
+                currentMonthStart = monthStart;
+            }
+            months.get(months.size() - 1)[1] += dayCounts[i];
+        }
+
+        long[] starts = new long[months.size()];
+        long[] counts = new long[months.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = months.get(i)[0];
+            counts[i] = months.get(i)[1];
+        }
+        return new Level(starts, counts);
+    }
+
+    /**
+     * Повертає кошики гранулярностi або null, якщо її не обчислено (години для дуже широкого дiапазону).
+     */
+    Level level(Granularity granularity) {
+        return levels.get(granularity);
+    }
+
+    /**
+     * Виводить непорожнi кошики гранулярностi у форматi {@code <початок кошика>\t<кiлькiсть>}.
+     * 
+     * @param granularity Гранулярнiсть.
+     */
+    void print(Granularity granularity) {
+        Level level = levels.get(granularity);
+        if (level == null) {
+            System.out.println("Агрегацiя по " + granularity.label + " недоступна: дiапазон значень занадто великий.");
+            return;
+        }
+
+        System.out.println("Кiлькiсть значень по " + granularity.label + " (непорожнiх кошикiв: " + level.starts.length + "):");
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), Utils.READ_BUFFER_SIZE));
+        for (int i = 0; i < level.starts.length; i++) {
+            out.print(LocalDateTime.ofEpochSecond(level.starts[i], 0, ZoneOffset.UTC));
+            out.print('\t');
+            out.println(level.counts[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Зберiгає агрегати у файл "&lt;файл даних&gt;{@value #ROLLUP_FILE_SUFFIX}" разом з описом файлу з даними,
+     * знятим пiд час зчитування масиву. Без опису агрегати не зберiгаються.
+     * 
+     * @param pathToDataFile Шлях до файлу з даними, з якого обчислено агрегати.
+     * @param dataStamp Опис файлу з даними, знятий пiд час зчитування масиву.
+     */
+    void save(String pathToDataFile, SortedIndex.DataStamp dataStamp) {
+        if (dataStamp == null) {
+            return;
+        }
+
+        try (DataFileWriter writer = new DataFileWriter(pathToDataFile + ROLLUP_FILE_SUFFIX, false)) {
+            writer.writeLine("# data-size=" + dataStamp.size
+                    + " data-modified=" + dataStamp.modified
+                    + " data-crc32c=" + dataStamp.checksum);
+            writer.writeLine(CSV_HEADER);
+            for (Map.Entry<Granularity, Level> entry : levels.entrySet()) {
+                String prefix = entry.getKey().key() + ",";
+                Level level = entry.getValue();
+                for (int i = 0; i < level.starts.length; i++) {
+                    writer.writeLine(prefix + LocalDateTime.ofEpochSecond(level.starts[i], 0, ZoneOffset.UTC) + "," + level.counts[i]);
+                }
+            }
+            writer.commit();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Зчитує збереженi агрегати, якщо вони вiдповiдають поточному вмiсту файлу з даними.
+     * 
+     * <p>Файл з даними перевiряє {@link SortedIndex#verify(Path, SortedIndex.DataStamp)}; якщо змiнився
+     * лише його час змiни, агрегати перезаписуються з новим часом змiни.</p>
+     * 
+     * @param pathToDataFile Шлях до файлу з даними.
+     * @return Агрегати або null, якщо файл агрегатiв вiдсутнiй чи застарiв.
+     */
+    static TimeBuckets load(String pathToDataFile) {
+        Path rollupPath = Path.of(pathToDataFile + ROLLUP_FILE_SUFFIX);
+        if (!Files.isRegularFile(rollupPath)) {
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(rollupPath, StandardCharsets.UTF_8)) {
+            String metadata = reader.readLine();
+            if (metadata == null || !metadata.startsWith("# ") || !CSV_HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            Map<String, Long> description = new HashMap<>();
+            for (String field : metadata.substring(2).split(" ")) {
+                int separator = field.indexOf('=');
+                description.put(field.substring(0, separator), Long.parseLong(field.substring(separator + 1)));
+            }
+
+            long storedModified = description.getOrDefault("data-modified", -1L);
+            SortedIndex.DataStamp dataStamp = SortedIndex.verify(Path.of(pathToDataFile), new SortedIndex.DataStamp(
+                    description.getOrDefault("data-size", -1L), storedModified, description.getOrDefault("data-crc32c", -1L)));
+            if (dataStamp == null) {
+                return null;
+            }
+
+            Map<Granularity, List<long[]>> rows = new EnumMap<>(Granularity.class);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                Granularity granularity = Granularity.valueOf(fields[0].toUpperCase(Locale.ROOT));
+                long start = LocalDateTime.parse(fields[1]).toEpochSecond(ZoneOffset.UTC);
+                rows.computeIfAbsent(granularity, key -> new ArrayList<>()).add(new long[] {start, Long.parseLong(fields[2])});
+            }
+
+            TimeBuckets buckets = new TimeBuckets();
+            for (Granularity granularity : Granularity.values()) {
+                List<long[]> levelRows = rows.get(granularity);
+                if (levelRows == null && granularity == Granularity.HOUR) {
+                    continue;
+                }
+                int count = levelRows == null ? 0 : levelRows.size();
+                long[] starts = new long[count];
+                long[] counts = new long[count];
+                for (int i = 0; i < count; i++) {
+                    starts[i] = levelRows.get(i)[0];
+                    counts[i] = levelRows.get(i)[1];
+                }
+                buckets.levels.put(granularity, new Level(starts, counts));
+            }
+            if (dataStamp.modified != storedModified) {
+                buckets.save(pathToDataFile, dataStamp);
+            }
+            return buckets;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            System.out.println("Файл агрегатiв пошкоджено: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Задача ForkJoin, що рахує значення частини масиву у власний масив кошикiв.
+     */
+    private static final class CountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final IntToLongFunction key;
+        private final int from;
+        private final int to;
+        private final long threshold;
+        private final int unit;
+        private final long firstUnit;
+        private final int unitCount;
+
+        CountTask(IntToLongFunction key, int from, int to, long threshold, int unit, long firstUnit, int unitCount) {
+            this.key = key;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.unit = unit;
+            this.firstUnit = firstUnit;
+            this.unitCount = unitCount;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= threshold) {
+                long[] counts = new long[unitCount];
+                for (int i = from; i < to; i++) {
+                    counts[(int) (Math.floorDiv(key.applyAsLong(i), unit) - firstUnit)]++;
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(key, from, middle, threshold, unit, firstUnit, unitCount);
+            left.fork();
+            long[] counts = new CountTask(key, middle, to, threshold, unit, firstUnit, unitCount).compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < unitCount; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+    }
+}
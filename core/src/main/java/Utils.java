@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Клас Utils мiститить допомiжнi методи для роботи з даними типу LocalDateTime.
+ */
+class Utils {
+    /**
+     * Розмiр прямого буфера, через який файл з даними читається з FileChannel.
+     */
+    static final int READ_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Орiєнтовна довжина рядка у файлi з даними (разом iз символом нового рядка),
+     * за якою попередньо оцiнюється кiлькiсть рядкiв у файлi.
+     */
+    static final int ESTIMATED_LINE_LENGTH = 21;
+
+    /**
+     * Максимальна довжина масиву, яку гарантовано може видiлити JVM.
+     */
+    static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Повертає час початку операцiї в наносекундах.
+     * 
+     * <p>Якщо збiр метрик увiмкнено ({@link OperationMetrics#METRICS_OUTPUT_PROPERTY}), додатково
+     * запам'ятовує кiлькiсть байтiв, видiлених поточним потоком, щоб обчислити видiлення пам'ятi операцiєю.</p>
+     * 
+     * @return Час початку операцiї в наносекундах.
+     */
+    static long startOperation() {
+        return OperationMetrics.ENABLED ? OperationMetrics.start() : System.nanoTime();
+    }
+
+    /**
+     * Виводить час виконання операцiї в наносекундах.
+     * 
+     * @param startTime Час початку операцiї в наносекундах.
+     * @param operationName Назва операцiї.
+     */
+    static void printOperationDuration(long startTime, String operationName) {
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime);
+        if (OperationMetrics.ENABLED) {
+            OperationMetrics.record(operationName, startTime, duration, 0);
+        }
+        System.out.println("\n>>>>>>>>> Час виконання операцiї '" + operationName + "': " + duration + " наносекунд");
+    }
+
+    /**
+     * Виводить час виконання операцiї сортування в наносекундах разом зi стратегiєю, яка виконувалась.
+     * 
+     * @param startTime Час початку операцiї в наносекундах.
+     * @param operationName Назва операцiї.
+     * @param strategy Стратегiя сортування, повернута {@link SortEngine}.
+     */
+    static void printOperationDuration(long startTime, String operationName, SortEngine.Strategy strategy) {
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime);
+        if (OperationMetrics.ENABLED) {
+            OperationMetrics.record(operationName, startTime, duration, 0);
+        }
+        System.out.println("\n>>>>>>>>> Час виконання операцiї '" + operationName + "' (стратегiя " + strategy + "): "
+                + duration + " наносекунд");
+    }
+
+    /**
+     * Виводить час виконання операцiї в наносекундах та пропускну здатнiсть у рядках за секунду.
+     * 
+     * @param startTime Час початку операцiї в наносекундах.
+     * @param operationName Назва операцiї.
+     * @param lineCount Кiлькiсть оброблених рядкiв.
+     */
+    static void printOperationThroughput(long startTime, String operationName, long lineCount) {
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime);
+        if (OperationMetrics.ENABLED) {
+            OperationMetrics.record(operationName, startTime, duration, lineCount);
+        }
+        long linesPerSecond = duration > 0 ? (long) (lineCount * 1_000_000_000.0 / duration) : lineCount;
+        System.out.println("\n>>>>>>>>> Час виконання операцiї '" + operationName + "': " + duration + " наносекунд, "
+                + lineCount + " рядкiв, " + linesPerSecond + " рядкiв/с");
+    }
+
+    /**
+     * Виводить час виконання операцiї запису в наносекундах та швидкiсть запису в байтах за секунду.
+     * 
+     * @param startTime Час початку операцiї в наносекундах.
+     * @param operationName Назва операцiї.
+     * @param lineCount Кiлькiсть записаних рядкiв.
+     * @param byteCount Кiлькiсть записаних байтiв.
+     */
+    static void printWriteThroughput(long startTime, String operationName, long lineCount, long byteCount) {
+        long endTime = System.nanoTime();
+        long duration = (endTime - startTime);
+        if (OperationMetrics.ENABLED) {
+            OperationMetrics.record(operationName, startTime, duration, lineCount);
+        }
+        long bytesPerSecond = duration > 0 ? (long) (byteCount * 1_000_000_000.0 / duration) : byteCount;
+        System.out.println("\n>>>>>>>>> Час виконання операцiї '" + operationName + "': " + duration + " наносекунд, "
+                + lineCount + " рядкiв, " + byteCount + " байт, " + bytesPerSecond + " байт/с");
+    }
+
+    /**
+     * Зчитує масив об'єктiв LocalDateTime з файлу.
+     * 
+     * <p>Розмiр масиву попередньо оцiнюється за довжиною файлу i за потреби збiльшується в 1,5 раза,
+     * тому кiлькiсть рядкiв у файлi обмежена лише максимальною довжиною масиву.
+     * Для файлiв, якi не вмiщуються в пам'ять, слiд використовувати {@link #streamFromFile(String)}.</p>
+     * 
+     * <p>Великi файли зчитуються паралельно частинами, вiдображеними в пам'ять ({@link ChunkedFileLoader}).</p>
+     * 
+     * @param pathToFile Шлях до файлу з даними.
+     * @return Масив об'єктiв LocalDateTime.
+     */
+    static LocalDateTime[] readArrayFromFile(String pathToFile) {
+        return readArrayFromFile(pathToFile, null);
+    }
+
+    /**
+     * Зчитує масив об'єктiв LocalDateTime з файлу i передає опис файлу з даними для iндексу, фiльтра Блума
+     * та агрегатiв: час змiни береться до початку читання, а розмiр i контрольна сума CRC32C обчислюються
+     * з байтiв, якi зчитано в масив, тож файл не перечитується i опис не може вiдповiдати iншим даним.
+     * 
+     * @param pathToFile Шлях до файлу з даними.
+     * @param stampConsumer Отримує опис файлу з даними (null - не обчислювати); не викликається, якщо файл
+     *                      не вдалося зчитати.
+     * @return Масив об'єктiв LocalDateTime.
+     */
+    static LocalDateTime[] readArrayFromFile(String pathToFile, Consumer<SortedIndex.DataStamp> stampConsumer) {
+        Path path = Path.of(pathToFile);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long modified = stampConsumer != null ? Files.getLastModifiedTime(path).toMillis() : 0;
+            if (ChunkedFileLoader.isWorthwhile(channel.size())) {
+                return ChunkedFileLoader.load(channel, modified, stampConsumer);
+            }
+
+            DataLineReader reader = new DataLineReader(channel);
+            if (stampConsumer == null) {
+                return readArray(reader);
+            }
+            reader.computeChecksum();
+            LocalDateTime[] array = readArray(reader);
+            stampConsumer.accept(reader.stamp(modified));
+            return array;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new LocalDateTime[0];
+    }
+
+    /**
+     * Зчитує масив об'єктiв LocalDateTime з усiх рядкiв, що залишилися в читачi.
+     * 
+     * @param reader Читач рядкiв дати i часу.
+     * @return Масив об'єктiв LocalDateTime.
+     * @throws IOException Якщо виникла помилка читання.
+     */
+    static LocalDateTime[] readArray(DataLineReader reader) throws IOException {
+        LocalDateTime[] tempArray = new LocalDateTime[reader.estimateLineCount()];
+        int index = 0;
+
+        while (reader.nextLine()) {
+            if (index == tempArray.length) {
+                tempArray = Arrays.copyOf(tempArray, grow(index));
+            }
+            tempArray[index++] = reader.parseLine();
+        }
+
+        if (index == tempArray.length) {
+            return tempArray;
+        }
+        return Arrays.copyOf(tempArray, index);
+    }
+
+    /**
+     * Повертає потiк об'єктiв LocalDateTime, якi зчитуються з файлу по одному рядку.
+     * 
+     * <p>На вiдмiну вiд {@link #readArrayFromFile(String)}, файл не завантажується в пам'ять повнiстю,
+     * тому розмiр файлу не обмежений. Потiк необхiдно закрити пiсля використання.</p>
+     * 
+     * @param pathToFile Шлях до файлу з даними.
+     * @return Потiк об'єктiв LocalDateTime.
+     */
+    static Stream<LocalDateTime> streamFromFile(String pathToFile) {
+        DataLineReader reader;
+        try {
+            reader = new DataLineReader(pathToFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Spliterator<LocalDateTime> spliterator = Spliterators.spliteratorUnknownSize(reader.iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(reader::closeUnchecked);
+    }
+
+    /**
+     * Записує масив об'єктiв LocalDateTime у файл i виводить швидкiсть запису.
+     * 
+     * <p>Файл записується атомарно через {@link DataFileWriter}: до завершення запису на його мiсцi
+     * залишається попередня версiя.</p>
+     * 
+     * @param dateTimeArray Масив об'єктiв LocalDateTime.
+     * @param pathToFile Шлях до файлу для запису.
+     */
+    static void writeArrayToFile(LocalDateTime[] dateTimeArray, String pathToFile) {
+        long startTime = startOperation();
+
+        try (DataFileWriter writer = new DataFileWriter(pathToFile)) {
+            for (LocalDateTime dateTime : dateTimeArray) {
+                writer.write(dateTime);
+            }
+            writer.commit();
+
+            printWriteThroughput(startTime, "запис масиву дати i часу у файл", writer.lineCount(), writer.byteCount());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Обчислює нову мiсткiсть масиву при його заповненнi.
+     * 
+     * @param capacity Поточна мiсткiсть масиву.
+     * @return Нова мiсткiсть масиву.
+     */
+    static int grow(int capacity) {
+        if (capacity >= MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException("Кiлькiсть рядкiв у файлi перевищує максимальну довжину масиву");
+        }
+        return (int) Math.min(MAX_ARRAY_LENGTH, capacity + (capacity >> 1) + 16L);
+    }
+}
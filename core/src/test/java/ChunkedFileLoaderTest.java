@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Перевiряє поєднання контрольних сум частин i паралельне зчитування порiвнянням з CRC32C над з'єднаними байтами
+ * та з послiдовним зчитуванням.
+ */
+class ChunkedFileLoaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void combinedChecksumMatchesChecksumOfJoinedBytes() {
+        Random random = new Random(1);
+        int[] lengths = {0, 1, 3, 4, 7, 64, 1000, 65_537, 1 << 20};
+        for (int firstLength : lengths) {
+            for (int secondLength : lengths) {
+                byte[] first = new byte[firstLength];
+                byte[] second = new byte[secondLength];
+                random.nextBytes(first);
+                random.nextBytes(second);
+
+                CRC32C joined = new CRC32C();
+                joined.update(first);
+                joined.update(second);
+
+                long combined = ChunkedFileLoader.combineChecksums(checksum(first), checksum(second), secondLength);
+                assertEquals(joined.getValue(), combined, firstLength + " + " + secondLength);
+            }
+        }
+    }
+
+    @Test
+    void parallelLoadMatchesSequentialRead() throws IOException {
+        Path dataFile = directory.resolve("data.txt");
+        LocalDateTime[] values = SortEngineTest.randomDateTimes(new Random(2),
+                (int) (ChunkedFileLoader.PARALLEL_THRESHOLD / 16), true);
+        try (DataFileWriter writer = new DataFileWriter(dataFile.toString(), false)) {
+            for (LocalDateTime value : values) {
+                writer.write(value);
+            }
+            writer.commit();
+        }
+
+        AtomicReference<SortedIndex.DataStamp> stamp = new AtomicReference<>();
+        LocalDateTime[] loaded;
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            loaded = ChunkedFileLoader.load(channel, 0, stamp::set);
+        }
+
+        assertArrayEquals(values, loaded);
+        assertEquals(Files.size(dataFile), stamp.get().size);
+        assertEquals(SortedIndex.checksum(dataFile), stamp.get().checksum);
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
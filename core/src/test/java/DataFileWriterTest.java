@@ -0,0 +1,58 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Перевiряє форматування дати i часу з об'єктiв i з секунд вiд початку епохи порiвнянням з LocalDateTime.toString.
+ */
+class DataFileWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void epochSecondFormatMatchesToString() throws IOException {
+        Random random = new Random(1);
+        List<LocalDateTime> values = new ArrayList<>();
+        // межi днiв, високоснi роки, межi 400-рiчних циклiв i дати поза чотирицифровими роками
+        for (String text : new String[] {"1970-01-01T00:00", "1969-12-31T23:59:59.999999999", "2000-02-29T12:00:01",
+                "1900-03-01T00:00:00.001", "2100-02-28T23:59:59.000001", "0000-01-01T00:00", "9999-12-31T23:59:59",
+                "-0001-12-31T23:59:59", "+10000-01-01T00:00", "1600-02-29T00:00:00.123456789"}) {
+            values.add(LocalDateTime.parse(text));
+        }
+        int[] nanos = {0, 1, 999_000_000, 120_000, 500_000_000, 123_456_789};
+        for (int i = 0; i < 100_000; i++) {
+            long epochSecond = random.nextLong(-70_000_000_000L, 260_000_000_000L);
+            values.add(LocalDateTime.ofEpochSecond(epochSecond, nanos[i % nanos.length], ZoneOffset.UTC));
+        }
+
+        Path epochFile = directory.resolve("epoch.txt");
+        Path objectFile = directory.resolve("object.txt");
+        try (DataFileWriter epochWriter = new DataFileWriter(epochFile.toString(), false);
+                DataFileWriter objectWriter = new DataFileWriter(objectFile.toString(), false)) {
+            for (LocalDateTime value : values) {
+                epochWriter.write(value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+                objectWriter.write(value);
+            }
+            epochWriter.commit();
+            objectWriter.commit();
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (LocalDateTime value : values) {
+            expected.add(value.toString());
+        }
+        assertEquals(expected, Files.readAllLines(epochFile, StandardCharsets.US_ASCII));
+        assertEquals(expected, Files.readAllLines(objectFile, StandardCharsets.US_ASCII));
+    }
+}
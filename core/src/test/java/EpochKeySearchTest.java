@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Перевiряє iнтерполяцiйний пошук i навчений iндекс порiвнянням з нижньою межею, знайденою Arrays.binarySearch.
+ */
+class EpochKeySearchTest {
+    private static final int SIZE = 100_000;
+
+    @Test
+    void lowerBoundMatchesBinarySearchOnUniformKeys() {
+        Random random = new Random(1);
+        assertLowerBounds(random.longs(SIZE, 0, 3_000_000_000L).sorted().toArray(), random);
+    }
+
+    @Test
+    void lowerBoundMatchesBinarySearchOnSkewedKeysWithDuplicates() {
+        Random random = new Random(2);
+        long[] keys = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // квадратичний перекiс, пачки однакових ключiв i далекий "хвiст"
+            long base = (long) Math.pow(random.nextInt(SIZE), 2);
+            keys[i] = i % 7 == 0 ? base / 1000 * 1000 : base;
+        }
+        keys[SIZE - 1] = Long.MAX_VALUE / 2;
+        Arrays.sort(keys);
+        assertLowerBounds(keys, random);
+    }
+
+    @Test
+    void lowerBoundHandlesTinyInputs() {
+        Random random = new Random(3);
+        assertLowerBounds(new long[0], random);
+        assertLowerBounds(new long[] {42}, random);
+        assertLowerBounds(new long[] {7, 7, 7, 7}, random);
+    }
+
+    @Test
+    void searchFindsFirstOccurrenceLikeBinarySearch() {
+        Random random = new Random(4);
+        LocalDateTime[] array = SortEngineTest.randomDateTimes(random, SIZE, true);
+        for (int i = 0; i < SIZE; i += 5) {
+            array[i] = array[random.nextInt(SIZE)];
+        }
+        Arrays.sort(array);
+        LocalDateTime[] probes = SortEngineTest.randomDateTimes(random, 2_000, true);
+
+        for (EpochKeySearch.Method method : new EpochKeySearch.Method[] {
+                EpochKeySearch.Method.INTERPOLATION, EpochKeySearch.Method.LEARNED}) {
+            EpochKeySearch search = EpochKeySearch.of(array, method);
+            for (int i = 0; i < 2_000; i++) {
+                LocalDateTime present = array[random.nextInt(SIZE)];
+                assertEquals(firstIndex(array, present), search.search(array, present), method + " " + present);
+                assertEquals(firstIndex(array, probes[i]), search.search(array, probes[i]), method + " " + probes[i]);
+                assertEquals(firstIndex(array, present), EpochKeySearch.binarySearch(array, present));
+            }
+        }
+    }
+
+    private static void assertLowerBounds(long[] keys, Random random) {
+        EpochKeySearch interpolation = EpochKeySearch.of(keys, EpochKeySearch.Method.INTERPOLATION);
+        EpochKeySearch learned = EpochKeySearch.of(keys, EpochKeySearch.Method.LEARNED);
+        long[] probes = new long[4_000];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = keys.length > 0 && i % 2 == 0 ? keys[random.nextInt(keys.length)] + (i % 4 == 0 ? 0 : 1)
+                    : random.nextLong();
+        }
+        probes[0] = Long.MIN_VALUE;
+        probes[1] = Long.MAX_VALUE;
+
+        for (long key : probes) {
+            int expected = lowerBound(keys, key);
+            assertEquals(expected, interpolation.lowerBound(key), "interpolation " + key);
+            assertEquals(expected, learned.lowerBound(key), "learned " + key);
+        }
+    }
+
+    /**
+     * Нижня межа за Arrays.binarySearch: точка вставки для вiдсутнього ключа або перше з рiвних входжень.
+     */
+    private static int lowerBound(long[] keys, long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && keys[index - 1] == key) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int firstIndex(LocalDateTime[] array, LocalDateTime value) {
+        int index = Arrays.binarySearch(array, value);
+        if (index < 0) {
+            return index;
+        }
+        while (index > 0 && array[index - 1].equals(value)) {
+            index--;
+        }
+        return index;
+    }
+}
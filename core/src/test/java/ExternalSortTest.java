@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Перевiряє злиття серiй деревом переможених порiвнянням файлу ".sorted" та iндексу з Arrays.sort.
+ */
+class ExternalSortTest {
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(ExternalSort.MEMORY_BUDGET_PROPERTY);
+        System.clearProperty(ExternalSort.TEMP_DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void sortedFileAndIndexMatchArraysSort() throws IOException {
+        Random random = new Random(1);
+        LocalDateTime[] values = SortEngineTest.randomDateTimes(random, 50_000, true);
+        for (int i = 0; i < values.length; i += 4) {
+            values[i] = values[random.nextInt(values.length)];
+        }
+        String pathToDataFile = directory.resolve("data.txt").toString();
+        writeValues(pathToDataFile, values);
+
+        // найменший бюджет: серiї по 1024 значення, тож злиття проходить дерево з кiлькох рiвнiв
+        System.setProperty(ExternalSort.MEMORY_BUDGET_PROPERTY, "1k");
+        System.setProperty(ExternalSort.TEMP_DIRECTORY_PROPERTY, directory.toString());
+
+        assertEquals(values.length, ExternalSort.sort(pathToDataFile));
+
+        LocalDateTime[] expected = values.clone();
+        Arrays.sort(expected);
+        assertEquals(lines(expected), Files.readAllLines(Path.of(pathToDataFile + IncrementalMerge.SORTED_FILE_SUFFIX),
+                StandardCharsets.US_ASCII));
+        assertIndexEquals(expected, pathToDataFile);
+        try (var runDirectories = Files.list(directory)) {
+            assertEquals(0, runDirectories.filter(Files::isDirectory).count());
+        }
+    }
+
+    static void writeValues(String pathToFile, LocalDateTime[] values) throws IOException {
+        try (DataFileWriter writer = new DataFileWriter(pathToFile, false)) {
+            for (LocalDateTime value : values) {
+                writer.write(value);
+            }
+            writer.commit();
+        }
+    }
+
+    static List<String> lines(LocalDateTime[] values) {
+        List<String> lines = new ArrayList<>(values.length);
+        for (LocalDateTime value : values) {
+            lines.add(value.toString());
+        }
+        return lines;
+    }
+
+    static void assertIndexEquals(LocalDateTime[] expected, String pathToDataFile) throws IOException {
+        SortedIndex index = SortedIndex.open(pathToDataFile);
+        assertNotNull(index);
+        try (index) {
+            assertEquals(expected.length, index.count());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], index.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Перевiряє повний цикл: сортування з видаленням повторiв, запис ".sorted" та iндексу, дописування рядкiв
+ * i злиття - результат має збiгатися з Arrays.sort усiх рядкiв файлу разом з повторами.
+ */
+class IncrementalMergeTest {
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(SortEngine.DISTINCT_PROPERTY);
+    }
+
+    @Test
+    void distinctSortThenMergeKeepsEveryRow() throws IOException {
+        Random random = new Random(1);
+        LocalDateTime[] values = SortEngineTest.randomDateTimes(random, 20_000, true);
+        for (int i = 0; i < values.length; i += 3) {
+            values[i] = values[random.nextInt(values.length)];
+        }
+        String pathToDataFile = directory.resolve("data.txt").toString();
+        ExternalSortTest.writeValues(pathToDataFile, values);
+
+        System.setProperty(SortEngine.DISTINCT_PROPERTY, "true");
+        DateTimeDataset data = new DateTimeDataset(pathToDataFile, values[0]);
+        data.readArray();
+        data.sortArray();
+        data.writeSortedFiles();
+
+        LocalDateTime[] expected = values.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(Arrays.stream(expected).distinct().toArray(), data.dateTimeArray);
+        assertSortedFilesEqual(expected, pathToDataFile);
+
+        // дописанi рядки: повтори вже наявних значень i новi значення
+        LocalDateTime[] appended = SortEngineTest.randomDateTimes(random, 500, true);
+        for (int i = 0; i < appended.length; i += 2) {
+            appended[i] = values[random.nextInt(values.length)];
+        }
+        Files.write(Path.of(pathToDataFile), ExternalSortTest.lines(appended), StandardCharsets.US_ASCII,
+                StandardOpenOption.APPEND);
+
+        assertEquals(appended.length, IncrementalMerge.merge(pathToDataFile));
+
+        LocalDateTime[] all = Arrays.copyOf(values, values.length + appended.length);
+        System.arraycopy(appended, 0, all, values.length, appended.length);
+        Arrays.sort(all);
+        assertSortedFilesEqual(all, pathToDataFile);
+        assertEquals(0, IncrementalMerge.merge(pathToDataFile));
+    }
+
+    @Test
+    void mergeRejectsRewrittenFile() throws IOException {
+        LocalDateTime[] values = SortEngineTest.randomDateTimes(new Random(2), 1_000, false);
+        String pathToDataFile = directory.resolve("data.txt").toString();
+        ExternalSortTest.writeValues(pathToDataFile, values);
+
+        DateTimeDataset data = new DateTimeDataset(pathToDataFile, values[0]);
+        data.readArray();
+        data.sortArray();
+        data.writeSortedFiles();
+
+        values[0] = values[0].plusSeconds(1);
+        ExternalSortTest.writeValues(pathToDataFile, values);
+        assertEquals(IncrementalMerge.NOT_MERGED, IncrementalMerge.merge(pathToDataFile));
+    }
+
+    private static void assertSortedFilesEqual(LocalDateTime[] expected, String pathToDataFile) throws IOException {
+        assertEquals(ExternalSortTest.lines(expected), Files.readAllLines(
+                Path.of(pathToDataFile + IncrementalMerge.SORTED_FILE_SUFFIX), StandardCharsets.US_ASCII));
+        ExternalSortTest.assertIndexEquals(expected, pathToDataFile);
+    }
+}
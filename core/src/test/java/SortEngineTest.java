@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Перевiряє стратегiї SortEngine та видалення повторiв порiвнянням з Arrays.sort i Stream.distinct.
+ */
+class SortEngineTest {
+    private static final int SIZE = SortEngine.RADIX_THRESHOLD * 3 + 17;
+
+    @AfterEach
+    void clearStrategy() {
+        System.clearProperty(SortEngine.SORT_STRATEGY_PROPERTY);
+    }
+
+    @Test
+    void radixSortOfKeysMatchesArraysSort() {
+        Random random = new Random(1);
+        long[] narrow = random.longs(SIZE, 0, 1L << 20).toArray();
+        long[] negative = random.longs(SIZE, -1_000_000_000_000L, 1_000_000_000_000L).toArray();
+        long[] fullRange = random.longs(SIZE).toArray();
+        fullRange[0] = Long.MIN_VALUE;
+        fullRange[1] = Long.MAX_VALUE;
+
+        for (long[] keys : new long[][] {narrow, negative, fullRange, new long[SIZE], new long[] {5, -5}}) {
+            assertSortedLike(keys, SortEngine.Strategy.RADIX);
+        }
+    }
+
+    @Test
+    void everyStrategySortsKeys() {
+        long[] keys = new Random(2).longs(SIZE, -1_000_000, 1_000_000).toArray();
+        for (SortEngine.Strategy strategy : SortEngine.Strategy.values()) {
+            assertSortedLike(keys, strategy);
+        }
+    }
+
+    @Test
+    void radixSortOfDateTimesMatchesArraysSort() {
+        System.setProperty(SortEngine.SORT_STRATEGY_PROPERTY, SortEngine.Strategy.RADIX.toString());
+        LocalDateTime[] array = randomDateTimes(new Random(3), SIZE, false);
+        LocalDateTime[] expected = array.clone();
+        Arrays.sort(expected);
+
+        assertEquals(SortEngine.Strategy.RADIX, SortEngine.sort(array));
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void radixSortWithNanosFallsBackToParallelSort() {
+        System.setProperty(SortEngine.SORT_STRATEGY_PROPERTY, SortEngine.Strategy.RADIX.toString());
+        LocalDateTime[] array = randomDateTimes(new Random(4), SIZE, true);
+        LocalDateTime[] expected = array.clone();
+        Arrays.sort(expected);
+
+        assertEquals(SortEngine.Strategy.PARALLEL, SortEngine.sort(array));
+        assertArrayEquals(expected, array);
+    }
+
+    @Test
+    void radixSortOfDoublesMatchesArraysSort() {
+        System.setProperty(SortEngine.SORT_STRATEGY_PROPERTY, SortEngine.Strategy.RADIX.toString());
+        double[] values = new Random(5).doubles(SIZE, -1e9, 1e9).toArray();
+        values[0] = -0.0;
+        values[1] = 0.0;
+        values[2] = Double.NEGATIVE_INFINITY;
+        values[3] = Double.NaN;
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+
+        SortEngine.sort(values);
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    void deduplicateMatchesDistinct() {
+        Random random = new Random(6);
+        LocalDateTime[] array = randomDateTimes(random, 10_000, false);
+        for (int i = 0; i < array.length; i += 3) {
+            array[i] = array[random.nextInt(array.length)];
+        }
+        Arrays.sort(array);
+        LocalDateTime[] expected = Arrays.stream(array).distinct().toArray(LocalDateTime[]::new);
+
+        int count = SortEngine.deduplicate(array);
+        assertEquals(expected.length, count);
+        assertArrayEquals(expected, Arrays.copyOf(array, count));
+
+        long[] keys = random.longs(10_000, 0, 2_000).sorted().toArray();
+        long[] expectedKeys = Arrays.stream(keys).distinct().toArray();
+
+        count = SortEngine.deduplicate(keys);
+        assertArrayEquals(expectedKeys, Arrays.copyOf(keys, count));
+        assertEquals(0, SortEngine.deduplicate(new long[0]));
+    }
+
+    private static void assertSortedLike(long[] keys, SortEngine.Strategy strategy) {
+        System.setProperty(SortEngine.SORT_STRATEGY_PROPERTY, strategy.toString());
+        long[] actual = keys.clone();
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        SortEngine.sort(actual);
+        assertArrayEquals(expected, actual, strategy.toString());
+    }
+
+    static LocalDateTime[] randomDateTimes(Random random, int size, boolean withNanos) {
+        LocalDateTime[] array = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            long epochSecond = random.nextLong(-5_000_000_000L, 5_000_000_000L);
+            int nano = withNanos && random.nextBoolean() ? random.nextInt(1_000_000_000) : 0;
+            array[i] = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Перевiряє мiнiмаксну купу IndexedMinMaxHeap порiвнянням з вiдсортованою мультимножиною на TreeMap.
+ */
+class BasicDataOperationUsingQueueTest {
+    @Test
+    void minMaxHeapMatchesSortedMultiset() {
+        Random random = new Random(1);
+        List<Integer> initial = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            initial.add(random.nextInt(2_000));
+        }
+        IndexedMinMaxHeap<Integer> heap = new IndexedMinMaxHeap<>(initial);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        initial.forEach(value -> expected.merge(value, 1, Integer::sum));
+
+        for (int step = 0; step < 50_000; step++) {
+            int value = random.nextInt(2_000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    heap.offer(value);
+                    expected.merge(value, 1, Integer::sum);
+                    break;
+                case 1:
+                    assertEquals(pollEntry(expected.firstEntry(), expected), heap.poll());
+                    break;
+                case 2:
+                    assertEquals(pollEntry(expected.lastEntry(), expected), heap.pollLast());
+                    break;
+                case 3:
+                    boolean present = expected.containsKey(value);
+                    assertEquals(present, heap.remove(value));
+                    pollEntry(present ? Map.entry(value, 0) : null, expected);
+                    break;
+                default:
+                    assertEquals(expected.containsKey(value), heap.contains(value));
+                    break;
+            }
+            assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), heap.size());
+            assertEquals(expected.size(), heap.distinctCount());
+            assertEquals(expected.isEmpty() ? null : expected.firstKey(), heap.peek());
+            assertEquals(expected.isEmpty() ? null : expected.lastKey(), heap.peekLast());
+        }
+
+        while (!expected.isEmpty()) {
+            assertEquals(pollEntry(expected.firstEntry(), expected), heap.poll());
+        }
+        assertNull(heap.poll());
+        assertNull(heap.pollLast());
+    }
+
+    /**
+     * Видаляє одне входження ключа з мультимножини i повертає ключ (null для порожньої).
+     */
+    private static Integer pollEntry(Map.Entry<Integer, Integer> entry, TreeMap<Integer, Integer> multiset) {
+        if (entry == null) {
+            return null;
+        }
+        multiset.computeIfPresent(entry.getKey(), (key, count) -> count == 1 ? null : count - 1);
+        return entry.getKey();
+    }
+}
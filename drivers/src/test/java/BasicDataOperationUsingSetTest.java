@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Перевiряє множину LongHashSet, зокрема пакетний пошук, порiвнянням з HashSet.
+ */
+class BasicDataOperationUsingSetTest {
+    @Test
+    void longHashSetMatchesHashSet() {
+        Random random = new Random(1);
+        LongHashSet set = new LongHashSet(1);
+        Set<Long> expected = new HashSet<>();
+
+        long[] keys = new long[20_000];
+        for (int i = 0; i < keys.length; i++) {
+            // повтори, ключ-маркер порожньої комiрки i ключi з однаковими молодшими бiтами
+            keys[i] = i % 97 == 0 ? LongHashSet.EMPTY : i % 3 == 0 ? random.nextLong() << 32 : random.nextInt(10_000);
+            assertEquals(expected.add(keys[i]), set.add(keys[i]));
+        }
+        assertEquals(expected.size(), set.size());
+
+        long[] probes = new long[keys.length * 2];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = i % 2 == 0 ? keys[random.nextInt(keys.length)] : random.nextInt(20_000);
+        }
+        boolean[] found = new boolean[probes.length];
+        set.contains(probes, found);
+        for (int i = 0; i < probes.length; i++) {
+            assertEquals(expected.contains(probes[i]), set.contains(probes[i]), Long.toString(probes[i]));
+            assertEquals(expected.contains(probes[i]), found[i], Long.toString(probes[i]));
+        }
+
+        assertTrue(set.containsAll(keys));
+        assertEquals(expected.contains(-1L), set.containsAll(new long[] {keys[0], -1}));
+        assertArrayEquals(new long[] {Collections.min(expected), Collections.max(expected)}, set.minAndMax());
+    }
+
+    @Test
+    void minAndMaxWithoutEmptyMarker() {
+        LongHashSet set = new LongHashSet(4);
+        for (long key : new long[] {5, -3, 12, 5}) {
+            set.add(key);
+        }
+        assertEquals(3, set.size());
+        assertArrayEquals(new long[] {-3, 12}, set.minAndMax());
+    }
+}